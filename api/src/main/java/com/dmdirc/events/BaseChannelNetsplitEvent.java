@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.dmdirc.events;
+
+import com.dmdirc.interfaces.GroupChat;
+import com.dmdirc.interfaces.GroupChatUser;
+
+import com.google.common.collect.Lists;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Base class for events summarising the users affected by a netsplit in a channel.
+ */
+public abstract class BaseChannelNetsplitEvent extends ChannelDisplayableEvent {
+
+    /** The maximum number of nicknames to include in {@link #getNicknames()}. */
+    private static final int MAX_NICKNAMES = 20;
+
+    private final String server1;
+    private final String server2;
+    private final List<GroupChatUser> users;
+
+    public BaseChannelNetsplitEvent(final LocalDateTime timestamp, final GroupChat channel,
+            final String server1, final String server2, final Iterable<GroupChatUser> users) {
+        super(timestamp, channel);
+        this.server1 = server1;
+        this.server2 = server2;
+        this.users = Lists.newArrayList(users);
+    }
+
+    public BaseChannelNetsplitEvent(final GroupChat channel, final String server1,
+            final String server2, final Iterable<GroupChatUser> users) {
+        super(channel);
+        this.server1 = server1;
+        this.server2 = server2;
+        this.users = Lists.newArrayList(users);
+    }
+
+    public String getServer1() {
+        return server1;
+    }
+
+    public String getServer2() {
+        return server2;
+    }
+
+    public Collection<GroupChatUser> getUsers() {
+        return Collections.unmodifiableList(users);
+    }
+
+    public int getUserCount() {
+        return users.size();
+    }
+
+    /**
+     * Gets a comma-separated list of the affected users' nicknames. Large lists are truncated.
+     *
+     * @return A displayable list of nicknames.
+     */
+    public String getNicknames() {
+        final String nicknames = users.stream()
+                .limit(MAX_NICKNAMES)
+                .map(GroupChatUser::getNickname)
+                .collect(Collectors.joining(", "));
+        return users.size() > MAX_NICKNAMES
+                ? nicknames + " and " + (users.size() - MAX_NICKNAMES) + " more"
+                : nicknames;
+    }
+
+}
@@ -23,6 +23,7 @@
 package com.dmdirc.events;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -32,9 +33,18 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DisplayPropertyMap {
 
-    public static final DisplayPropertyMap EMPTY = new ReadOnlyDisplayPropertyMap();
+    public static final DisplayPropertyMap EMPTY =
+            new ReadOnlyDisplayPropertyMap(Collections.emptyMap());
 
-    private final Map<DisplayProperty<?>, Object> properties = new ConcurrentHashMap<>();
+    private final Map<DisplayProperty<?>, Object> properties;
+
+    public DisplayPropertyMap() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    private DisplayPropertyMap(final Map<DisplayProperty<?>, Object> properties) {
+        this.properties = properties;
+    }
 
     /**
      * Gets the value of the specified property, if present.
@@ -87,11 +97,54 @@ public class DisplayPropertyMap {
         return Collections.unmodifiableMap(properties);
     }
 
+    /**
+     * Creates a read only copy of this map. Unlike a normal map, the copy can never change, so
+     * copies with the same properties are equal to each other and may safely be shared.
+     *
+     * @return A read only copy of this map's current properties.
+     */
+    public DisplayPropertyMap snapshot() {
+        return new ReadOnlyDisplayPropertyMap(
+                Collections.unmodifiableMap(new HashMap<>(properties)));
+    }
+
     private static class ReadOnlyDisplayPropertyMap extends DisplayPropertyMap {
+
+        ReadOnlyDisplayPropertyMap(final Map<DisplayProperty<?>, Object> properties) {
+            super(properties);
+        }
+
         @Override
         public <T> void put(final DisplayProperty<T> property, final T value) {
             throw new UnsupportedOperationException("Read only");
         }
+
+        @Override
+        public void putAll(final DisplayPropertyMap other) {
+            throw new UnsupportedOperationException("Read only");
+        }
+
+        @Override
+        public <T> void remove(final DisplayProperty<T> property) {
+            throw new UnsupportedOperationException("Read only");
+        }
+
+        @Override
+        public DisplayPropertyMap snapshot() {
+            return this;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof ReadOnlyDisplayPropertyMap
+                    && getProperties().equals(((DisplayPropertyMap) obj).getProperties());
+        }
+
+        @Override
+        public int hashCode() {
+            return getProperties().hashCode();
+        }
+
     }
 
 }
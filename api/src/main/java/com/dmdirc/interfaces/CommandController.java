@@ -26,6 +26,7 @@ import com.dmdirc.commandparser.CommandInfo;
 import com.dmdirc.commandparser.CommandType;
 import com.dmdirc.commandparser.commands.Command;
 import com.dmdirc.commandparser.parsers.CommandParser;
+import com.dmdirc.ui.input.CompletionDictionary;
 
 import java.util.List;
 import java.util.Map;
@@ -70,6 +71,17 @@ public interface CommandController {
      */
     List<String> getCommandNames(final CommandType type);
 
+    /**
+     * Retrieves a dictionary of the names of all commands of the specified type, with and without
+     * the silence character, for use in tab completion. The dictionary reflects the commands
+     * registered at the time of the call and is never modified afterwards.
+     *
+     * @param type The type of command to list
+     *
+     * @return A dictionary of command names
+     */
+    CompletionDictionary getCommandCompletions(final CommandType type);
+
     /**
      * Retrieves a map of all {@link CommandInfo}s and their associated {@link Command}s of the
      * specified type.
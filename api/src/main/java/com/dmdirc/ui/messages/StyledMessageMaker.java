@@ -40,6 +40,18 @@ public interface StyledMessageMaker<T> {
 
     void appendString(String text);
 
+    /**
+     * Appends part of a string. Implementations may override this to avoid creating an
+     * intermediate substring.
+     *
+     * @param text  The text containing the part to be appended.
+     * @param start The index of the first character to append.
+     * @param end   The index after the last character to append.
+     */
+    default void appendString(final String text, final int start, final int end) {
+        appendString(text.substring(start, end));
+    }
+
     void toggleBold();
 
     void toggleUnderline();
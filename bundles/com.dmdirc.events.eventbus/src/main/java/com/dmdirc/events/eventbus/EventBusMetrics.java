@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.events.eventbus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides statistics about the events an {@link EventBus} has published asynchronously, and about
+ * how long each of its handlers has taken.
+ */
+public interface EventBusMetrics {
+
+    /**
+     * Gets the number of asynchronously published events that are waiting to be dispatched.
+     *
+     * @return The total number of queued events.
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets the number of asynchronously published events that have been dispatched.
+     *
+     * @return The number of dispatched events.
+     */
+    long getDispatchCount();
+
+    /**
+     * Gets the mean time taken to dispatch an asynchronously published event. This covers every
+     * handler the event is delivered to; use {@link #getHandlerTimings()} to find slow handlers.
+     *
+     * @param unit The unit to return the time in.
+     * @return The mean per-event dispatch time, or zero if no events have been dispatched.
+     */
+    long getMeanDispatchTime(TimeUnit unit);
+
+    /**
+     * Gets the longest time taken to dispatch a single asynchronously published event. This covers
+     * every handler the event is delivered to; use {@link #getHandlerTimings()} to find slow
+     * handlers.
+     *
+     * @param unit The unit to return the time in.
+     * @return The maximum per-event dispatch time, or zero if no events have been dispatched.
+     */
+    long getMaxDispatchTime(TimeUnit unit);
+
+    /**
+     * Gets the time spent in each handler method that has been invoked, whether the event was
+     * published synchronously or asynchronously. Asynchronous handlers are timed while they run,
+     * not while they are queued.
+     *
+     * @return Timings for each invoked handler, with those that have taken the most time in total
+     * first.
+     */
+    List<HandlerTiming> getHandlerTimings();
+
+}
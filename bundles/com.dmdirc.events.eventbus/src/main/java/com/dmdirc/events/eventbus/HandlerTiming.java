@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.events.eventbus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of how long a single event handler method has spent handling events.
+ */
+public final class HandlerTiming {
+
+    /** The name of the handler method, in the form {@code com.example.Class#method}. */
+    private final String handler;
+    /** The number of times the handler has been invoked. */
+    private final long invocationCount;
+    /** The total time spent in the handler, in nanoseconds. */
+    private final long totalTime;
+    /** The longest time spent in a single invocation of the handler, in nanoseconds. */
+    private final long maxTime;
+
+    public HandlerTiming(final String handler, final long invocationCount, final long totalTime,
+            final long maxTime) {
+        this.handler = handler;
+        this.invocationCount = invocationCount;
+        this.totalTime = totalTime;
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * Gets the name of the handler method.
+     *
+     * @return The handler's class and method name, in the form {@code com.example.Class#method}.
+     */
+    public String getHandler() {
+        return handler;
+    }
+
+    /**
+     * Gets the number of times the handler has been invoked.
+     *
+     * @return The number of invocations.
+     */
+    public long getInvocationCount() {
+        return invocationCount;
+    }
+
+    /**
+     * Gets the total time spent in the handler.
+     *
+     * @param unit The unit to return the time in.
+     * @return The total time spent handling events.
+     */
+    public long getTotalTime(final TimeUnit unit) {
+        return unit.convert(totalTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the mean time spent in a single invocation of the handler.
+     *
+     * @param unit The unit to return the time in.
+     * @return The mean invocation time, or zero if the handler has not been invoked.
+     */
+    public long getMeanTime(final TimeUnit unit) {
+        return invocationCount == 0 ? 0
+                : unit.convert(totalTime / invocationCount, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the longest time spent in a single invocation of the handler.
+     *
+     * @param unit The unit to return the time in.
+     * @return The maximum invocation time.
+     */
+    public long getMaxTime(final TimeUnit unit) {
+        return unit.convert(maxTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return handler + ": " + invocationCount + " invocations, mean "
+                + getMeanTime(TimeUnit.MICROSECONDS) + "us, max "
+                + getMaxTime(TimeUnit.MICROSECONDS) + "us";
+    }
+
+}
@@ -17,27 +17,102 @@
 
 package com.dmdirc.events.eventbus;
 
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import net.engio.mbassy.bus.MBassador;
+import net.engio.mbassy.bus.MessagePublication;
 import net.engio.mbassy.bus.config.BusConfiguration;
 import net.engio.mbassy.bus.config.Feature;
+import net.engio.mbassy.bus.error.MessageBusException;
+import net.engio.mbassy.dispatch.HandlerInvocation;
+import net.engio.mbassy.dispatch.IHandlerInvocation;
+import net.engio.mbassy.subscription.SubscriptionContext;
+import net.engio.mbassy.subscription.SubscriptionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Concrete event bus backed by {@link MBassador}.
+ *
+ * <p>Asynchronously published events are dispatched on a fixed number of single-threaded lanes.
+ * Each event is assigned to a lane using an ordering key, so events sharing a key (such as all
+ * events for one connection) are always dispatched in the order they were published, while events
+ * with different keys may be dispatched concurrently.
+ *
+ * <p>Every handler invocation is timed, so {@link #getHandlerTimings()} can identify slow handlers.
  */
-public class MBassadorEventBus implements EventBus {
+public class MBassadorEventBus implements EventBus, EventBusMetrics {
 
     private static final Logger LOG = LoggerFactory.getLogger(MBassadorEventBus.class);
 
     private final MBassador<BaseEvent> bus;
+    /** The single-threaded executors used to dispatch asynchronous events. */
+    private final ThreadPoolExecutor[] lanes;
+    /** Function used to determine the ordering key of an event. */
+    private final Function<BaseEvent, Object> orderingKey;
+    /** The number of asynchronous events that have been dispatched. */
+    private final LongAdder dispatchCount = new LongAdder();
+    /** Total time, in nanoseconds, spent dispatching asynchronous events to their handlers. */
+    private final LongAdder dispatchTime = new LongAdder();
+    /** Longest time, in nanoseconds, spent dispatching a single asynchronous event. */
+    private final LongAccumulator maxDispatchTime = new LongAccumulator(Math::max, 0);
+    /** Time spent in each handler method that has been invoked. */
+    private final Map<Method, HandlerStats> handlerStats = new ConcurrentHashMap<>();
 
     public MBassadorEventBus() {
+        this(1, 1, event -> null);
+    }
+
+    /**
+     * Creates a new event bus.
+     *
+     * @param lanes          The number of threads used to dispatch asynchronously published events.
+     * @param handlerThreads The number of threads used to invoke asynchronous handlers.
+     * @param orderingKey    Function returning the ordering key of an event. Events with equal keys
+     *                       are dispatched in the order they are published. May return null, in
+     *                       which case the event is dispatched on the first lane.
+     */
+    public MBassadorEventBus(final int lanes, final int handlerThreads,
+            final Function<BaseEvent, Object> orderingKey) {
+        if (lanes < 1 || handlerThreads < 1) {
+            throw new IllegalArgumentException(
+                    "Event bus requires at least one thread of each type");
+        }
+
         bus = new MBassador<>(new BusConfiguration()
-                .addFeature(Feature.SyncPubSub.Default())
-                .addFeature(Feature.AsynchronousHandlerInvocation.Default(1, 1))
-                .addFeature(Feature.AsynchronousMessageDispatch.Default().setNumberOfMessageDispatchers(1))
-                .addPublicationErrorHandler(e -> LOG.error("Unhandled exception while publishing event", e)));
+                .addFeature(Feature.SyncPubSub.Default()
+                        .setSubscriptionFactory(new TimingSubscriptionFactory()))
+                .addFeature(Feature.AsynchronousHandlerInvocation.Default(handlerThreads,
+                        handlerThreads))
+                // Asynchronous publishing is done by our own lanes, but MBassador insists on this
+                // feature being present; with no dispatchers it doesn't start any threads.
+                .addFeature(Feature.AsynchronousMessageDispatch.Default()
+                        .setNumberOfMessageDispatchers(0))
+                .addPublicationErrorHandler(
+                        e -> LOG.error("Unhandled exception while publishing event", e)));
+        this.lanes = new ThreadPoolExecutor[lanes];
+        this.orderingKey = orderingKey;
+
+        for (int i = 0; i < lanes; i++) {
+            final String name = "Event dispatcher " + i;
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        final Thread thread = new Thread(r, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
     }
 
     @Override
@@ -57,7 +132,143 @@ public class MBassadorEventBus implements EventBus {
 
     @Override
     public void publishAsync(BaseEvent message) {
-        bus.publishAsync(message);
+        getLane(message).execute(() -> dispatch(message));
+    }
+
+    @Override
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            depth += lane.getQueue().size();
+        }
+        return depth;
+    }
+
+    @Override
+    public long getDispatchCount() {
+        return dispatchCount.sum();
+    }
+
+    @Override
+    public long getMeanDispatchTime(final TimeUnit unit) {
+        final long count = dispatchCount.sum();
+        return count == 0 ? 0 : unit.convert(dispatchTime.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long getMaxDispatchTime(final TimeUnit unit) {
+        return unit.convert(maxDispatchTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public List<HandlerTiming> getHandlerTimings() {
+        return handlerStats.entrySet().stream()
+                .map(e -> e.getValue().getTiming(e.getKey()))
+                .sorted(Comparator.comparingLong(
+                        (HandlerTiming t) -> t.getTotalTime(TimeUnit.NANOSECONDS)).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Selects the lane that an event should be dispatched on.
+     *
+     * @param message The event being dispatched.
+     * @return The executor for the event's lane.
+     */
+    private ThreadPoolExecutor getLane(final BaseEvent message) {
+        final Object key = orderingKey.apply(message);
+        return key == null ? lanes[0] : lanes[Math.floorMod(key.hashCode(), lanes.length)];
+    }
+
+    /**
+     * Synchronously dispatches an event on the current lane, recording how long it takes.
+     *
+     * @param message The event to dispatch.
+     */
+    private void dispatch(final BaseEvent message) {
+        final long start = System.nanoTime();
+        try {
+            bus.publish(message);
+        } finally {
+            final long duration = System.nanoTime() - start;
+            dispatchCount.increment();
+            dispatchTime.add(duration);
+            maxDispatchTime.accumulate(duration);
+        }
+    }
+
+    /**
+     * Running totals of the time spent in a single handler method.
+     */
+    private static class HandlerStats {
+
+        /** The number of times the handler has been invoked. */
+        private final LongAdder count = new LongAdder();
+        /** Total time, in nanoseconds, spent in the handler. */
+        private final LongAdder time = new LongAdder();
+        /** Longest time, in nanoseconds, spent in a single invocation. */
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void record(final long duration) {
+            count.increment();
+            time.add(duration);
+            max.accumulate(duration);
+        }
+
+        HandlerTiming getTiming(final Method method) {
+            return new HandlerTiming(
+                    method.getDeclaringClass().getName() + '#' + method.getName(),
+                    count.sum(), time.sum(), max.get());
+        }
+
+    }
+
+    /**
+     * Subscription factory that wraps each handler's innermost invocation with a timer. The timer
+     * sits inside any asynchronous invocation, so queueing time is not counted against handlers.
+     */
+    private class TimingSubscriptionFactory extends SubscriptionFactory {
+
+        @Override
+        protected IHandlerInvocation createBaseHandlerInvocation(final SubscriptionContext context)
+                throws MessageBusException {
+            final HandlerStats stats = handlerStats.computeIfAbsent(
+                    context.getHandler().getMethod(), m -> new HandlerStats());
+            return new TimedHandlerInvocation(context, super.createBaseHandlerInvocation(context),
+                    stats);
+        }
+
+    }
+
+    /**
+     * Handler invocation that records how long another invocation takes.
+     */
+    private static class TimedHandlerInvocation extends HandlerInvocation<Object, Object> {
+
+        /** The invocation being timed. */
+        private final IHandlerInvocation<Object, Object> delegate;
+        /** The statistics to record the time in. */
+        private final HandlerStats stats;
+
+        @SuppressWarnings("unchecked")
+        TimedHandlerInvocation(final SubscriptionContext context,
+                final IHandlerInvocation delegate, final HandlerStats stats) {
+            super(context);
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public void invoke(final Object listener, final Object message,
+                final MessagePublication publication) {
+            final long start = System.nanoTime();
+            try {
+                delegate.invoke(listener, message, publication);
+            } finally {
+                stats.record(System.nanoTime() - start);
+            }
+        }
+
     }
 
 }
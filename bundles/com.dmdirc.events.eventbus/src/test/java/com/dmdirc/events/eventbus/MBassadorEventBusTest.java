@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.events.eventbus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.engio.mbassy.listener.Handler;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MBassadorEventBusTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRequiresAtLeastOneLane() {
+        new MBassadorEventBus(0, 1, e -> null);
+    }
+
+    @Test
+    public void testPreservesOrderForSameKey() throws InterruptedException {
+        final MBassadorEventBus bus = new MBassadorEventBus(4, 1, e -> ((TestEvent) e).key);
+        final Listener listener = new Listener(200);
+        bus.subscribe(listener);
+
+        for (int i = 0; i < 100; i++) {
+            bus.publishAsync(new TestEvent("a", i));
+            bus.publishAsync(new TestEvent("b", i));
+        }
+
+        assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+        assertEquals(range(100), listener.getValues("a"));
+        assertEquals(range(100), listener.getValues("b"));
+    }
+
+    @Test
+    public void testRecordsDispatchMetrics() throws InterruptedException {
+        final MBassadorEventBus bus = new MBassadorEventBus();
+        final Listener listener = new Listener(3);
+        bus.subscribe(listener);
+
+        bus.publishAsync(new TestEvent("a", 1));
+        bus.publishAsync(new TestEvent(null, 2));
+        bus.publishAsync(new TestEvent("c", 3));
+
+        assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+        // The count is updated after the handlers have run, so wait for the lane to catch up.
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (bus.getDispatchCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, bus.getDispatchCount());
+        assertEquals(0, bus.getQueueDepth());
+        assertTrue(bus.getMaxDispatchTime(TimeUnit.NANOSECONDS)
+                >= bus.getMeanDispatchTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testRecordsHandlerTimings() {
+        final MBassadorEventBus bus = new MBassadorEventBus();
+        bus.subscribe(new Listener(2));
+        bus.subscribe(new SlowListener());
+
+        bus.publish(new TestEvent("a", 1));
+        bus.publish(new TestEvent("a", 2));
+
+        final List<HandlerTiming> timings = bus.getHandlerTimings();
+        assertEquals(2, timings.size());
+        assertEquals(SlowListener.class.getName() + "#handle", timings.get(0).getHandler());
+        assertEquals(Listener.class.getName() + "#handle", timings.get(1).getHandler());
+        assertEquals(2, timings.get(0).getInvocationCount());
+        assertEquals(2, timings.get(1).getInvocationCount());
+        assertTrue(timings.get(0).getMaxTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(timings.get(0).getMeanTime(TimeUnit.MILLISECONDS) >= 20);
+    }
+
+    @Test
+    public void testDoesNotStartMBassadorDispatchers() {
+        new MBassadorEventBus();
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(t -> t.getName().startsWith("MsgDispatcher")));
+    }
+
+    private static List<Integer> range(final int count) {
+        final List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+
+    private static class TestEvent extends BaseEvent {
+
+        private final String key;
+        private final int value;
+
+        TestEvent(final String key, final int value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+    public static class SlowListener {
+
+        @Handler
+        public void handle(final TestEvent event) throws InterruptedException {
+            Thread.sleep(20);
+        }
+
+    }
+
+    public static class Listener {
+
+        private final List<TestEvent> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch latch;
+
+        Listener(final int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        @Handler
+        public void handle(final TestEvent event) {
+            events.add(event);
+            latch.countDown();
+        }
+
+        List<Integer> getValues(final String key) {
+            final List<Integer> values = new ArrayList<>();
+            synchronized (events) {
+                events.stream().filter(e -> key.equals(e.key)).forEach(e -> values.add(e.value));
+            }
+            return values;
+        }
+
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.events.eventbus.EventBus;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.parser.events.ChannelMessageEvent;
+import com.dmdirc.parser.interfaces.ChannelInfo;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import net.engio.mbassy.bus.MBassador;
+import net.engio.mbassy.listener.Handler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the cost of handling a single channel message on a connection with an increasing
+ * number of joined channels, comparing every channel's handler receiving every event against the
+ * {@link ChannelEventDispatcher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChannelEventDispatcherBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int channelCount;
+
+    private MBassador<Object> broadcastBus;
+    private MBassador<Object> dispatchedBus;
+    private ChannelMessageEvent event;
+
+    @Setup
+    public void setup() {
+        final EventBus eventBus = mock(EventBus.class);
+        final GroupChatUserManager userManager = mock(GroupChatUserManager.class);
+        final ChannelMap channels = new ChannelMap();
+
+        broadcastBus = new MBassador<>();
+        dispatchedBus = new MBassador<>();
+
+        ChannelInfo target = null;
+        for (int i = 0; i < channelCount; i++) {
+            final ChannelInfo info = mock(ChannelInfo.class);
+            when(info.getName()).thenReturn("#channel" + i);
+
+            final Channel channel = mock(Channel.class);
+            when(channel.getName()).thenReturn("#channel" + i);
+            when(channel.getChannelInfo()).thenReturn(info);
+
+            final ChannelEventHandler handler =
+                    new ChannelEventHandler(channel, eventBus, userManager,
+                            mock(NetsplitTracker.class));
+            when(channel.getEventHandler()).thenReturn(handler);
+
+            channels.add(channel);
+            broadcastBus.subscribe(new BroadcastListener(handler));
+            target = info;
+        }
+
+        dispatchedBus.subscribe(new ChannelEventDispatcher(mock(Connection.class), channels));
+
+        event = mock(ChannelMessageEvent.class);
+        when(event.getChannel()).thenReturn(target);
+        when(event.getDate()).thenReturn(LocalDateTime.now());
+        when(event.getMessage()).thenReturn("Hello world");
+    }
+
+    @Benchmark
+    public void broadcast() {
+        broadcastBus.publish(event);
+    }
+
+    @Benchmark
+    public void dispatched() {
+        dispatchedBus.publish(event);
+    }
+
+    /**
+     * Replicates the previous arrangement, where each channel's handler was subscribed to the
+     * parser and ignored events for other channels.
+     */
+    public static class BroadcastListener {
+
+        private final ChannelEventHandler handler;
+
+        public BroadcastListener(final ChannelEventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Handler
+        public void onChannelMessage(final ChannelMessageEvent event) {
+            handler.onChannelMessage(event);
+        }
+
+    }
+
+}
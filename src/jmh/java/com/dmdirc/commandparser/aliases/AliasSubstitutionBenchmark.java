@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.commandparser.aliases;
+
+import com.dmdirc.commandparser.CommandArguments;
+import com.dmdirc.interfaces.CommandController;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures expanding an alias whose body spans several lines, each referring to many arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AliasSubstitutionBenchmark {
+
+    @Param({"1", "10"})
+    private int lines;
+
+    @Param({"2", "20"})
+    private int arguments;
+
+    private AliasSubstitution substitution;
+    private CommandArguments args;
+
+    @Setup
+    public void setup() {
+        // A minimal controller: the command character is '/' and nothing else is needed.
+        final CommandController controller = (CommandController) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{CommandController.class},
+                (proxy, method, params) -> method.getReturnType() == char.class ? '/' : null);
+
+        final StringBuilder body = new StringBuilder();
+        for (int line = 0; line < lines; line++) {
+            body.append("msg #channel ");
+            for (int argument = 1; argument <= arguments; argument++) {
+                body.append('$').append(argument).append(argument % 2 == 0 ? "- " : " ");
+            }
+            body.append('\n');
+        }
+        substitution = AliasSubstitution.compile(body.toString());
+
+        final StringBuilder line = new StringBuilder("/alias");
+        for (int argument = 1; argument <= arguments; argument++) {
+            line.append(" argument").append(argument);
+        }
+        args = new CommandArguments(controller, line.toString());
+    }
+
+    @Benchmark
+    public AliasSubstitution compile() {
+        return AliasSubstitution.compile("msg #channel $1 $2- $3\nnotice $1 $4-");
+    }
+
+    @Benchmark
+    public List<String> expand() {
+        return substitution.expand(args, "/");
+    }
+
+}
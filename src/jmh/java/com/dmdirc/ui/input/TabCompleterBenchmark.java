@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.input;
+
+import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.parser.common.DefaultStringConverter;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures completing nicknames in a large channel, whose completer also references a shared
+ * dictionary of command names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TabCompleterBenchmark {
+
+    @Param({"50", "500", "5000"})
+    private int users;
+
+    private TabCompleterImpl completer;
+
+    @Setup
+    public void setup() {
+        // A minimal config provider: every boolean setting is false.
+        final AggregateConfigProvider config = (AggregateConfigProvider) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{AggregateConfigProvider.class},
+                (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+
+        final CompletionTrie commands = new CompletionTrie(new DefaultStringConverter());
+        for (int i = 0; i < 200; i++) {
+            commands.add("/command" + i);
+        }
+
+        completer = new TabCompleterImpl(config);
+        completer.addDictionary(TabCompletionType.COMMAND, () -> commands);
+        for (int i = 0; i < users; i++) {
+            completer.addEntry(TabCompletionType.CHANNEL_NICK, "User" + i);
+        }
+    }
+
+    @Benchmark
+    public List<String> completeUnique() {
+        return completer.complete("user1234", null);
+    }
+
+    @Benchmark
+    public List<String> completeCommon() {
+        return completer.complete("user4", null);
+    }
+
+    @Benchmark
+    public List<String> completeMissing() {
+        return completer.complete("nobody", null);
+    }
+
+}
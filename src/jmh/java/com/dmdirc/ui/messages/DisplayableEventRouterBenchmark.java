@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.dmdirc.events.ChannelMessageEvent;
+import com.dmdirc.events.DisplayLocation;
+import com.dmdirc.events.DisplayProperty;
+import com.dmdirc.events.DisplayableEvent;
+import com.dmdirc.events.eventbus.EventBus;
+import com.dmdirc.events.eventbus.MBassadorEventBus;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.interfaces.GroupChat;
+import com.dmdirc.interfaces.WindowModel;
+import com.dmdirc.util.EventUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import net.engio.mbassy.listener.Handler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the cost of delivering a single channel message to the back buffers of a client with
+ * an increasing number of open windows, comparing each buffer filtering every event on the bus
+ * against the {@link DisplayableEventRouter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DisplayableEventRouterBenchmark {
+
+    /** Number of connections the windows are spread across. */
+    private static final int CONNECTIONS = 10;
+
+    @Param({"10", "100", "500", "1000", "2000"})
+    public int windowCount;
+
+    private EventBus broadcastBus;
+    private EventBus routedBus;
+    private ChannelMessageEvent event;
+
+    @Setup
+    public void setup() {
+        final EventFormatProvider formatProvider = stub(EventFormatProvider.class);
+        when(formatProvider.getFormat(any())).thenReturn(Optional.empty());
+        final EventFormatter formatter = stub(EventFormatter.class);
+        when(formatter.getEventFormatProvider()).thenReturn(formatProvider);
+
+        final List<Connection> connections = new ArrayList<>(CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            connections.add(stub(Connection.class));
+        }
+
+        broadcastBus = new MBassadorEventBus();
+        routedBus = new MBassadorEventBus();
+        final DisplayableEventRouter router = new DisplayableEventRouter(formatter);
+        routedBus.subscribe(router);
+
+        final List<WindowModel> windows = new ArrayList<>(windowCount);
+        for (int i = 0; i < windowCount; i++) {
+            final WindowModel window = stub(WindowModel.class);
+            when(window.getConnection())
+                    .thenReturn(Optional.of(connections.get(i % CONNECTIONS)));
+            windows.add(window);
+
+            final BackBufferImpl buffer = stub(BackBufferImpl.class);
+            when(buffer.getOwner()).thenReturn(window);
+            router.register(buffer);
+
+            broadcastBus.subscribe(new BroadcastBuffer(window, formatter));
+        }
+
+        final GroupChat channel = stub(GroupChat.class);
+        when(channel.getWindowModel()).thenReturn(windows.get(windowCount / 2));
+        event = new ChannelMessageEvent(channel, null, "Hello world");
+    }
+
+    @TearDown
+    public void tearDown() {
+        broadcastBus = null;
+        routedBus = null;
+    }
+
+    @Benchmark
+    public void broadcast() {
+        broadcastBus.publish(event);
+    }
+
+    @Benchmark
+    public void routed() {
+        routedBus.publish(event);
+    }
+
+    private static <T> T stub(final Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    /**
+     * Replicates a back buffer that subscribes to the bus directly and filters every event.
+     */
+    public static class BroadcastBuffer {
+
+        private final WindowModel owner;
+        private final EventFormatter formatter;
+        private int delivered;
+
+        BroadcastBuffer(final WindowModel owner, final EventFormatter formatter) {
+            this.owner = owner;
+            this.formatter = formatter;
+        }
+
+        @Handler(priority = EventUtils.PRIORITY_DISPLAYABLE_EVENT_HANDLER)
+        public void handleDisplayableEvent(final DisplayableEvent event) {
+            if (formatter.getEventFormatProvider().getFormat(event.getClass())
+                    .flatMap(f -> f.getDisplayProperties().get(DisplayProperty.DISPLAY_LOCATION))
+                    .orElse(DisplayLocation.SOURCE).shouldDisplay(owner, event)
+                    && !event.hasDisplayProperty(DisplayProperty.DO_NOT_DISPLAY)) {
+                delivered++;
+            }
+        }
+
+    }
+
+}
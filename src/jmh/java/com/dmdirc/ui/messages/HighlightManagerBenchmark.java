@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares checking a message against one pattern per highlight word with checking it against
+ * the single combined pattern used by {@link HighlightManager}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HighlightManagerBenchmark {
+
+    /** The per-word template previously used by {@link HighlightManager}. */
+    private static final String PER_WORD_TEMPLATE = "(?i).*(\\p{Space}|^|\\p{Punct})\\Q%s\\E"
+            + "(\\p{Space}|\\p{Punct}|$).*";
+
+    /** A message that contains none of the highlight words. */
+    private static final String MISS = "<someone> has anyone tried the new release yet? the "
+            + "changelog looks quite long, lots of fixes for the parser and the ui";
+    /** A message that contains the last highlight word, near the end. */
+    private static final String LATE_HIT = "<someone> has anyone tried the new release yet? the "
+            + "changelog looks quite long, lots of fixes for word0 and highlight";
+
+    @Param({"1", "10", "50", "200"})
+    private int words;
+
+    private List<Pattern> perWordPatterns;
+    private Pattern combinedPattern;
+
+    @Setup
+    public void setup() {
+        final List<String> highlights = new ArrayList<>();
+        for (int i = 1; i < words; i++) {
+            highlights.add("word" + i);
+        }
+        highlights.add("highlight");
+
+        perWordPatterns = highlights.stream()
+                .map(w -> Pattern.compile(String.format(PER_WORD_TEMPLATE, w)))
+                .collect(Collectors.toList());
+        combinedPattern = HighlightManager.compile(highlights);
+    }
+
+    @Benchmark
+    public boolean perWordMiss() {
+        return perWordPatterns.stream().anyMatch(p -> p.matcher(MISS).matches());
+    }
+
+    @Benchmark
+    public boolean combinedMiss() {
+        return combinedPattern.matcher(MISS).find();
+    }
+
+    @Benchmark
+    public boolean perWordHit() {
+        return perWordPatterns.stream().anyMatch(p -> p.matcher(LATE_HIT).matches());
+    }
+
+    @Benchmark
+    public boolean combinedHit() {
+        return combinedPattern.matcher(LATE_HIT).find();
+    }
+
+}
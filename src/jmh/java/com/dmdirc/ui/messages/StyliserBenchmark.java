@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.util.colours.Colour;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the cost of styling lines of text with varying amounts of mIRC formatting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StyliserBenchmark {
+
+    /** A line with no formatting at all. */
+    private static final String PLAIN_LINE =
+            "<nickname> just a normal line of chat with nothing special going on in it at all";
+    /** A typical line with a nickname, a link and a smilie. */
+    private static final String TYPICAL_LINE = "<" + StyleApplier.CODE_NICKNAME + "nickname"
+            + StyleApplier.CODE_NICKNAME + "nickname" + StyleApplier.CODE_NICKNAME
+            + "> have a look at http://www.example.com/foo?bar=baz, it's great :)";
+    /** A line from a script that colours every character and sets backgrounds. */
+    private static final String RAINBOW_LINE;
+    /** A line from a script that uses lots of bold, underline and hex colours. */
+    private static final String MIXED_LINE = "\u0002\u000304,01[\u000308np\u000304]\u0002 "
+            + "\u001fArtist\u001f - \u000412FF34Title\u0004 \u000300,02(3:45)\u0003 "
+            + "\u001d\u000309128kbps\u000f \u000400FF00,000000hex\u0004 \u0012\u0002neg\u0012";
+
+    static {
+        final StringBuilder rainbow = new StringBuilder();
+        final String text = "Rainbow text is extremely popular with some scripts!!";
+        for (int i = 0; i < text.length(); i++) {
+            rainbow.append(IRCControlCodes.COLOUR).append(i % 16).append(',')
+                    .append(15 - i % 16).append(text.charAt(i));
+        }
+        RAINBOW_LINE = rainbow.toString();
+    }
+
+    private Styliser styliser;
+    private CountingStyledMessageMaker maker;
+
+    @Setup
+    public void setup() {
+        final AggregateConfigProvider config =
+                mock(AggregateConfigProvider.class, withSettings().stubOnly());
+        final Map<String, String> icons = new HashMap<>();
+        icons.put("smilie-:)", "smile");
+        icons.put("smilie-:(", "frown");
+        icons.put("smilie-:P", "tongue");
+        when(config.getOptions("icon")).thenReturn(icons);
+        when(config.getOptionBool("ui", "stylelinks")).thenReturn(true);
+        when(config.getOptionBool("ui", "stylechannels")).thenReturn(true);
+
+        styliser = new Styliser(null, config, new ColourManagerImpl(config));
+        maker = new CountingStyledMessageMaker();
+    }
+
+    @Benchmark
+    public int plainLine() {
+        styliser.addStyledString(maker, PLAIN_LINE);
+        return maker.getStyledMessage();
+    }
+
+    @Benchmark
+    public int typicalLine() {
+        styliser.addStyledString(maker, TYPICAL_LINE);
+        return maker.getStyledMessage();
+    }
+
+    @Benchmark
+    public int rainbowLine() {
+        styliser.addStyledString(maker, RAINBOW_LINE);
+        return maker.getStyledMessage();
+    }
+
+    @Benchmark
+    public int mixedLine() {
+        styliser.addStyledString(maker, MIXED_LINE);
+        return maker.getStyledMessage();
+    }
+
+    /**
+     * Message maker that ignores styles and counts the characters appended to it.
+     */
+    private static class CountingStyledMessageMaker implements StyledMessageMaker<Integer> {
+
+        private int count;
+
+        @Override
+        public Integer getStyledMessage() {
+            return count;
+        }
+
+        @Override
+        public void appendString(final String text) {
+            count += text.length();
+        }
+
+        @Override
+        public void appendString(final String text, final int start, final int end) {
+            count += end - start;
+        }
+
+        @Override
+        public void resetAllStyles() {
+            count++;
+        }
+
+        @Override
+        public void resetColours() {
+            count++;
+        }
+
+        @Override
+        public void toggleBold() {
+            count++;
+        }
+
+        @Override
+        public void toggleUnderline() {
+            count++;
+        }
+
+        @Override
+        public void toggleItalic() {
+            count++;
+        }
+
+        @Override
+        public void startHyperlink(final String url) {
+            count++;
+        }
+
+        @Override
+        public void endHyperlink() {
+            count++;
+        }
+
+        @Override
+        public void toggleHyperlinkStyle(final Colour colour) {
+            count++;
+        }
+
+        @Override
+        public void startChannelLink(final String channel) {
+            count++;
+        }
+
+        @Override
+        public void endChannelLink() {
+            count++;
+        }
+
+        @Override
+        public void toggleChannelLinkStyle(final Colour colour) {
+            count++;
+        }
+
+        @Override
+        public void startNicknameLink(final String nickname) {
+            count++;
+        }
+
+        @Override
+        public void endNicknameLink() {
+            count++;
+        }
+
+        @Override
+        public void toggleFixedWidth() {
+            count++;
+        }
+
+        @Override
+        public void setForeground(final Colour colour) {
+            count++;
+        }
+
+        @Override
+        public void setDefaultForeground(final Colour colour) {
+            count++;
+        }
+
+        @Override
+        public void setBackground(final Colour colour) {
+            count++;
+        }
+
+        @Override
+        public void setDefaultBackground(final Colour colour) {
+            count++;
+        }
+
+        @Override
+        public void startSmilie(final String smilie) {
+            count++;
+        }
+
+        @Override
+        public void endSmilie() {
+            count++;
+        }
+
+        @Override
+        public void startToolTip(final String tooltip) {
+            count++;
+        }
+
+        @Override
+        public void endToolTip() {
+            count++;
+        }
+
+        @Override
+        public void setDefaultFont(final String fontName, final int fontSize) {
+            count++;
+        }
+
+        @Override
+        public int getMaximumFontSize() {
+            return 0;
+        }
+
+        @Override
+        public void clear() {
+            count = 0;
+        }
+
+    }
+
+}
@@ -25,6 +25,7 @@ import com.dmdirc.events.CommandErrorEvent;
 import com.dmdirc.events.NickListClientAddedEvent;
 import com.dmdirc.events.NickListClientRemovedEvent;
 import com.dmdirc.events.NickListClientsChangedEvent;
+import com.dmdirc.events.NickListEvent;
 import com.dmdirc.events.NickListUpdatedEvent;
 import com.dmdirc.interfaces.Connection;
 import com.dmdirc.interfaces.GroupChat;
@@ -35,19 +36,21 @@ import com.dmdirc.config.provider.ConfigProviderMigrator;
 import com.dmdirc.parser.common.ChannelListModeItem;
 import com.dmdirc.parser.interfaces.ChannelClientInfo;
 import com.dmdirc.parser.interfaces.ChannelInfo;
-import com.dmdirc.parser.interfaces.Parser;
 import com.dmdirc.ui.core.components.WindowComponent;
 import com.dmdirc.ui.input.TabCompletionType;
 import com.dmdirc.ui.messages.BackBufferFactory;
 import com.dmdirc.ui.messages.StyledMessageUtils;
+import com.dmdirc.util.TimerService;
 import com.google.common.collect.EvictingQueue;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -70,8 +73,13 @@ public class Channel extends FrameContainer implements GroupChat {
     private final ConfigProviderMigrator configMigrator;
     /** Manager used to retrieve {@link GroupChatUser}s */
     private final GroupChatUserManager groupChatUserManager;
+    /**
+     * Copy of the users on this channel, maintained by the thread that changes them so that
+     * nicklist summaries don't read the parser's state. Guarded by itself.
+     */
+    private final Set<GroupChatUser> nicklist = new LinkedHashSet<>();
     /** Whether we're currently in this channel or not. */
-    private boolean isOnChannel;
+    private volatile boolean isOnChannel;
     /** Reason for leaving the channel. */
     private PartReason partReason;
 
@@ -81,19 +89,24 @@ public class Channel extends FrameContainer implements GroupChat {
      * @param connection          The connection object that this channel belongs to
      * @param newChannelInfo      The parser's channel object that corresponds to this channel
      * @param configMigrator      The config migrator which provides the config for this channel.
+     * @param netsplitTracker     The tracker used to summarise netsplits on the connection.
+     * @param timerService        The service to schedule this channel's timers on.
      */
     public Channel(
             final Connection connection,
             final ChannelInfo newChannelInfo,
             final ConfigProviderMigrator configMigrator,
             final BackBufferFactory backBufferFactory,
-            final GroupChatUserManager groupChatUserManager) {
+            final GroupChatUserManager groupChatUserManager,
+            final NetsplitTracker netsplitTracker,
+            final TimerService timerService) {
         super("channel-inactive",
                 newChannelInfo.getName(),
                 new StyledMessageUtils().stripControlCodes(newChannelInfo.getName()), // TODO: Inject this
                 configMigrator.getConfigProvider(),
                 backBufferFactory,
                 connection.getWindowModel().getEventBus(),
+                timerService,
                 Arrays.asList(WindowComponent.TEXTAREA.getIdentifier(),
                         WindowComponent.INPUTFIELD.getIdentifier(),
                         WindowComponent.TOPICBAR.getIdentifier(),
@@ -107,10 +120,11 @@ public class Channel extends FrameContainer implements GroupChat {
         topics = EvictingQueue.create(
                 getConfigManager().getOptionInt("channel", "topichistorysize"));
 
-        eventHandler = new ChannelEventHandler(this, getEventBus(), groupChatUserManager);
+        eventHandler = new ChannelEventHandler(this, getEventBus(), groupChatUserManager,
+                netsplitTracker);
 
         initBackBuffer();
-        registerCallbacks();
+        migrateConfig();
         updateTitle();
     }
 
@@ -129,10 +143,18 @@ public class Channel extends FrameContainer implements GroupChat {
     }
 
     /**
-     * Registers callbacks with the parser for this channel.
+     * Gets the handler for parser events relating to this channel.
+     *
+     * @return This channel's event handler.
+     */
+    ChannelEventHandler getEventHandler() {
+        return eventHandler;
+    }
+
+    /**
+     * Migrates this channel's config to match the connection's current details.
      */
-    private void registerCallbacks() {
-        eventHandler.registerCallbacks();
+    private void migrateConfig() {
         configMigrator.migrate(connection.getProtocol(), connection.getIrcd(), connection.getNetwork(),
                 connection.getAddress(), channelInfo.getName());
     }
@@ -191,7 +213,7 @@ public class Channel extends FrameContainer implements GroupChat {
      */
     public void setChannelInfo(final ChannelInfo newChannelInfo) {
         channelInfo = newChannelInfo;
-        registerCallbacks();
+        migrateConfig();
     }
 
     /**
@@ -251,20 +273,20 @@ public class Channel extends FrameContainer implements GroupChat {
 
         // Needs to be published synchronously so that nicklists are cleared before the parser
         // is disconnected (which happens synchronously after this method returns).
+        getEventCoalescer().discard(NickListEvent.class);
+        synchronized (nicklist) {
+            nicklist.clear();
+        }
         getEventBus().publish(
                 new NickListClientsChangedEvent(this, Collections.emptyList()));
+
+        groupChatUserManager.removeUsers(this);
     }
 
     @Override
     public void close() {
         super.close();
 
-        // Remove any callbacks or listeners
-        eventHandler.unregisterCallbacks();
-
-        connection.getParser().map(Parser::getCallbackManager)
-                .ifPresent(cm -> cm.unsubscribe(eventHandler));
-
         // Trigger any actions neccessary
         if (isOnChannel && connection.getState() != ServerState.CLOSING) {
             part(getConfigManager().getOption("general", "partmessage"));
@@ -280,7 +302,10 @@ public class Channel extends FrameContainer implements GroupChat {
      * @param client The client to be added
      */
     public void addClient(final GroupChatUser client) {
-        getEventBus().publishAsync(new NickListClientAddedEvent(this, client));
+        synchronized (nicklist) {
+            nicklist.add(client);
+        }
+        publishNickListEvent(new NickListClientAddedEvent(this, client));
 
         getInputModel().get().getTabCompleter().addEntry(
                 TabCompletionType.CHANNEL_NICK, client.getNickname());
@@ -292,7 +317,10 @@ public class Channel extends FrameContainer implements GroupChat {
      * @param client The client to be removed
      */
     public void removeClient(final GroupChatUser client) {
-        getEventBus().publishAsync(new NickListClientRemovedEvent(this, client));
+        synchronized (nicklist) {
+            nicklist.remove(client);
+        }
+        publishNickListEvent(new NickListClientRemovedEvent(this, client));
 
         getInputModel().get().getTabCompleter().removeEntry(
                 TabCompletionType.CHANNEL_NICK, client.getNickname());
@@ -308,7 +336,11 @@ public class Channel extends FrameContainer implements GroupChat {
      * @param clients The list of clients to use
      */
     public void setClients(final Collection<GroupChatUser> clients) {
-        getEventBus().publishAsync(new NickListClientsChangedEvent(this, clients));
+        synchronized (nicklist) {
+            nicklist.clear();
+            nicklist.addAll(clients);
+        }
+        publishNickListEvent(new NickListClientsChangedEvent(this, clients));
 
         getInputModel().get().getTabCompleter().clear(TabCompletionType.CHANNEL_NICK);
 
@@ -337,7 +369,30 @@ public class Channel extends FrameContainer implements GroupChat {
             return;
         }
 
-        getEventBus().publishAsync(new NickListUpdatedEvent(this));
+        publishNickListEvent(new NickListUpdatedEvent(this));
+    }
+
+    /**
+     * Publishes a nicklist event. Bursts of nicklist changes, such as mass joins or netsplits, are
+     * merged into a single {@link NickListClientsChangedEvent} containing the full list of users.
+     *
+     * @param event The event to be published.
+     */
+    private void publishNickListEvent(final NickListEvent event) {
+        getEventCoalescer().publish(NickListEvent.class, event,
+                () -> new NickListClientsChangedEvent(this,
+                        isOnChannel ? getNicklist() : Collections.emptyList()));
+    }
+
+    /**
+     * Gets a copy of the users on this channel that is safe to read on any thread.
+     *
+     * @return A copy of the users last added to this channel.
+     */
+    private Collection<GroupChatUser> getNicklist() {
+        synchronized (nicklist) {
+            return new ArrayList<>(nicklist);
+        }
     }
 
     // ---------------------------------------------------- TOPIC HANDLING -----
@@ -42,6 +42,7 @@ import com.dmdirc.events.ChannelTopicUnsetEvent;
 import com.dmdirc.events.ChannelUserAwayEvent;
 import com.dmdirc.events.ChannelUserBackEvent;
 import com.dmdirc.events.ChannelUserModeChangeEvent;
+import com.dmdirc.events.DisplayProperty;
 import com.dmdirc.interfaces.Connection;
 import com.dmdirc.events.eventbus.EventBus;
 import com.dmdirc.interfaces.GroupChatUser;
@@ -64,29 +65,31 @@ import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
-import net.engio.mbassy.listener.Handler;
-
 /**
- * Handles events for channel objects.
+ * Handles parser events for channel objects. Events are delivered by the connection's
+ * {@link ChannelEventDispatcher}.
  */
-public class ChannelEventHandler extends EventHandler {
+public class ChannelEventHandler {
 
     /** The channel that owns this event handler. */
     private final Channel owner;
     /** Event bus to send events on. */
     private final EventBus eventBus;
     private final GroupChatUserManager groupChatUserManager;
+    /** Tracker used to summarise quits and joins caused by netsplits. */
+    private final NetsplitTracker netsplitTracker;
 
     public ChannelEventHandler(final Channel owner, final EventBus eventBus,
-            final GroupChatUserManager groupChatUserManager) {
+            final GroupChatUserManager groupChatUserManager,
+            final NetsplitTracker netsplitTracker) {
         this.owner = owner;
         this.eventBus = eventBus;
         this.groupChatUserManager = groupChatUserManager;
+        this.netsplitTracker = netsplitTracker;
     }
 
     @Nonnull
-    @Override
-    protected Connection getConnection() {
+    private Connection getConnection() {
         return owner.getConnection().get();
     }
 
@@ -102,7 +105,6 @@ public class ChannelEventHandler extends EventHandler {
                 .map(c -> client.getClient().equals(c)).orElse(false);
     }
 
-    @Handler
     public void onChannelMessage(final com.dmdirc.parser.events.ChannelMessageEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -114,7 +116,6 @@ public class ChannelEventHandler extends EventHandler {
                 event.getMessage()));
     }
 
-    @Handler
     public void onChannelGotNames(final ChannelNamesEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -126,7 +127,6 @@ public class ChannelEventHandler extends EventHandler {
         eventBus.publishAsync(new ChannelGotNamesEvent(event.getDate(), owner));
     }
 
-    @Handler
     public void onChannelTopic(final ChannelTopicEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -172,19 +172,21 @@ public class ChannelEventHandler extends EventHandler {
         }
     }
 
-    @Handler
     public void onChannelJoin(final com.dmdirc.parser.events.ChannelJoinEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
         }
 
-        eventBus.publishAsync(new ChannelJoinEvent(
-                event.getDate(), owner,
-                groupChatUserManager.getUserFromClient(event.getClient(), owner)));
-        owner.addClient(groupChatUserManager.getUserFromClient(event.getClient(), owner));
+        final GroupChatUser user = groupChatUserManager.getUserFromClient(event.getClient(), owner);
+        final ChannelJoinEvent joinEvent = new ChannelJoinEvent(event.getDate(), owner, user);
+        if (netsplitTracker.handleJoin(owner, user, event.getDate())) {
+            // Summarised by a netjoin event instead.
+            joinEvent.setDisplayProperty(DisplayProperty.DO_NOT_DISPLAY, true);
+        }
+        eventBus.publishAsync(joinEvent);
+        owner.addClient(user);
     }
 
-    @Handler
     public void onChannelPart(final com.dmdirc.parser.events.ChannelPartEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -202,9 +204,9 @@ public class ChannelEventHandler extends EventHandler {
                     groupChatUserManager.getUserFromClient(client, owner), reason));
         }
         owner.removeClient(groupChatUserManager.getUserFromClient(client, owner));
+        groupChatUserManager.removeUser(client);
     }
 
-    @Handler
     public void onChannelKick(final com.dmdirc.parser.events.ChannelKickEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -216,22 +218,26 @@ public class ChannelEventHandler extends EventHandler {
                 groupChatUserManager.getUserFromClient(event.getClient(), owner),
                 groupChatUserManager.getUserFromClient(kickedClient, owner), event.getReason()));
         owner.removeClient(groupChatUserManager.getUserFromClient(kickedClient, owner));
+        groupChatUserManager.removeUser(kickedClient);
     }
 
-    @Handler
     public void onChannelQuit(final com.dmdirc.parser.events.ChannelQuitEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
         }
 
-        eventBus.publishAsync(new ChannelQuitEvent(
-                event.getDate(), owner,
-                groupChatUserManager.getUserFromClient(event.getClient(), owner),
-                event.getReason()));
-        owner.removeClient(groupChatUserManager.getUserFromClient(event.getClient(), owner));
+        final GroupChatUser user = groupChatUserManager.getUserFromClient(event.getClient(), owner);
+        final ChannelQuitEvent quitEvent = new ChannelQuitEvent(event.getDate(), owner, user,
+                event.getReason());
+        if (netsplitTracker.handleQuit(owner, user, event.getReason(), event.getDate())) {
+            // Summarised by a netsplit event instead.
+            quitEvent.setDisplayProperty(DisplayProperty.DO_NOT_DISPLAY, true);
+        }
+        eventBus.publishAsync(quitEvent);
+        owner.removeClient(user);
+        groupChatUserManager.removeUser(event.getClient());
     }
 
-    @Handler
     public void onChannelAction(final com.dmdirc.parser.events.ChannelActionEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -243,7 +249,6 @@ public class ChannelEventHandler extends EventHandler {
                 event.getMessage()));
     }
 
-    @Handler
     public void onChannelNickChanged(final com.dmdirc.parser.events.ChannelNickChangeEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -267,7 +272,6 @@ public class ChannelEventHandler extends EventHandler {
         }
     }
 
-    @Handler
     public void onChannelUserModeChanged(final com.dmdirc.parser.events.ChannelUserModeChangeEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -280,7 +284,6 @@ public class ChannelEventHandler extends EventHandler {
         eventBus.publishAsync(new ChannelUserModeChangeEvent(date, owner, client, targetClient, event.getMode()));
     }
 
-    @Handler
     public void onChannelModeChanged(final com.dmdirc.parser.events.ChannelModeChangeEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -309,7 +312,6 @@ public class ChannelEventHandler extends EventHandler {
         owner.refreshClients();
     }
 
-    @Handler
     public void onChannelCTCP(final ChannelCTCPEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -328,7 +330,6 @@ public class ChannelEventHandler extends EventHandler {
         }
     }
 
-    @Handler
     public void onAwayStateOther(final OtherAwayStateEvent event) {
         owner.getUser(owner.getConnection().get().getUser(event.getClient().getNickname()))
                 .ifPresent(c -> {
@@ -342,7 +343,6 @@ public class ChannelEventHandler extends EventHandler {
                 });
     }
 
-    @Handler
     public void onChannelNotice(final com.dmdirc.parser.events.ChannelNoticeEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -354,7 +354,6 @@ public class ChannelEventHandler extends EventHandler {
                 event.getMessage()));
     }
 
-    @Handler
     public void onChannelModeNotice(final com.dmdirc.parser.events.ChannelModeNoticeEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -366,7 +365,6 @@ public class ChannelEventHandler extends EventHandler {
                 (event.getPrefix()), event.getMessage()));
     }
 
-    @Handler
     public void onChannelGotListModes(final ChannelListModeEvent event) {
         if (!checkChannel(event.getChannel())) {
             return;
@@ -28,6 +28,7 @@ import com.dmdirc.parser.interfaces.ChannelInfo;
 import com.dmdirc.ui.WindowManager;
 import com.dmdirc.ui.input.TabCompleterFactory;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -44,25 +45,29 @@ public class ChannelFactory {
     private final BackBufferFactory backBufferFactory;
     private final GroupChatUserManager groupChatUserManager;
     private final WindowManager windowManager;
+    private final TimerService timerService;
 
     @Inject
     public ChannelFactory(final TabCompleterFactory tabCompleterFactory,
             final CommandController commandController,
             final EventBus eventBus, final BackBufferFactory backBufferFactory,
-            final GroupChatUserManager groupChatUserManager, final WindowManager windowManager) {
+            final GroupChatUserManager groupChatUserManager, final WindowManager windowManager,
+            final TimerService timerService) {
         this.tabCompleterFactory = tabCompleterFactory;
         this.commandController = commandController;
         this.eventBus = eventBus;
         this.backBufferFactory = backBufferFactory;
         this.groupChatUserManager = groupChatUserManager;
         this.windowManager = windowManager;
+        this.timerService = timerService;
     }
 
     public Channel getChannel(final Connection connection,
             final ChannelInfo channelInfo,
-            final ConfigProviderMigrator configMigrator) {
+            final ConfigProviderMigrator configMigrator,
+            final NetsplitTracker netsplitTracker) {
         final Channel channel = new Channel(connection, channelInfo, configMigrator,
-                backBufferFactory, groupChatUserManager);
+                backBufferFactory, groupChatUserManager, netsplitTracker, timerService);
         channel.setInputModel(new DefaultInputModel(
                 channel::sendLine,
                 new ChannelCommandParser(
@@ -71,6 +76,7 @@ public class ChannelFactory {
                         eventBus,
                         channel),
                 tabCompleterFactory.getTabCompleter(
+                        connection,
                         connection.getWindowModel().getInputModel().get().getTabCompleter(),
                         configMigrator.getConfigProvider(),
                         CommandType.TYPE_CHANNEL,
@@ -33,6 +33,7 @@ import com.dmdirc.interfaces.CommandController;
 import com.dmdirc.interfaces.ConnectionFactory;
 import com.dmdirc.interfaces.ConnectionManager;
 import com.dmdirc.events.eventbus.EventBus;
+import com.dmdirc.events.eventbus.EventBusMetrics;
 import com.dmdirc.util.system.LifecycleController;
 import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.interfaces.config.IdentityController;
@@ -42,6 +43,7 @@ import com.dmdirc.ui.messages.ColourManagerFactory;
 import com.dmdirc.ui.messages.UiMessagesModule;
 import com.dmdirc.ui.themes.ThemeManager;
 import com.dmdirc.updater.UpdaterModule;
+import com.dmdirc.util.EventUtils;
 import com.dmdirc.util.LoggingExecutorService;
 import com.dmdirc.util.io.Downloader;
 import com.dmdirc.util.system.SystemInfo;
@@ -50,7 +52,6 @@ import dagger.ObjectGraph;
 import dagger.Provides;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Named;
-import javax.inject.Provider;
 import javax.inject.Singleton;
 
 /**
@@ -95,8 +96,19 @@ public class ClientModule {
 
     @Provides
     @Singleton
-    public EventBus getMBassador() {
-        return new MBassadorEventBus();
+    public MBassadorEventBus getMBassador(final CommandLineParser commandLineParser) {
+        return new MBassadorEventBus(commandLineParser.getEventLanes(),
+                commandLineParser.getEventHandlerThreads(), EventUtils::getOrderingKey);
+    }
+
+    @Provides
+    public EventBus getEventBus(final MBassadorEventBus eventBus) {
+        return eventBus;
+    }
+
+    @Provides
+    public EventBusMetrics getEventBusMetrics(final MBassadorEventBus eventBus) {
+        return eventBus;
     }
 
     @Provides
@@ -107,10 +119,8 @@ public class ClientModule {
     @Provides
     @Singleton
     public CommandManager getCommandManager(
-            final ConnectionManager connectionManager,
-            final Provider<GlobalWindow> globalWindowProvider,
             @GlobalConfig final AggregateConfigProvider globalConfig) {
-        final CommandManager manager = new CommandManager(connectionManager, globalWindowProvider);
+        final CommandManager manager = new CommandManager();
         manager.initialise(globalConfig);
         return manager;
     }
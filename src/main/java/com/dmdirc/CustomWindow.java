@@ -23,6 +23,7 @@ import com.dmdirc.interfaces.WindowModel;
 import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.ui.core.components.WindowComponent;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -41,9 +42,10 @@ public class CustomWindow extends FrameContainer {
             final String name,
             final String title,
             final WindowModel parent,
-            final BackBufferFactory backBufferFactory) {
+            final BackBufferFactory backBufferFactory,
+            final TimerService timerService) {
         super("custom", name, title, parent.getConfigManager(), backBufferFactory,
-                parent.getEventBus(),
+                parent.getEventBus(), timerService,
                 Collections.singletonList(WindowComponent.TEXTAREA.getIdentifier()));
         connection = parent.getConnection();
         initBackBuffer();
@@ -57,9 +59,11 @@ public class CustomWindow extends FrameContainer {
             final String title,
             final AggregateConfigProvider configProvider,
             final EventBus eventBus,
-            final BackBufferFactory backBufferFactory) {
+            final BackBufferFactory backBufferFactory,
+            final TimerService timerService) {
         super("custom", name, title, configProvider, backBufferFactory,
-                eventBus, Collections.singletonList(WindowComponent.TEXTAREA.getIdentifier()));
+                eventBus, timerService,
+                Collections.singletonList(WindowComponent.TEXTAREA.getIdentifier()));
         connection = Optional.empty();
         initBackBuffer();
     }
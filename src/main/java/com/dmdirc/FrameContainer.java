@@ -35,6 +35,8 @@ import com.dmdirc.ui.messages.BackBufferFactory;
 import com.dmdirc.ui.messages.BackBufferImpl;
 import com.dmdirc.ui.messages.UnreadStatusManager;
 import com.dmdirc.ui.messages.UnreadStatusManagerImpl;
+import com.dmdirc.util.EventCoalescer;
+import com.dmdirc.util.TimerService;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -51,11 +53,11 @@ import javax.annotation.Nullable;
 public class FrameContainer implements WindowModel {
 
     /** The name of the icon being used for this container's frame. */
-    private String icon;
+    private volatile String icon;
     /** The name of this container. */
-    private String name;
+    private volatile String name;
     /** The title of this container. */
-    private String title;
+    private volatile String title;
     /** The config manager for this container. */
     private final AggregateConfigProvider configManager;
     /** The IconChanger for this container. */
@@ -64,6 +66,8 @@ public class FrameContainer implements WindowModel {
     private final Set<String> components;
     /** Event bus to dispatch events to. */
     private final EventBus eventBus;
+    /** Coalescer used to merge bursts of metadata events. */
+    private final EventCoalescer eventCoalescer;
     /** The manager handling this frame's unread status. */
     private final UnreadStatusManager unreadStatusManager;
     /** The back buffer factory. */
@@ -87,6 +91,7 @@ public class FrameContainer implements WindowModel {
             final AggregateConfigProvider config,
             final BackBufferFactory backBufferFactory,
             final EventBus eventBus,
+            final TimerService timerService,
             final Collection<String> components) {
         this.configManager = config;
         this.name = name;
@@ -98,6 +103,8 @@ public class FrameContainer implements WindowModel {
         this.unreadStatusManager = new UnreadStatusManagerImpl(this);
         this.eventBus.subscribe(unreadStatusManager);
         configManager.getBinder().bind(unreadStatusManager, UnreadStatusManagerImpl.class);
+        this.eventCoalescer = new EventCoalescer(eventBus, timerService.createGroup());
+        configManager.getBinder().bind(eventCoalescer, EventCoalescer.class);
 
         setIcon(icon);
     }
@@ -164,7 +171,9 @@ public class FrameContainer implements WindowModel {
         this.name = name;
 
         if (hasId()) {
-            eventBus.publishAsync(new FrameNameChangedEvent(this, name));
+            eventCoalescer.publish(FrameNameChangedEvent.class,
+                    new FrameNameChangedEvent(this, name),
+                    () -> new FrameNameChangedEvent(this, this.name));
         }
     }
 
@@ -173,7 +182,9 @@ public class FrameContainer implements WindowModel {
         this.title = title;
 
         if (hasId()) {
-            eventBus.publishAsync(new FrameTitleChangedEvent(this, title));
+            eventCoalescer.publish(FrameTitleChangedEvent.class,
+                    new FrameTitleChangedEvent(this, title),
+                    () -> new FrameTitleChangedEvent(this, this.title));
         }
     }
 
@@ -204,6 +215,8 @@ public class FrameContainer implements WindowModel {
     public void close() {
         eventBus.unsubscribe(unreadStatusManager);
         configManager.getBinder().unbind(unreadStatusManager);
+        configManager.getBinder().unbind(eventCoalescer);
+        eventCoalescer.discardAll();
         eventBus.publish(new FrameClosingEvent(this));
         backBuffer.stopAddingEvents();
     }
@@ -223,10 +236,21 @@ public class FrameContainer implements WindowModel {
      */
     private void iconUpdated() {
         if (hasId()) {
-            eventBus.publish(new FrameIconChangedEvent(this, icon));
+            eventCoalescer.publish(FrameIconChangedEvent.class,
+                    new FrameIconChangedEvent(this, icon),
+                    () -> new FrameIconChangedEvent(this, this.icon));
         }
     }
 
+    /**
+     * Gets the coalescer used to merge bursts of events raised by this container.
+     *
+     * @return This container's event coalescer.
+     */
+    protected EventCoalescer getEventCoalescer() {
+        return eventCoalescer;
+    }
+
     @Override
     public BackBuffer getBackBuffer() {
         return backBuffer;
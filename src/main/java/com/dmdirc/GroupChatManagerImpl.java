@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
 import net.engio.mbassy.listener.Handler;
@@ -53,15 +54,24 @@ public class GroupChatManagerImpl implements GroupChatManager {
     /** Open channels that currently exist on the server. */
     private final ChannelMap channels = new ChannelMap();
 
+    /** Dispatcher that routes parser events to the channels in {@link #channels}. */
+    private final ChannelEventDispatcher dispatcher;
+
+    /** Tracker used to summarise netsplits in the channels in {@link #channels}. */
+    private final NetsplitTracker netsplitTracker;
+
     /** A set of channels we want to join without focusing. */
     private final Collection<String> backgroundChannels = new HashSet<>();
 
     public GroupChatManagerImpl(final Connection connection,
             final IdentityFactory identityFactory,
-            final ChannelFactory channelFactory) {
+            final ChannelFactory channelFactory,
+            final ScheduledExecutorService executorService) {
         this.connection = connection;
         this.identityFactory = identityFactory;
         this.channelFactory = channelFactory;
+        this.dispatcher = new ChannelEventDispatcher(connection, channels);
+        this.netsplitTracker = new NetsplitTracker(executorService);
     }
 
     @Override
@@ -145,7 +155,7 @@ public class GroupChatManagerImpl implements GroupChatManager {
                     connection.getProtocol(), connection.getIrcd(), connection.getNetwork(),
                     connection.getAddress(), chan.getName());
             final Channel newChan = channelFactory.getChannel(
-                    connection, chan, channelConfig);
+                    connection, chan, channelConfig, netsplitTracker);
             connection.getWindowModel().getInputModel().get().getTabCompleter()
                     .addEntry(TabCompletionType.CHANNEL, chan.getName());
             newChan.getWindowModel().getEventBus().subscribe(this);
@@ -153,9 +163,24 @@ public class GroupChatManagerImpl implements GroupChatManager {
         }
     }
 
+    /**
+     * Registers the callbacks that route channel events from the connection's current parser.
+     */
+    public void registerCallbacks() {
+        dispatcher.registerCallbacks();
+    }
+
+    /**
+     * Unregisters the callbacks that route channel events from the connection's parser.
+     */
+    public void unregisterCallbacks() {
+        dispatcher.unregisterCallbacks();
+    }
+
     public void handleDisconnect() {
         channels.resetAll();
         backgroundChannels.clear();
+        netsplitTracker.clear();
 
         if (connection.getWindowModel().getConfigManager()
                 .getOptionBool("general", "closechannelsonquit")) {
@@ -22,32 +22,40 @@ import com.dmdirc.interfaces.GroupChatUser;
 import com.dmdirc.interfaces.User;
 import com.dmdirc.parser.interfaces.ChannelClientInfo;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 /**
+ * Maps the parser's {@link ChannelClientInfo}s to the {@link GroupChatUser}s that represent them.
  *
+ * <p>Group chat users carry state of their own, so entries are removed explicitly when a client
+ * leaves a group chat, or when the local user does.
  */
 @Singleton
 public class GroupChatUserManager {
 
     private final GroupChatUserFactory groupChatUserFactory;
     private final UserManager userManager;
-    private final Map<ChannelClientInfo, GroupChatUser> userCache;
+    private final ConcurrentMap<ChannelClientInfo, GroupChatUser> userCache;
 
     @Inject
     public GroupChatUserManager(final GroupChatUserFactory groupChatUserFactory,
             final UserManager userManager) {
         this.groupChatUserFactory = groupChatUserFactory;
         this.userManager = userManager;
-        userCache = new HashMap<>();
+        userCache = new ConcurrentHashMap<>();
     }
 
     public GroupChatUser getUserFromClient(final ChannelClientInfo client,
             final GroupChat groupChat) {
+        final GroupChatUser cached = userCache.get(client);
+        if (cached != null) {
+            return cached;
+        }
+
         return getUserFromClient(client,
                 userManager.getUserFromClientInfo(client.getClient(),
                         groupChat.getConnection().get()), groupChat);
@@ -55,7 +63,35 @@ public class GroupChatUserManager {
 
     public GroupChatUser getUserFromClient(final ChannelClientInfo client,
             final User user, final GroupChat groupChat) {
-        userCache.putIfAbsent(client, groupChatUserFactory.getGroupChatUser(user, groupChat, client));
-        return userCache.get(client);
+        return userCache.computeIfAbsent(client,
+                c -> groupChatUserFactory.getGroupChatUser(user, groupChat, c));
+    }
+
+    /**
+     * Removes the user for a client that has left its group chat.
+     *
+     * @param client The client that has left.
+     */
+    public void removeUser(final ChannelClientInfo client) {
+        userCache.remove(client);
+    }
+
+    /**
+     * Removes all users belonging to the given group chat, for example once the local user has
+     * left it.
+     *
+     * @param groupChat The group chat whose users should be removed.
+     */
+    public void removeUsers(final GroupChat groupChat) {
+        userCache.values().removeIf(user -> user.getGroupChat() == groupChat);
+    }
+
+    /**
+     * Gets the number of users currently cached.
+     *
+     * @return The number of cached users.
+     */
+    public int getCacheSize() {
+        return userCache.size();
     }
 }
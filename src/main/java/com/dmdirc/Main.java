@@ -40,19 +40,17 @@ import com.dmdirc.plugins.Service;
 import com.dmdirc.plugins.ServiceManager;
 import com.dmdirc.plugins.ServiceProvider;
 import com.dmdirc.ui.WarningDialog;
+import com.dmdirc.util.TimerService;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.core.spi.ContextAware;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 import java.awt.GraphicsEnvironment;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
@@ -95,6 +93,8 @@ public class Main {
     private final ModeAliasReporter reporter;
     private final ServiceManager serviceManager;
     private final ProgramErrorManager errorManager;
+    /** The service to use to schedule timers. */
+    private final TimerService timerService;
 
     static {
         // TODO: Can this go in a Dagger module?
@@ -123,7 +123,8 @@ public class Main {
             final Set<CommandDetails> commands,
             final ModeAliasReporter reporter,
             final ServiceManager serviceManager,
-            final ProgramErrorManager errorManager) {
+            final ProgramErrorManager errorManager,
+            final TimerService timerService) {
         this.identityManager = identityManager;
         this.connectionManager = connectionManager;
         this.commandLineParser = commandLineParser;
@@ -138,6 +139,7 @@ public class Main {
         this.reporter = reporter;
         this.serviceManager = serviceManager;
         this.errorManager = errorManager;
+        this.timerService = timerService;
     }
 
     /**
@@ -268,8 +270,7 @@ public class Main {
             identityManager.getUserSettings().setOption("general", "firstRun", "false");
             eventBus.publish(new FirstRunEvent());
 
-            Executors.newSingleThreadScheduledExecutor(
-                    new ThreadFactoryBuilder().setNameFormat("feedback-nag-%d").build()).schedule(
+            timerService.createGroup().schedule(
                     () -> eventBus.publishAsync(new FeedbackNagEvent()), 5, TimeUnit.MINUTES);
         }
     }
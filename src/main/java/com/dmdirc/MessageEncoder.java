@@ -17,6 +17,7 @@
 
 package com.dmdirc;
 
+import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.interfaces.Connection;
 import com.dmdirc.interfaces.GroupChat;
 import com.dmdirc.interfaces.WindowModel;
@@ -24,7 +25,15 @@ import com.dmdirc.parser.interfaces.Encoder;
 import com.dmdirc.parser.interfaces.Parser;
 import com.dmdirc.util.LogUtils;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +41,11 @@ import org.slf4j.LoggerFactory;
 /**
  * An {@link Encoder} implementation that reads the desired encoding from the relevant target's
  * config file.
+ *
+ * <p>The resolved {@link Charset} is cached per config, and only looked up again if the configured
+ * encoding name changes. If the target has {@code general.autodetectencoding} enabled,
+ * messages that are valid UTF-8 are decoded as such, and only other messages use the configured
+ * encoding.
  */
 public class MessageEncoder implements Encoder {
 
@@ -40,6 +54,10 @@ public class MessageEncoder implements Encoder {
     private final Connection connection;
     /** The parser that this encoder will work for. */
     private final Parser parser;
+    /** Cached encodings, keyed on the config they were read from. Guarded by itself. */
+    private final Map<AggregateConfigProvider, Encoding> encodings = new WeakHashMap<>();
+    /** Decoder used to test whether messages are valid UTF-8. Guarded by itself. */
+    private final CharsetDecoder utf8Decoder = StandardCharsets.UTF_8.newDecoder();
 
     /**
      * Creates a new instance of {@link MessageEncoder}.
@@ -55,23 +73,115 @@ public class MessageEncoder implements Encoder {
     @Override
     public String encode(final String source, final String target,
             final byte[] message, final int offset, final int length) {
-        String encoding = connection.getWindowModel().getConfigManager()
-                .getOption("general", "encoding");
+        AggregateConfigProvider config = connection.getWindowModel().getConfigManager();
 
         if (target != null && parser.isValidChannelName(target)) {
-            encoding = connection.getGroupChatManager().getChannel(target)
+            config = connection.getGroupChatManager().getChannel(target)
                     .map(GroupChat::getWindowModel)
                     .map(WindowModel::getConfigManager)
-                    .map(cm -> cm.getOption("general", "encoding"))
-                    .orElse(encoding);
+                    .orElse(config);
+        }
+
+        final Encoding encoding = getEncoding(config);
+        if (encoding.autodetect) {
+            final String decoded = decodeUtf8(message, offset, length);
+            if (decoded != null) {
+                return decoded;
+            }
         }
 
+        return new String(message, offset, length, encoding.charset);
+    }
+
+    /**
+     * Gets the encoding to use for the given config. The settings are read each time, but the
+     * charset is only resolved again if they differ from the ones last seen for the config.
+     *
+     * @param config The config to read the encoding from.
+     * @return The encoding to use.
+     */
+    private Encoding getEncoding(final AggregateConfigProvider config) {
+        final String name = config.getOption("general", "encoding");
+        final boolean autodetect = config.getOptionBool("general", "autodetectencoding");
+        synchronized (encodings) {
+            Encoding encoding = encodings.get(config);
+            if (encoding == null || !encoding.matches(name, autodetect)) {
+                encoding = readEncoding(name, autodetect);
+                encodings.put(config, encoding);
+            }
+            return encoding;
+        }
+    }
+
+    /**
+     * Resolves the given encoding settings.
+     *
+     * @param name The name of the configured encoding.
+     * @param autodetect Whether UTF-8 autodetection is enabled.
+     * @return The encoding to use.
+     */
+    private static Encoding readEncoding(final String name, final boolean autodetect) {
+        Charset charset;
         try {
-            return new String(message, offset, length, encoding);
-        } catch (UnsupportedEncodingException ex) {
-            LOG.warn(LogUtils.USER_ERROR, "Unsupported encoding: {}", encoding, ex);
-            return new String(message, offset, length);
+            charset = Charset.forName(name);
+        } catch (IllegalArgumentException ex) {
+            LOG.warn(LogUtils.USER_ERROR, "Unsupported encoding: {}", name, ex);
+            charset = Charset.defaultCharset();
         }
+
+        return new Encoding(name, autodetect, charset);
+    }
+
+    /**
+     * Attempts to decode the given message as UTF-8.
+     *
+     * @param message The bytes of the message.
+     * @param offset  The offset of the message within the array.
+     * @param length  The length of the message.
+     * @return The decoded message, or {@code null} if it is not valid UTF-8.
+     */
+    @Nullable
+    private String decodeUtf8(final byte[] message, final int offset, final int length) {
+        synchronized (utf8Decoder) {
+            try {
+                return utf8Decoder.decode(ByteBuffer.wrap(message, offset, length)).toString();
+            } catch (CharacterCodingException ex) {
+                return null;
+            }
+        }
+    }
+
+    /** The resolved encoding settings for a single config. */
+    private static class Encoding {
+
+        /** The configured encoding name the charset was resolved from. */
+        private final String name;
+        /** The configured autodetection setting. */
+        private final boolean autodetectSetting;
+        /** The charset to decode messages with. */
+        private final Charset charset;
+        /** Whether to try decoding messages as UTF-8 first. */
+        private final boolean autodetect;
+
+        Encoding(final String name, final boolean autodetectSetting, final Charset charset) {
+            this.name = name;
+            this.autodetectSetting = autodetectSetting;
+            this.charset = charset;
+            // There's no point trying UTF-8 first if that's what we'd use anyway.
+            this.autodetect = autodetectSetting && !StandardCharsets.UTF_8.equals(charset);
+        }
+
+        /**
+         * Determines whether this encoding was resolved from the given settings.
+         *
+         * @param name The name of the configured encoding.
+         * @param autodetect Whether UTF-8 autodetection is enabled.
+         * @return True if the settings are unchanged, false otherwise.
+         */
+        boolean matches(final String name, final boolean autodetect) {
+            return this.name.equals(name) && autodetectSetting == autodetect;
+        }
+
     }
 
 }
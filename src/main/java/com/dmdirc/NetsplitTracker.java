@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.events.ChannelNetjoinEvent;
+import com.dmdirc.events.ChannelNetsplitEvent;
+import com.dmdirc.events.eventbus.BaseEvent;
+import com.dmdirc.interfaces.GroupChat;
+import com.dmdirc.interfaces.GroupChatUser;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detects netsplits on a single connection, and summarises the resulting quits and rejoins in each
+ * channel with a single {@link ChannelNetsplitEvent} or {@link ChannelNetjoinEvent}.
+ *
+ * <p>A quit is treated as part of a netsplit if its message consists of exactly two server names.
+ * Quits and joins in each channel are batched until none have been seen for a short time, at which
+ * point the summary is published. Users lost in a split are remembered for a while so that their
+ * return can be recognised.
+ */
+public class NetsplitTracker {
+
+    /** Pattern matching the quit message given to users lost in a netsplit. */
+    private static final Pattern SPLIT_MESSAGE =
+            Pattern.compile("([^\\s:/]+\\.[^\\s:/]+) ([^\\s:/]+\\.[^\\s:/]+)");
+    /** Time to wait for further quits before summarising a split, in milliseconds. */
+    static final long QUIT_DELAY = 1000;
+    /** Time to wait for further joins before summarising a netjoin, in milliseconds. */
+    static final long JOIN_DELAY = 5000;
+    /** How long to remember users lost in a split for, in milliseconds. */
+    static final long SPLIT_EXPIRY = TimeUnit.MINUTES.toMillis(30);
+
+    /** The executor to schedule summaries on. */
+    private final ScheduledExecutorService executor;
+    /** The clock to use, returning the current time in milliseconds. */
+    private final LongSupplier clock;
+    /** Known splits, keyed on their quit message. Guarded by {@code this}. */
+    private final Map<String, Split> splits = new HashMap<>();
+    /** The split each lost user was part of, keyed on nickname. Guarded by {@code this}. */
+    private final Map<String, Split> splitUsers = new HashMap<>();
+    /** Quits waiting to be summarised, keyed on channel. Guarded by {@code this}. */
+    private final Map<GroupChat, Batch> quits = new HashMap<>();
+    /** Joins waiting to be summarised, keyed on channel. Guarded by {@code this}. */
+    private final Map<GroupChat, Batch> joins = new HashMap<>();
+
+    public NetsplitTracker(final ScheduledExecutorService executor) {
+        this(executor, System::currentTimeMillis);
+    }
+
+    NetsplitTracker(final ScheduledExecutorService executor, final LongSupplier clock) {
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    /**
+     * Handles a user quitting a channel. If the quit was caused by a netsplit it is added to the
+     * channel's summary, and the caller should not display it individually.
+     *
+     * @param channel The channel the user quit from.
+     * @param user    The user who quit.
+     * @param message The quit message.
+     * @param date    The time the user quit.
+     * @return True if the quit is part of a netsplit, false otherwise.
+     */
+    public boolean handleQuit(final GroupChat channel, final GroupChatUser user,
+            final String message, final LocalDateTime date) {
+        final Matcher matcher = SPLIT_MESSAGE.matcher(message == null ? "" : message);
+        if (!matcher.matches()) {
+            return false;
+        }
+
+        synchronized (this) {
+            final long now = clock.getAsLong();
+            expireSplits(now);
+
+            final Split split = splits.computeIfAbsent(message,
+                    m -> new Split(matcher.group(1), matcher.group(2)));
+            split.lastSeen = now;
+            splitUsers.put(user.getNickname(), split);
+            addToBatch(quits, channel, split, user, date, QUIT_DELAY);
+        }
+        return true;
+    }
+
+    /**
+     * Handles a user joining a channel. If the user was recently lost in a netsplit the join is
+     * added to the channel's summary, and the caller should not display it individually.
+     *
+     * @param channel The channel the user joined.
+     * @param user    The user who joined.
+     * @param date    The time the user joined.
+     * @return True if the join is part of a netjoin, false otherwise.
+     */
+    public synchronized boolean handleJoin(final GroupChat channel, final GroupChatUser user,
+            final LocalDateTime date) {
+        final long now = clock.getAsLong();
+        expireSplits(now);
+
+        final Split split = splitUsers.get(user.getNickname());
+        if (split == null) {
+            return false;
+        }
+
+        split.lastSeen = now;
+        addToBatch(joins, channel, split, user, date, JOIN_DELAY);
+        return true;
+    }
+
+    /**
+     * Forgets about all known splits. Summaries that are already pending are still published.
+     */
+    public synchronized void clear() {
+        splits.clear();
+        splitUsers.clear();
+    }
+
+    /**
+     * Adds a user to the pending summary for a channel, starting a new summary if needed.
+     *
+     * @param batches The batches to add the user to.
+     * @param channel The channel the user quit or joined.
+     * @param split   The split that caused the quit or join.
+     * @param user    The user who quit or joined.
+     * @param date    The time the user quit or joined.
+     * @param delay   The time to wait for further users before publishing, in milliseconds.
+     */
+    private void addToBatch(final Map<GroupChat, Batch> batches, final GroupChat channel,
+            final Split split, final GroupChatUser user, final LocalDateTime date,
+            final long delay) {
+        Batch batch = batches.get(channel);
+        if (batch != null && batch.split != split) {
+            publish(batches, channel, batch);
+            batch = null;
+        }
+
+        if (batch == null) {
+            batch = new Batch(split, date);
+            batches.put(channel, batch);
+            schedule(batches, channel, batch, delay);
+        }
+
+        batch.users.add(user);
+        batch.lastActivity = clock.getAsLong();
+    }
+
+    /**
+     * Schedules a check of whether a batch has finished.
+     *
+     * @param batches The batches the batch belongs to.
+     * @param channel The channel the batch is for.
+     * @param batch   The batch to check.
+     * @param delay   The time to wait for further users before publishing, in milliseconds.
+     */
+    private void schedule(final Map<GroupChat, Batch> batches, final GroupChat channel,
+            final Batch batch, final long delay) {
+        executor.schedule(() -> checkBatch(batches, channel, batch, delay), delay,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes a batch if no users have been added to it recently, otherwise waits longer.
+     *
+     * @param batches The batches the batch belongs to.
+     * @param channel The channel the batch is for.
+     * @param batch   The batch to check.
+     * @param delay   The time to wait for further users before publishing, in milliseconds.
+     */
+    private synchronized void checkBatch(final Map<GroupChat, Batch> batches,
+            final GroupChat channel, final Batch batch, final long delay) {
+        if (batches.get(channel) != batch) {
+            return;
+        }
+
+        final long remaining = batch.lastActivity + delay - clock.getAsLong();
+        if (remaining > 0) {
+            executor.schedule(() -> checkBatch(batches, channel, batch, delay), remaining,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            publish(batches, channel, batch);
+        }
+    }
+
+    /**
+     * Removes a batch and publishes its summary event.
+     *
+     * @param batches The batches the batch belongs to.
+     * @param channel The channel the batch is for.
+     * @param batch   The batch to publish.
+     */
+    private void publish(final Map<GroupChat, Batch> batches, final GroupChat channel,
+            final Batch batch) {
+        batches.remove(channel);
+
+        final BaseEvent event;
+        if (batches == joins) {
+            // The users are back, so any further joins should be displayed normally.
+            batch.users.forEach(u -> splitUsers.remove(u.getNickname(), batch.split));
+            event = new ChannelNetjoinEvent(batch.date, channel, batch.split.server1,
+                    batch.split.server2, batch.users);
+        } else {
+            event = new ChannelNetsplitEvent(batch.date, channel, batch.split.server1,
+                    batch.split.server2, batch.users);
+        }
+        channel.getEventBus().publishAsync(event);
+    }
+
+    /**
+     * Forgets about splits that haven't been seen for a while.
+     *
+     * @param now The current time, in milliseconds.
+     */
+    private void expireSplits(final long now) {
+        final Iterator<Split> iterator = splits.values().iterator();
+        while (iterator.hasNext()) {
+            final Split split = iterator.next();
+            if (now - split.lastSeen > SPLIT_EXPIRY) {
+                iterator.remove();
+                splitUsers.values().removeIf(s -> s == split);
+            }
+        }
+    }
+
+    /**
+     * A netsplit between two servers.
+     */
+    private static class Split {
+
+        private final String server1;
+        private final String server2;
+        /** The last time a user quit or rejoined due to this split, in milliseconds. */
+        private long lastSeen;
+
+        Split(final String server1, final String server2) {
+            this.server1 = server1;
+            this.server2 = server2;
+        }
+
+    }
+
+    /**
+     * Users in a single channel waiting to be summarised.
+     */
+    private static class Batch {
+
+        private final Split split;
+        private final LocalDateTime date;
+        private final List<GroupChatUser> users = new ArrayList<>();
+        /** The last time a user was added to this batch, in milliseconds. */
+        private long lastActivity;
+
+        Batch(final Split split, final LocalDateTime date) {
+            this.split = split;
+            this.date = date;
+        }
+
+    }
+
+}
@@ -40,6 +40,7 @@ import com.dmdirc.parser.interfaces.ClientInfo;
 import com.dmdirc.parser.interfaces.Parser;
 import com.dmdirc.ui.core.components.WindowComponent;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import java.awt.Toolkit;
 import java.util.Arrays;
@@ -62,13 +63,15 @@ public class Query extends FrameContainer implements PrivateChat {
     public Query(
             final Connection connection,
             final User user,
-            final BackBufferFactory backBufferFactory) {
+            final BackBufferFactory backBufferFactory,
+            final TimerService timerService) {
         super("query",
                 user.getNickname(),
                 user.getNickname(),
                 connection.getWindowModel().getConfigManager(),
                 backBufferFactory,
                 connection.getWindowModel().getEventBus(),
+                timerService,
                 Arrays.asList(
                         WindowComponent.TEXTAREA.getIdentifier(),
                         WindowComponent.INPUTFIELD.getIdentifier()));
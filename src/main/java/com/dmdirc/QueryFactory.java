@@ -26,6 +26,7 @@ import com.dmdirc.interfaces.User;
 import com.dmdirc.ui.WindowManager;
 import com.dmdirc.ui.input.TabCompleterFactory;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -40,21 +41,24 @@ public class QueryFactory {
     private final CommandController commandController;
     private final BackBufferFactory backBufferFactory;
     private final WindowManager windowManager;
+    private final TimerService timerService;
 
     @Inject
     public QueryFactory(
             final TabCompleterFactory tabCompleterFactory,
             final CommandController commandController,
             final BackBufferFactory backBufferFactory,
-            final WindowManager windowManager) {
+            final WindowManager windowManager,
+            final TimerService timerService) {
         this.tabCompleterFactory = tabCompleterFactory;
         this.commandController = commandController;
         this.backBufferFactory = backBufferFactory;
         this.windowManager = windowManager;
+        this.timerService = timerService;
     }
 
     public Query getQuery(final Connection connection, final User user) {
-        final Query query = new Query(connection, user, backBufferFactory);
+        final Query query = new Query(connection, user, backBufferFactory, timerService);
         query.setInputModel(new DefaultInputModel(
                 query::sendLine,
                 new QueryCommandParser(
@@ -63,6 +67,7 @@ public class QueryFactory {
                         connection.getWindowModel().getEventBus(),
                         query),
                 tabCompleterFactory.getTabCompleter(
+                        connection,
                         connection.getWindowModel().getInputModel().get().getTabCompleter(),
                         connection.getWindowModel().getConfigManager(),
                         CommandType.TYPE_QUERY,
@@ -188,7 +188,7 @@ public class Server implements Connection {
         this.userSettings = userSettings;
         this.messageEncoderFactory = messageEncoderFactory;
         this.userManager = userManager;
-        this.groupChatManager = groupChatManagerFactory.create(this);
+        this.groupChatManager = groupChatManagerFactory.create(this, executorService);
         this.inviteManager = new InviteManagerImpl(this);
 
         awayMessage = Optional.empty();
@@ -360,6 +360,7 @@ public class Server implements Connection {
             }
 
             groupChatManager.handleDisconnect();
+            userManager.removeUsers(this);
 
             try {
                 parserLock.readLock().lock();
@@ -558,6 +559,7 @@ public class Server implements Connection {
      */
     private void doCallbacks() {
         eventHandler.registerCallbacks();
+        groupChatManager.registerCallbacks();
         queries.values().forEach(Query::reregister);
     }
 
@@ -675,6 +677,7 @@ public class Server implements Connection {
         if (event.getSource().equals(windowModel)) {
             synchronized (myStateLock) {
                 eventHandler.unregisterCallbacks();
+                groupChatManager.unregisterCallbacks();
                 windowModel.getConfigManager().removeListener(configListener);
                 windowModel.getEventBus().unsubscribe(groupChatManager);
                 windowModel.getEventBus().unsubscribe(highlightManager);
@@ -755,6 +758,7 @@ public class Server implements Connection {
         windowModel.getEventBus().publish(new ServerDisconnectedEvent(this));
 
         eventHandler.unregisterCallbacks();
+        groupChatManager.unregisterCallbacks();
 
         synchronized (myStateLock) {
             if (myState.getState() == ServerState.CLOSING
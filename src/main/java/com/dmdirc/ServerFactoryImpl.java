@@ -29,6 +29,7 @@ import com.dmdirc.interfaces.config.IdentityFactory;
 import com.dmdirc.ui.core.components.WindowComponent;
 import com.dmdirc.ui.input.TabCompleterFactory;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import java.net.URI;
 import java.util.Arrays;
@@ -55,6 +56,7 @@ public class ServerFactoryImpl {
     private final BackBufferFactory backBufferFactory;
     private final GroupChatManagerImplFactory groupChatManagerFactory;
     private final UserManager userManager;
+    private final TimerService timerService;
 
     @Inject
     public ServerFactoryImpl(
@@ -68,7 +70,8 @@ public class ServerFactoryImpl {
             @UserConfig final ConfigProvider userSettings,
             final BackBufferFactory backBufferFactory,
             final GroupChatManagerImplFactory groupChatManagerFactory,
-            final UserManager userManager) {
+            final UserManager userManager,
+            final TimerService timerService) {
         this.parserFactory = parserFactory;
         this.tabCompleterFactory = tabCompleterFactory;
         this.identityFactory = identityFactory;
@@ -80,6 +83,7 @@ public class ServerFactoryImpl {
         this.backBufferFactory = backBufferFactory;
         this.groupChatManagerFactory = groupChatManagerFactory;
         this.userManager = userManager;
+        this.timerService = timerService;
     }
 
     public Server getServer(
@@ -90,6 +94,7 @@ public class ServerFactoryImpl {
         final FrameContainer windowModel =
                 new FrameContainer("server-disconnected", getHost(uri), getHost(uri),
                         configMigrator.getConfigProvider(), backBufferFactory, eventBus,
+                        timerService,
                         Arrays.asList(WindowComponent.TEXTAREA.getIdentifier(),
                                 WindowComponent.INPUTFIELD.getIdentifier(),
                                 WindowComponent.CERTIFICATE_VIEWER.getIdentifier()));
@@ -107,6 +112,7 @@ public class ServerFactoryImpl {
                         eventBus,
                         server),
                 tabCompleterFactory.getTabCompleter(
+                        server,
                         configMigrator.getConfigProvider(),
                         CommandType.TYPE_SERVER,
                         CommandType.TYPE_GLOBAL),
@@ -28,8 +28,7 @@ import com.dmdirc.interfaces.config.IdentityFactory;
 import com.dmdirc.parser.common.ChannelJoinRequest;
 import com.dmdirc.parser.interfaces.Parser;
 import com.dmdirc.ui.WindowManager;
-
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.dmdirc.util.TimerService;
 
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -39,7 +38,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import javax.inject.Inject;
@@ -72,6 +70,8 @@ public class ServerManager implements ConnectionManager {
     private final ServerFactoryImpl serverFactoryImpl;
     /** Event bus for servers. */
     private final EventBus eventBus;
+    /** Service providing timers for servers. */
+    private final TimerService timerService;
 
     /**
      * Creates a new instance of ServerManager.
@@ -81,6 +81,7 @@ public class ServerManager implements ConnectionManager {
      * @param windowManager      Window manager to add new servers to.
      * @param serverFactory      The factory to use to create servers.
      * @param eventBus           The event bus to pass to servers.
+     * @param timerService       The service to use for servers' timers.
      */
     @Inject
     public ServerManager(
@@ -88,12 +89,14 @@ public class ServerManager implements ConnectionManager {
             final IdentityFactory identityFactory,
             final WindowManager windowManager,
             final ServerFactoryImpl serverFactory,
-            final EventBus eventBus) {
+            final EventBus eventBus,
+            final TimerService timerService) {
         this.profileManager = profileManager;
         this.identityFactory = identityFactory;
         this.windowManager = windowManager;
         this.serverFactoryImpl = serverFactory;
         this.eventBus = eventBus;
+        this.timerService = timerService;
         this.eventBus.subscribe(this);
     }
 
@@ -104,8 +107,7 @@ public class ServerManager implements ConnectionManager {
 
         final Connection server = serverFactoryImpl.getServer(
                 configProvider,
-                Executors.newScheduledThreadPool(1,
-                        new ThreadFactoryBuilder().setNameFormat("server-timer-%d").build()),
+                timerService.createGroup(),
                 uri,
                 profile);
         registerServer(server);
@@ -19,6 +19,7 @@ package com.dmdirc;
 
 import com.dmdirc.config.GlobalConfig;
 import com.dmdirc.events.ClientClosedEvent;
+import com.dmdirc.events.ClientClosingEvent;
 import com.dmdirc.interfaces.ConnectionManager;
 import com.dmdirc.events.eventbus.EventBus;
 import com.dmdirc.util.system.LifecycleController;
@@ -44,7 +45,7 @@ public class SystemLifecycleController implements LifecycleController {
     private final Set<SystemLifecycleComponent> lifecycleComponents;
     /** Manager to use to disconnect servers. */
     private final ConnectionManager connectionManager;
-    /** The event bus to raise client closed events on. */
+    /** The event bus to raise client closing and closed events on. */
     private final EventBus eventBus;
     /** The identity controller to save when quitting. */
     private final IdentityController identityController;
@@ -80,6 +81,7 @@ public class SystemLifecycleController implements LifecycleController {
 
     @Override
     public void quit(final String reason, final int exitCode) {
+        eventBus.publish(new ClientClosingEvent());
         lifecycleComponents.forEach(SystemLifecycleComponent::shutDown);
 
         // TODO: Make all of these into lifecycle components
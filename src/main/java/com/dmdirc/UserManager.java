@@ -20,30 +20,52 @@ package com.dmdirc;
 import com.dmdirc.interfaces.Connection;
 import com.dmdirc.interfaces.User;
 import com.dmdirc.parser.interfaces.ClientInfo;
+import com.google.common.collect.MapMaker;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 /**
+ * Maps the parser's {@link ClientInfo}s to the {@link User}s that represent them.
  *
+ * <p>Users are only weakly held, so a user is forgotten as soon as nothing else (such as a channel
+ * membership or an open query) refers to it. A user holds on to its client info, so weakly
+ * referencing the keys instead would never release anything.
  */
 @Singleton
 public class UserManager {
 
     private final UserFactory userFactory;
-    private final Map<ClientInfo, User> userCache;
+    private final ConcurrentMap<ClientInfo, User> userCache;
 
     @Inject
     public UserManager(final UserFactory userFactory) {
         this.userFactory = userFactory;
-        userCache = new HashMap<>();
+        userCache = new MapMaker().weakValues().makeMap();
     }
 
     public User getUserFromClientInfo(final ClientInfo client, final Connection connection) {
-        userCache.putIfAbsent(client, userFactory.getUser(connection,client));
-        return userCache.get(client);
+        return userCache.computeIfAbsent(client, c -> userFactory.getUser(connection, c));
+    }
+
+    /**
+     * Removes all users belonging to the given connection, for example once it has disconnected.
+     *
+     * @param connection The connection whose users should be removed.
+     */
+    public void removeUsers(final Connection connection) {
+        userCache.values().removeIf(user -> user.getConnection() == connection);
+    }
+
+    /**
+     * Gets the number of users currently cached. Users that are no longer referenced may be
+     * included until they are cleaned up.
+     *
+     * @return The number of cached users.
+     */
+    public int getCacheSize() {
+        return userCache.size();
     }
 }
@@ -51,6 +51,7 @@ public class CommandLineParser {
      * option, long option, description, whether or not the option takes an argument.
      */
     private static final Object[][] ARGUMENTS = {
+        {'b', "event-lanes", "Use the specified number of event dispatch threads", Boolean.TRUE},
         {'c', "connect", "Connect to the specified server", Boolean.TRUE},
         {'d', "directory", "Use the specified configuration directory", Boolean.TRUE},
         {'e', "existing", "Try to use an existing instance of DMDirc (use with -c)", Boolean.FALSE},
@@ -59,6 +60,7 @@ public class CommandLineParser {
         {'p', "portable", "Enable portable mode", Boolean.FALSE},
         {'r', "disable-reporting", "Disable automatic error reporting", Boolean.FALSE},
         {'v', "version", "Display client version and exit", Boolean.FALSE},
+        {'w', "event-handlers", "Use the specified number of event handler threads", Boolean.TRUE},
         {'k', "check", "Check if an existing instance of DMDirc exists.", Boolean.FALSE}
     };
     /** A list of addresses to autoconnect to. */
@@ -73,6 +75,10 @@ public class CommandLineParser {
     private final SystemInfo systemInfo;
     /** Whether to disable error reporting or not. */
     private boolean disablereporting;
+    /** The number of threads to dispatch asynchronous events on. */
+    private int eventLanes = 1;
+    /** The number of threads to run asynchronous event handlers on. */
+    private int eventHandlerThreads = 1;
     /** The version string passed for the launcher. */
     private Optional<String> launcherVersion;
     /** The configuration directory. */
@@ -220,6 +226,9 @@ public class CommandLineParser {
      */
     private void processArgument(final char arg, final String param) {
         switch (arg) {
+            case 'b':
+                eventLanes = parseThreadCount(param);
+                break;
             case 'c':
                 doConnect(param);
                 break;
@@ -247,6 +256,9 @@ public class CommandLineParser {
             case 'v':
                 doVersion();
                 break;
+            case 'w':
+                eventHandlerThreads = parseThreadCount(param);
+                break;
             default:
                 // This really shouldn't ever happen, but we'll handle it nicely
                 // anyway.
@@ -292,6 +304,27 @@ public class CommandLineParser {
         }
     }
 
+    /**
+     * Parses a number of threads given as an argument.
+     *
+     * @param param The parameter given to the argument
+     *
+     * @return The number of threads, which is always at least one
+     */
+    private int parseThreadCount(final String param) {
+        try {
+            final int threads = Integer.parseInt(param);
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (NumberFormatException ex) {
+            // Handled below
+        }
+
+        doUnknownArg("Invalid number of threads specified: " + param);
+        return 1;
+    }
+
     /**
      * Handles the --existing argument.
      */
@@ -408,6 +441,24 @@ public class CommandLineParser {
         return disablereporting;
     }
 
+    /**
+     * Returns the number of threads the user has requested to dispatch asynchronous events on.
+     *
+     * @return The number of event dispatch threads, defaulting to one.
+     */
+    public int getEventLanes() {
+        return eventLanes;
+    }
+
+    /**
+     * Returns the number of threads the user has requested to run asynchronous event handlers on.
+     *
+     * @return The number of event handler threads, defaulting to one.
+     */
+    public int getEventHandlerThreads() {
+        return eventHandlerThreads;
+    }
+
     /**
      * Returns the provided launcher version, if any.
      *
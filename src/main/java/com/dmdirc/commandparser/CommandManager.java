@@ -17,18 +17,14 @@
 
 package com.dmdirc.commandparser;
 
-import com.dmdirc.GlobalWindow;
 import com.dmdirc.commandparser.commands.Command;
 import com.dmdirc.commandparser.parsers.CommandParser;
 import com.dmdirc.config.binding.ConfigBinding;
 import com.dmdirc.interfaces.CommandController;
-import com.dmdirc.interfaces.Connection;
-import com.dmdirc.interfaces.ConnectionManager;
-import com.dmdirc.interfaces.GroupChat;
-import com.dmdirc.interfaces.PrivateChat;
 import com.dmdirc.config.provider.AggregateConfigProvider;
-import com.dmdirc.ui.input.TabCompleter;
-import com.dmdirc.ui.input.TabCompletionType;
+import com.dmdirc.parser.common.DefaultStringConverter;
+import com.dmdirc.ui.input.CompletionDictionary;
+import com.dmdirc.ui.input.CompletionTrie;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
@@ -36,9 +32,9 @@ import com.google.common.collect.Multimap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
-import javax.inject.Provider;
 
 /**
  * The command manager creates and manages a single instance of all commands, and provides methods
@@ -50,29 +46,16 @@ public class CommandManager implements CommandController {
     private final Map<CommandInfo, Command> commands = new HashMap<>();
     /** A list of command parsers that have been instantiated. */
     private final Multimap<CommandType, CommandParser> parsers = ArrayListMultimap.create();
-    /** The manager to use to iterate servers. */
-    private final ConnectionManager connectionManager;
-    /** Provider to use to retrieve the global window. */
-    private final Provider<GlobalWindow> globalWindowProvider;
+    /**
+     * Tab completion dictionaries of command names, built on demand. Dictionaries are shared by
+     * every tab completer, and are discarded and rebuilt rather than modified.
+     */
+    private final Map<CommandType, CompletionDictionary> completions = new ConcurrentHashMap<>();
     /** The command char we're using. */
-    @ConfigBinding(domain = "general", key = "commandchar")
     private char commandChar;
     /** The silence char we're using. */
-    @ConfigBinding(domain = "general", key = "silencechar")
     private char silenceChar;
 
-    /**
-     * Creates a new instance of the Command Manager.
-     *
-     * @param connectionManager the manager to use to iterate servers.
-     * @param globalWindowProvider provider to use to retrieve the global window.
-     */
-    public CommandManager(final ConnectionManager connectionManager,
-            final Provider<GlobalWindow> globalWindowProvider) {
-        this.connectionManager = connectionManager;
-        this.globalWindowProvider = globalWindowProvider;
-    }
-
     @Override
     public char getCommandChar() {
         return commandChar;
@@ -83,6 +66,28 @@ public class CommandManager implements CommandController {
         return silenceChar;
     }
 
+    /**
+     * Sets the command char to use.
+     *
+     * @param commandChar The new command char.
+     */
+    @ConfigBinding(domain = "general", key = "commandchar")
+    void setCommandChar(final char commandChar) {
+        this.commandChar = commandChar;
+        completions.clear();
+    }
+
+    /**
+     * Sets the silence char to use.
+     *
+     * @param silenceChar The new silence char.
+     */
+    @ConfigBinding(domain = "general", key = "silencechar")
+    void setSilenceChar(final char silenceChar) {
+        this.silenceChar = silenceChar;
+        completions.clear();
+    }
+
     /**
      * Initialises the command manager.
      *
@@ -123,7 +128,7 @@ public class CommandManager implements CommandController {
             commands.remove(info);
         }
 
-        registerCommandName(info, register);
+        completions.remove(info.getType());
     }
 
     /**
@@ -147,80 +152,6 @@ public class CommandManager implements CommandController {
         }
     }
 
-    /**
-     * Registers or unregisters the specified command's name with the relevant tab completers.
-     *
-     * @param command  The command to be registered
-     * @param register True if the command should be registered, false if it should be unregistered.
-     *
-     * @since 0.6.3m1
-     */
-    private void registerCommandName(final CommandInfo command,
-            final boolean register) {
-        // Do tab completion
-        final String plainCommandName = getCommandChar() + command.getName();
-        final String silencedCommandName = getCommandChar() + getSilenceChar() + command.getName();
-
-        if (command.getType() == CommandType.TYPE_GLOBAL) {
-            registerCommandName(globalWindowProvider.get().getInputModel().get().getTabCompleter(),
-                    plainCommandName, register);
-            registerCommandName(globalWindowProvider.get().getInputModel().get().getTabCompleter(),
-                    silencedCommandName, register);
-        }
-
-        // TODO: This logic is probably in two places. Abstract it.
-        for (Connection server : connectionManager.getConnections()) {
-            if (command.getType() == CommandType.TYPE_SERVER
-                    || command.getType() == CommandType.TYPE_GLOBAL) {
-                registerCommandName(server.getWindowModel().getInputModel().get().getTabCompleter(),
-                        plainCommandName, register);
-                registerCommandName(server.getWindowModel().getInputModel().get().getTabCompleter(),
-                        silencedCommandName, register);
-            }
-
-            if (command.getType() == CommandType.TYPE_CHANNEL
-                    || command.getType() == CommandType.TYPE_CHAT) {
-                for (GroupChat channel : server.getGroupChatManager().getChannels()) {
-                    registerCommandName(
-                            channel.getWindowModel().getInputModel().get().getTabCompleter(),
-                            plainCommandName, register);
-                    registerCommandName(
-                            channel.getWindowModel().getInputModel().get().getTabCompleter(),
-                            silencedCommandName, register);
-                }
-            }
-
-            if (command.getType() == CommandType.TYPE_QUERY
-                    || command.getType() == CommandType.TYPE_CHAT) {
-                for (PrivateChat query : server.getQueries()) {
-                    registerCommandName(
-                            query.getWindowModel().getInputModel().get().getTabCompleter(),
-                            plainCommandName, register);
-                    registerCommandName(
-                            query.getWindowModel().getInputModel().get().getTabCompleter(),
-                            silencedCommandName, register);
-                }
-            }
-        }
-    }
-
-    /**
-     * Registers or unregisters the specified command with the specified tab- completer.
-     *
-     * @param completer The tab completer to be used
-     * @param name      The command name to be registered
-     * @param register  True if the command should be registered, false if it should be
-     *                  unregistered.
-     */
-    private void registerCommandName(final TabCompleter completer,
-            final String name, final boolean register) {
-        if (register) {
-            completer.addEntry(TabCompletionType.COMMAND, name);
-        } else {
-            completer.removeEntry(TabCompletionType.COMMAND, name);
-        }
-    }
-
     @Override
     public void loadCommands(final CommandParser parser,
             final CommandType... supertypes) {
@@ -261,6 +192,18 @@ public class CommandManager implements CommandController {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CompletionDictionary getCommandCompletions(final CommandType type) {
+        return completions.computeIfAbsent(type, t -> {
+            final CompletionTrie trie = new CompletionTrie(new DefaultStringConverter());
+            for (CommandInfo command : getCommands(t).keySet()) {
+                trie.add(getCommandChar() + command.getName());
+                trie.add(String.valueOf(getCommandChar()) + getSilenceChar() + command.getName());
+            }
+            return trie;
+        });
+    }
+
     @Override
     public Map<CommandInfo, Command> getCommands(final CommandType type) {
         return getCommands(type, null);
@@ -33,20 +33,22 @@ import javax.annotation.Nonnull;
 public class AliasCommandHandler extends BaseCommand {
 
     private final Alias alias;
+    /** The alias's substitution, compiled when the handler is created. */
+    private final AliasSubstitution substitution;
 
     public AliasCommandHandler(final CommandController controller, final Alias alias) {
         super(controller);
         this.alias = alias;
+        this.substitution = AliasSubstitution.compile(alias.getSubstitution());
     }
 
     @Override
     public void execute(@Nonnull final WindowModel origin, final CommandArguments args,
             final CommandContext context) {
         if (args.getArguments().length >= alias.getMinArguments()) {
-            for (String line : alias.getSubstitution().split("\n")) {
+            for (String line : substitution.expand(args, getPrefix(args))) {
                 origin.getInputModel().map(InputModel::getCommandParser)
-                        .ifPresent(cp -> cp.parseCommand(origin,
-                                getSubstituteCommand(line, args)));
+                        .ifPresent(cp -> cp.parseCommand(origin, line));
             }
         } else {
             showError(origin, args.isSilent(), alias.getName() + " requires at least "
@@ -56,47 +58,16 @@ public class AliasCommandHandler extends BaseCommand {
     }
 
     /**
-     * Gets the command that should be executed, with the appropriate substitutions made.
-     * <p>
-     * The returned command will have arguments substituted (replacing "$1-", "$2", etc), and will
-     * be silenced if the given args are silent.
+     * Gets the prefix to add to each substituted command. Commands will be silenced if the given
+     * args are silent.
      *
-     * @param line The line to substitute.
      * @param args The arguments entered by the user.
      *
-     * @return The substituted command to execute.
+     * @return The prefix for substituted commands.
      */
-    private String getSubstituteCommand(final String line, final CommandArguments args) {
-        final StringBuilder builder = new StringBuilder(line.trim());
-
-        final String[] arguments = args.getArguments();
-        for (int i = 0; i < arguments.length; i++) {
-            replaceAll(builder, "$" + (i + 1) + '-', args.getArgumentsAsString(i));
-            replaceAll(builder, "$" + (i + 1), arguments[i]);
-        }
-
-        if (args.isSilent()) {
-            builder.insert(0, getController().getSilenceChar());
-        }
-        builder.insert(0, getController().getCommandChar());
-
-        return builder.toString();
-    }
-
-    /**
-     * Replaces all instances of the specified substring in the builder.
-     *
-     * @param builder     The builder to modify.
-     * @param substr      The substring to replace.
-     * @param replacement The string to use as a replacement.
-     */
-    private static void replaceAll(final StringBuilder builder,
-            final String substr, final String replacement) {
-        int index = builder.indexOf(substr);
-        while (index > -1) {
-            builder.replace(index, index + substr.length(), replacement);
-            index = builder.indexOf(substr);
-        }
+    private String getPrefix(final CommandArguments args) {
+        final String commandChar = String.valueOf(getController().getCommandChar());
+        return args.isSilent() ? commandChar + getController().getSilenceChar() : commandChar;
     }
 
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.commandparser.aliases;
+
+import com.dmdirc.commandparser.CommandArguments;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The substitution of an alias, compiled into a sequence of literal text and argument references.
+ *
+ * <p>Each line of the substitution is parsed once into tokens, so that expanding the alias is a
+ * single pass over those tokens. {@code $n} is replaced with the n-th argument, and {@code $n-}
+ * with the n-th and all subsequent arguments. References to arguments that weren't given are left
+ * as they are. Substituted arguments are never themselves searched for references.
+ */
+class AliasSubstitution {
+
+    /** The tokens of each line of the substitution. */
+    private final Token[][] lines;
+    /** The total length of the literal text in each line, used to size builders. */
+    private final int[] literalLengths;
+
+    private AliasSubstitution(final Token[][] lines, final int[] literalLengths) {
+        this.lines = lines;
+        this.literalLengths = literalLengths;
+    }
+
+    /**
+     * Compiles the given substitution.
+     *
+     * @param substitution The substitution of an alias, with lines separated by newlines.
+     * @return The compiled substitution.
+     */
+    static AliasSubstitution compile(final String substitution) {
+        final String[] parts = substitution.split("\n");
+        final Token[][] lines = new Token[parts.length][];
+        final int[] literalLengths = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            final List<Token> tokens = tokenise(parts[i].trim());
+            lines[i] = tokens.toArray(new Token[tokens.size()]);
+            for (Token token : tokens) {
+                literalLengths[i] += token.text.length();
+            }
+        }
+        return new AliasSubstitution(lines, literalLengths);
+    }
+
+    /**
+     * Expands each line of the substitution using the given arguments.
+     *
+     * @param args   The arguments entered by the user.
+     * @param prefix Text to prepend to each line.
+     * @return The expanded lines.
+     */
+    List<String> expand(final CommandArguments args, final String prefix) {
+        final String[] arguments = args.getArguments();
+        // Lazily-populated cache of "$n-" expansions, which are built from the original line.
+        final String[] rest = new String[arguments.length];
+        final List<String> result = new ArrayList<>(lines.length);
+
+        for (int i = 0; i < lines.length; i++) {
+            final StringBuilder builder = new StringBuilder(prefix.length() + literalLengths[i]
+                    + 16 * lines[i].length);
+            builder.append(prefix);
+            for (Token token : lines[i]) {
+                if (token.argument == 0 || token.argument > arguments.length) {
+                    builder.append(token.text);
+                } else if (token.rest) {
+                    final int index = token.argument - 1;
+                    if (rest[index] == null) {
+                        rest[index] = args.getArgumentsAsString(index);
+                    }
+                    builder.append(rest[index]);
+                } else {
+                    builder.append(arguments[token.argument - 1]);
+                }
+            }
+            result.add(builder.toString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Splits a single line of a substitution into tokens.
+     *
+     * @param line The line to split.
+     * @return The tokens making up the line.
+     */
+    private static List<Token> tokenise(final String line) {
+        final List<Token> tokens = new ArrayList<>();
+        int literalStart = 0;
+        int index = line.indexOf('$');
+        while (index > -1) {
+            int end = index + 1;
+            while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                end++;
+            }
+
+            final int argument = end > index + 1 ? parseArgument(line, index + 1, end) : 0;
+            if (argument > 0) {
+                final boolean rest = end < line.length() && line.charAt(end) == '-';
+                if (rest) {
+                    end++;
+                }
+                if (index > literalStart) {
+                    tokens.add(new Token(line.substring(literalStart, index), 0, false));
+                }
+                tokens.add(new Token(line.substring(index, end), argument, rest));
+                literalStart = end;
+            }
+            index = line.indexOf('$', end);
+        }
+
+        if (literalStart < line.length()) {
+            tokens.add(new Token(line.substring(literalStart), 0, false));
+        }
+        return tokens;
+    }
+
+    /**
+     * Parses an argument number from the given portion of a line.
+     *
+     * @param line  The line containing the number.
+     * @param start The index of the first digit.
+     * @param end   The index after the last digit.
+     * @return The argument number, or zero if it is not a valid reference.
+     */
+    private static int parseArgument(final String line, final int start, final int end) {
+        try {
+            return Integer.parseInt(line.substring(start, end));
+        } catch (NumberFormatException ex) {
+            // Too many digits to be a real argument.
+            return 0;
+        }
+    }
+
+    /** A single token in a line of a substitution. */
+    private static class Token {
+
+        /** The text of the token, used as-is if it isn't an argument or wasn't given. */
+        private final String text;
+        /** The one-based number of the argument, or zero for literal text. */
+        private final int argument;
+        /** Whether the token refers to the argument and all subsequent arguments. */
+        private final boolean rest;
+
+        Token(final String text, final int argument, final boolean rest) {
+            this.text = text;
+            this.argument = argument;
+            this.rest = rest;
+        }
+
+    }
+
+}
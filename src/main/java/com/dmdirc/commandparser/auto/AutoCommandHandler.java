@@ -28,10 +28,9 @@ import com.dmdirc.interfaces.WindowModel;
 
 import java.util.Optional;
 
-import net.engio.mbassy.listener.Handler;
-
 /**
- * Handles execution of {@link AutoCommand}s.
+ * Handles execution of {@link AutoCommand}s. Handlers are invoked by the
+ * {@link AutoCommandManager} for the events their command may apply to.
  */
 public class AutoCommandHandler {
 
@@ -56,7 +55,6 @@ public class AutoCommandHandler {
      *
      * @param event The event triggering the command.
      */
-    @Handler
     public void checkAutoCommand(final ClientOpenedEvent event) {
         if (isGlobalCommand()) {
             execute(globalWindow, globalCommandParser);
@@ -68,7 +66,6 @@ public class AutoCommandHandler {
      *
      * @param event The event triggering the command.
      */
-    @Handler
     public void checkAutoCommand(final ServerConnectedEvent event) {
         if (appliesToServer(event.getConnection().getNetwork(),
                 event.getConnection().getAddress(), event.getConnection().getProfile().getName())) {
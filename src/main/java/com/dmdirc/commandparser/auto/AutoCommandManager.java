@@ -17,62 +17,152 @@
 
 package com.dmdirc.commandparser.auto;
 
+import com.dmdirc.events.ClientOpenedEvent;
+import com.dmdirc.events.ServerConnectedEvent;
 import com.dmdirc.events.eventbus.EventBus;
+import com.dmdirc.interfaces.Connection;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import javax.inject.Inject;
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.engio.mbassy.listener.Handler;
+
+import static com.dmdirc.util.LogUtils.APP_ERROR;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Manages {@link AutoCommand}s.
+ *
+ * <p>The manager subscribes to the event bus on behalf of all of its commands, and uses an index
+ * of their targets to find the commands that apply to each connection. Matching commands are
+ * executed in the background, in order for any one connection.
  */
 @Singleton
 public class AutoCommandManager {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AutoCommandManager.class);
+    /** Key used to order the execution of global commands. */
+    private static final Object GLOBAL_KEY = new Object();
+
     /** The bus to listen for events on. */
     private final EventBus eventBus;
     /** The factory to use to create handlers. */
     private final AutoCommandHandlerFactory factory;
+    /** The executor to run commands on. */
+    private final Executor executor;
     /** Known auto commands, mapped on to their handlers. */
     private final Map<AutoCommand, AutoCommandHandler> autoCommands = new ConcurrentHashMap<>();
-    /** Whether the manager has been started or not. */
-    private boolean started;
+    /** Handlers for global commands. */
+    private final Set<AutoCommandHandler> globalHandlers = ConcurrentHashMap.newKeySet();
+    /** Handlers for commands with a network target, keyed on the lowercase network. */
+    private final Map<String, Set<AutoCommandHandler>> networkHandlers = new ConcurrentHashMap<>();
+    /** Handlers for commands with only a server target, keyed on the lowercase server. */
+    private final Map<String, Set<AutoCommandHandler>> serverHandlers = new ConcurrentHashMap<>();
+    /** The most recently queued execution for each connection. */
+    private final Map<Object, CompletableFuture<Void>> queues = new ConcurrentHashMap<>();
 
     /**
      * Creates a new instance of {@link AutoCommandManager}.
      *
      * @param eventBus The bus to listen to events on.
      * @param factory  The factory to use to create handlers.
+     * @param executor The dedicated executor to run commands on in the background.
      */
     @Inject
     public AutoCommandManager(
             final EventBus eventBus,
-            final AutoCommandHandlerFactory factory) {
+            final AutoCommandHandlerFactory factory,
+            @Named("autocommands") final ExecutorService executor) {
+        this(eventBus, factory, (Executor) executor);
+    }
+
+    AutoCommandManager(
+            final EventBus eventBus,
+            final AutoCommandHandlerFactory factory,
+            final Executor executor) {
         this.eventBus = eventBus;
         this.factory = factory;
+        this.executor = executor;
     }
 
     /**
      * Starts handling events and triggering auto commands.
      */
     public void start() {
-        started = true;
-        autoCommands.values().forEach(eventBus::subscribe);
+        eventBus.subscribe(this);
     }
 
     /**
      * Stops handling events and triggering auto commands.
      */
     public void stop() {
-        started = false;
-        autoCommands.values().forEach(eventBus::unsubscribe);
+        eventBus.unsubscribe(this);
+    }
+
+    /**
+     * Executes global auto commands when the client opens.
+     *
+     * @param event The event triggering the commands.
+     */
+    @Handler
+    void handleClientOpened(final ClientOpenedEvent event) {
+        for (AutoCommandHandler handler : globalHandlers) {
+            submit(GLOBAL_KEY, () -> handler.checkAutoCommand(event));
+        }
+    }
+
+    /**
+     * Executes auto commands targeting a server when it connects.
+     *
+     * @param event The event triggering the commands.
+     */
+    @Handler
+    void handleServerConnected(final ServerConnectedEvent event) {
+        final Connection connection = event.getConnection();
+        final List<AutoCommandHandler> candidates = new ArrayList<>();
+        candidates.addAll(getHandlers(networkHandlers, connection.getNetwork()));
+        candidates.addAll(getHandlers(serverHandlers, connection.getAddress()));
+
+        // Handlers still check the profile, and the server of commands with both targets.
+        for (AutoCommandHandler handler : candidates) {
+            submit(connection, () -> handler.checkAutoCommand(event));
+        }
+    }
+
+    /**
+     * Queues a task to run after any previously queued for the same key.
+     *
+     * @param key  The key to order the task by.
+     * @param task The task to run.
+     */
+    private void submit(final Object key, final Runnable task) {
+        final CompletableFuture<Void> next = queues.compute(key, (k, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        .handle((result, ex) -> null)
+                        .thenRunAsync(task, executor));
+        next.whenComplete((result, ex) -> {
+            queues.remove(key, next);
+            if (ex != null) {
+                LOG.error(APP_ERROR, "Unable to execute auto command", ex);
+            }
+        });
     }
 
     /**
@@ -95,12 +185,12 @@ public class AutoCommandManager {
         }
 
         final AutoCommandHandler handler = factory.getAutoCommandHandler(autoCommand);
-
-        if (started) {
-            eventBus.subscribe(handler);
-        }
-
         autoCommands.put(autoCommand, handler);
+        getIndex(autoCommand).ifPresent(index -> index.computeIfAbsent(getKey(autoCommand),
+                k -> ConcurrentHashMap.newKeySet()).add(handler));
+        if (isGlobal(autoCommand)) {
+            globalHandlers.add(handler);
+        }
     }
 
     /**
@@ -112,8 +202,10 @@ public class AutoCommandManager {
         checkNotNull(autoCommand);
         final AutoCommandHandler handler = autoCommands.remove(autoCommand);
 
-        if (started) {
-            eventBus.unsubscribe(handler);
+        if (handler != null) {
+            getIndex(autoCommand).ifPresent(index -> index.computeIfPresent(
+                    getKey(autoCommand), (k, v) -> v.remove(handler) && v.isEmpty() ? null : v));
+            globalHandlers.remove(handler);
         }
     }
 
@@ -164,6 +256,51 @@ public class AutoCommandManager {
                 .findAny();
     }
 
+    /**
+     * Gets the index that a command should be stored in.
+     *
+     * @param autoCommand The command to be indexed.
+     * @return The index for the command, or empty if it is a global command.
+     */
+    private Optional<Map<String, Set<AutoCommandHandler>>> getIndex(
+            final AutoCommand autoCommand) {
+        if (autoCommand.getNetwork().isPresent()) {
+            return Optional.of(networkHandlers);
+        }
+        if (autoCommand.getServer().isPresent()) {
+            return Optional.of(serverHandlers);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the key that a command should be indexed under.
+     *
+     * @param autoCommand The command to be indexed.
+     * @return The lowercase network of the command, or its server if it has no network.
+     */
+    private static String getKey(final AutoCommand autoCommand) {
+        return autoCommand.getNetwork().orElseGet(() -> autoCommand.getServer().orElse(""))
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the handlers indexed under the given target.
+     *
+     * @param index  The index to look in.
+     * @param target The network or server to look up.
+     * @return The handlers for the target.
+     */
+    private static Collection<AutoCommandHandler> getHandlers(
+            final Map<String, Set<AutoCommandHandler>> index, final String target) {
+        return target == null ? Collections.emptySet()
+                : index.getOrDefault(target.toLowerCase(Locale.ROOT), Collections.emptySet());
+    }
+
+    private static boolean isGlobal(final AutoCommand autoCommand) {
+        return !autoCommand.getServer().isPresent() && !autoCommand.getNetwork().isPresent();
+    }
+
     /**
      * Returns a single auto command matching the given parameters, or creates a new one if it
      * doesn't exist.
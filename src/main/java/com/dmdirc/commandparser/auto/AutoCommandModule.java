@@ -17,18 +17,27 @@
 
 package com.dmdirc.commandparser.auto;
 
+import com.dmdirc.util.LoggingExecutorService;
 import com.dmdirc.util.system.Migrator;
 import com.dmdirc.util.system.SystemLifecycleComponent;
 
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import dagger.Module;
 import dagger.Provides;
 
 import static com.dmdirc.commandline.CommandLineOptionsModule.Directory;
 import static com.dmdirc.commandline.CommandLineOptionsModule.DirectoryType;
+import static com.dmdirc.util.LogUtils.APP_ERROR;
 
 /**
  * Dagger module for auto commands.
@@ -36,6 +45,10 @@ import static com.dmdirc.commandline.CommandLineOptionsModule.DirectoryType;
 @Module(library = true, complete = false)
 public class AutoCommandModule {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AutoCommandModule.class);
+    /** The number of threads to run auto commands on. */
+    private static final int POOL_SIZE = 2;
+
     @Provides
     @Singleton
     public AutoCommandStore getAutoCommandStore(
@@ -43,6 +56,23 @@ public class AutoCommandModule {
         return new YamlAutoCommandStore(directory.resolve("auto-commands.yml"));
     }
 
+    /**
+     * Provides the executor that auto commands are run on. Commands can block for some time, so
+     * they are kept off both the event bus and the shared timer threads. The queue is unbounded,
+     * so a burst of connections never runs commands on the thread that raised the event.
+     */
+    @Provides
+    @Singleton
+    @Named("autocommands")
+    public ExecutorService getExecutorService() {
+        final LoggingExecutorService executor = new LoggingExecutorService(POOL_SIZE, POOL_SIZE,
+                new LinkedBlockingQueue<>(), (r, t) -> LOG.error(APP_ERROR, t.getMessage(), t),
+                "Auto Commands");
+        executor.setKeepAliveTime(1, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Provides(type = Provides.Type.SET)
     public SystemLifecycleComponent getLifecycleComponent(
             final AutoCommandLifecycleManager manager) {
@@ -34,6 +34,7 @@ import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.ui.WindowManager;
 import com.dmdirc.ui.input.AdditionalTabTargets;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -57,6 +58,8 @@ public class OpenWindow extends BaseCommand implements IntelligentCommand {
     private final AggregateConfigProvider configProvider;
     /** Back buffer factory. */
     private final BackBufferFactory backBufferFactory;
+    /** The service to schedule window timers on. */
+    private final TimerService timerService;
 
     /**
      * Creates a new instance of this command.
@@ -67,13 +70,15 @@ public class OpenWindow extends BaseCommand implements IntelligentCommand {
             final WindowManager windowManager,
             final EventBus eventBus,
             @GlobalConfig final AggregateConfigProvider configProvider,
-            final BackBufferFactory backBufferFactory) {
+            final BackBufferFactory backBufferFactory,
+            final TimerService timerService) {
         super(controller);
 
         this.windowManager = windowManager;
         this.eventBus = eventBus;
         this.configProvider = configProvider;
         this.backBufferFactory = backBufferFactory;
+        this.timerService = timerService;
     }
 
     @Override
@@ -116,11 +121,11 @@ public class OpenWindow extends BaseCommand implements IntelligentCommand {
                 final CustomWindow newWindow;
                 if (parent == null) {
                     newWindow = new CustomWindow(args.getArguments()[start], title,
-                            configProvider, eventBus, backBufferFactory);
+                            configProvider, eventBus, backBufferFactory, timerService);
                     windowManager.addWindow(newWindow);
                 } else {
                     newWindow = new CustomWindow(args.getArguments()[start], title, parent,
-                            backBufferFactory);
+                            backBufferFactory, timerService);
                     windowManager.addWindow(parent, newWindow);
                 }
             } else {
@@ -26,7 +26,10 @@ import com.dmdirc.util.validators.Validator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.WeakReference;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -52,6 +55,10 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
     private static final String DOMAIN = "identity";
     /** The domain used for profile settings. */
     private static final String PROFILE_DOMAIN = "profile";
+    /** The domain used for settings that should never be saved. */
+    private static final String TEMP_DOMAIN = "temp";
+    /** The suffix added to a config file's name while a new version is being written. */
+    static final String TEMP_FILE_SUFFIX = ".tmp";
     /** The target for this identity. */
     protected final ConfigTarget myTarget;
     /** The identity manager to use for writable configs. */
@@ -59,6 +66,9 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
     private final IdentityManager identityManager;
     /** The configuration details for this identity. */
     protected final ConfigFile file;
+    /** The path of the config file, if known. */
+    @Nullable
+    private final Path path;
     /** The global config manager. */
     protected ConfigManager globalConfig;
     /** The config change listeners for this source. */
@@ -83,6 +93,7 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
         this.identityManager = identityManager;
         this.file = new ConfigFile(file);
         this.file.setAutomake(true);
+        this.path = file;
         initFile(forceDefault);
         myTarget = getTarget(forceDefault);
     }
@@ -100,6 +111,7 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
             final boolean forceDefault) throws IOException, InvalidIdentityFileException {
         this.identityManager = null;
         this.file = new ConfigFile(stream);
+        this.path = null;
         file.setAutomake(true);
         initFile(forceDefault);
         myTarget = getTarget(forceDefault);
@@ -116,6 +128,7 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
             final ConfigFile configFile, final ConfigTarget target) {
         this.identityManager = identityManager;
         this.file = configFile;
+        this.path = null;
         file.setAutomake(true);
         this.myTarget = target;
     }
@@ -340,6 +353,7 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
         // a lock on this identity.
         if (unset || !Objects.equals(oldValue, value)) {
             fireSettingChange(domain, option);
+            scheduleSave(domain);
         }
     }
 
@@ -378,6 +392,19 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
         }
 
         fireSettingChange(domain, option);
+        scheduleSave(domain);
+    }
+
+    /**
+     * Asks the identity manager to save this identity in the background, unless the change was to
+     * a temporary setting.
+     *
+     * @param domain The domain of the setting that changed.
+     */
+    private void scheduleSave(final String domain) {
+        if (identityManager != null && !TEMP_DOMAIN.equals(domain)) {
+            identityManager.scheduleSave(this);
+        }
     }
 
     @Override
@@ -430,6 +457,10 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
                 for (Map.Entry<String, Map<String, String>> entry
                         : file.getKeyDomains().entrySet()) {
                     final String domain = entry.getKey();
+                    if (TEMP_DOMAIN.equals(domain)) {
+                        // Temporary settings are never written, so are never superfluous.
+                        continue;
+                    }
 
                     for (Map.Entry<String, String> subentry : new HashSet<>(entry.getValue().
                             entrySet())) {
@@ -446,12 +477,8 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
                 }
             }
 
-            if (file.isKeyDomain("temp")) {
-                file.getKeyDomain("temp").clear();
-            }
-
             try {
-                file.write();
+                write();
 
                 needSave = false;
             } catch (IOException ex) {
@@ -460,6 +487,60 @@ public class ConfigFileBackedConfigProvider implements ConfigProvider {
         }
     }
 
+    /**
+     * Writes the config file, excluding temporary settings. Temporary settings are only left out
+     * of what is written; they remain set in memory for the rest of the session. If the file's
+     * path is known the settings are written to a separate file that then replaces the original,
+     * so a failed or interrupted write never leaves a truncated config file behind.
+     *
+     * @throws IOException If the file could not be written
+     */
+    private void write() throws IOException {
+        if (path == null) {
+            writeWithoutTemporarySettings();
+            return;
+        }
+
+        // ConfigFile only persists its flat and key domains, so copying both is a complete copy.
+        final Path tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_SUFFIX);
+        final ConfigFile tempFile = new ConfigFile(tempPath);
+        file.getFlatDomains().forEach(tempFile::addDomain);
+        file.getKeyDomains().entrySet().stream()
+                .filter(e -> !TEMP_DOMAIN.equals(e.getKey()))
+                .forEach(e -> tempFile.addDomain(e.getKey(), e.getValue()));
+        tempFile.write();
+
+        try {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the config file in place, without its temporary settings. The temporary settings are
+     * restored once the file has been written. Callers must hold the provider's lock, so no other
+     * thread can observe them as missing.
+     *
+     * @throws IOException If the file could not be written
+     */
+    private void writeWithoutTemporarySettings() throws IOException {
+        if (!file.isKeyDomain(TEMP_DOMAIN)) {
+            file.write();
+            return;
+        }
+
+        final Map<String, String> temporary = file.getKeyDomain(TEMP_DOMAIN);
+        final Map<String, String> saved = new HashMap<>(temporary);
+        temporary.clear();
+        try {
+            file.write();
+        } finally {
+            temporary.putAll(saved);
+        }
+    }
+
     @Override
     public synchronized void delete() throws IOException {
         file.delete();
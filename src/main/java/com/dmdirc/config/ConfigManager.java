@@ -33,6 +33,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,12 +45,22 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
         AggregateConfigProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConfigManager.class);
-    /** Temporary map for lookup stats. */
-    private static final Map<String, Integer> STATS = new TreeMap<>();
+    /** Lookup counts for each domain and option, if stats are enabled. */
+    private static final Map<String, LongAdder> STATS = new ConcurrentHashMap<>();
+    /** Cached value for options that no source defines. */
+    private static final String[] UNDEFINED = new String[0];
+    /** Whether to record lookup stats. */
+    private static volatile boolean statsEnabled = Boolean.getBoolean("com.dmdirc.config.stats");
     /** Magical domain to redirect to the version identity. */
     private static final String VERSION_DOMAIN = "version";
     /** A list of sources for this config manager. */
     private final List<ConfigFileBackedConfigProvider> sources = new ArrayList<>();
+    /**
+     * The raw values defined by each source for each domain and option, in priority order.
+     * Populated while holding the lock on {@link #sources}, and invalidated whenever a setting
+     * changes or a source is added or removed.
+     */
+    private final Map<String, Map<String, String[]>> values = new ConcurrentHashMap<>();
     /** The listeners registered for this manager. */
     private final Multimap<String, ConfigChangeListener> listeners = ArrayListMultimap.create();
     /** The config binder to use for this manager. */
@@ -130,11 +142,9 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
             return response;
         }
 
-        synchronized (sources) {
-            for (ConfigProvider source : sources) {
-                if (source.hasOption(domain, option, validator)) {
-                    return source.getOption(domain, option, validator);
-                }
+        for (String value : getValues(domain, option)) {
+            if (!validator.validate(value).isFailure()) {
+                return value;
             }
         }
 
@@ -151,15 +161,70 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
             return response != null && !validator.validate(response).isFailure();
         }
 
+        for (String value : getValues(domain, option)) {
+            if (!validator.validate(value).isFailure()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the values that each source defines for the given option, using the cache if possible.
+     *
+     * @param domain The domain of the option
+     * @param option The name of the option
+     *
+     * @return The values defined for the option, with the highest priority source first
+     */
+    private String[] getValues(final String domain, final String option) {
+        final Map<String, String[]> domainValues = values.get(domain);
+        final String[] cached = domainValues == null ? null : domainValues.get(option);
+        if (cached != null) {
+            return cached;
+        }
+
         synchronized (sources) {
+            final List<String> found = new ArrayList<>(sources.size());
             for (ConfigProvider source : sources) {
-                if (source.hasOption(domain, option, validator)) {
-                    return true;
+                if (source.hasOption(domain, option, PERMISSIVE_VALIDATOR)) {
+                    found.add(source.getOption(domain, option, PERMISSIVE_VALIDATOR));
                 }
             }
+
+            final String[] result = found.isEmpty() ? UNDEFINED : found.toArray(UNDEFINED);
+            values.computeIfAbsent(domain, k -> new ConcurrentHashMap<>()).put(option, result);
+            return result;
         }
+    }
 
-        return false;
+    /**
+     * Discards any cached values for the given option.
+     *
+     * @param domain The domain of the option
+     * @param option The name of the option
+     */
+    private void invalidate(final String domain, final String option) {
+        synchronized (sources) {
+            final Map<String, String[]> domainValues = values.get(domain);
+            if (domainValues != null) {
+                domainValues.remove(option);
+            }
+        }
+    }
+
+    /**
+     * Discards any cached values for options defined by the given source.
+     *
+     * @param source The source whose options should be discarded.
+     */
+    private void invalidate(final ConfigProvider source) {
+        synchronized (sources) {
+            for (String domain : source.getDomains()) {
+                source.getOptions(domain).keySet().forEach(option -> invalidate(domain, option));
+            }
+        }
     }
 
     @Override
@@ -201,6 +266,7 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
         synchronized (sources) {
             identity.removeListener(this);
             sources.remove(identity);
+            invalidate(identity);
         }
 
         // Fire change listeners
@@ -306,6 +372,7 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
                 sources.add(identity);
                 identity.addListener(this);
                 sources.sort(new ConfigProviderTargetComparator());
+                invalidate(identity);
             }
 
             // Determine which settings will have changed
@@ -377,29 +444,36 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
     }
 
     /**
-     * Records the lookup request for the specified domain and option.
+     * Records the lookup request for the specified domain and option, if stats are enabled.
      *
      * @param domain The domain that is being looked up
      * @param option The option that is being looked up
      */
-    @SuppressWarnings("PMD.AvoidCatchingNPE")
     protected static void doStats(final String domain, final String option) {
-        final String key = domain + '.' + option;
-
-        try {
-            STATS.put(key, 1 + (STATS.containsKey(key) ? STATS.get(key) : 0));
-        } catch (NullPointerException ex) {
-            // JVM bugs ftl.
+        if (statsEnabled) {
+            STATS.computeIfAbsent(domain + '.' + option, k -> new LongAdder()).increment();
         }
     }
 
     /**
-     * Retrieves the statistic map.
+     * Sets whether lookup stats should be recorded. Stats are disabled by default, unless the
+     * {@code com.dmdirc.config.stats} system property is set to true.
+     *
+     * @param enabled True to record stats, false otherwise
+     */
+    public static void setStatsEnabled(final boolean enabled) {
+        statsEnabled = enabled;
+    }
+
+    /**
+     * Retrieves a snapshot of the lookup stats.
      *
      * @return A map of config options to lookup counts
      */
     public static Map<String, Integer> getStats() {
-        return STATS;
+        final Map<String, Integer> res = new TreeMap<>();
+        STATS.forEach((key, count) -> res.put(key, count.intValue()));
+        return res;
     }
 
     @Override
@@ -437,6 +511,8 @@ class ConfigManager implements ConfigChangeListener, ConfigProviderListener,
 
     @Override
     public void configChanged(final String domain, final String key) {
+        invalidate(domain, key);
+
         final Collection<ConfigChangeListener> targets = new ArrayList<>();
 
         if (listeners.containsKey(domain)) {
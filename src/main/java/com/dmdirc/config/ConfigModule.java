@@ -20,10 +20,12 @@ package com.dmdirc.config;
 import com.dmdirc.commandline.CommandLineParser;
 import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.config.provider.ConfigProvider;
+import com.dmdirc.events.eventbus.EventBus;
 import com.dmdirc.interfaces.config.IdentityController;
 import com.dmdirc.interfaces.config.IdentityFactory;
 import com.dmdirc.logger.ErrorManager;
 import com.dmdirc.ui.WarningDialog;
+import com.dmdirc.util.TimerService;
 import dagger.Module;
 import dagger.Provides;
 import java.awt.GraphicsEnvironment;
@@ -51,8 +53,13 @@ public class ConfigModule {
             @Directory(DirectoryType.IDENTITIES) final Path identitiesDirectory,
             @Directory(DirectoryType.ERRORS) final Path errorsDirectory,
             final CommandLineParser commandLineParser,
-            final ErrorManager errorManager) {
-        final IdentityManager identityManager = new IdentityManager(baseDirectory, identitiesDirectory);
+            final ErrorManager errorManager,
+            final EventBus eventBus,
+            final TimerService timerService) {
+        final IdentitySaver saver = new IdentitySaver(timerService.createGroup());
+        eventBus.subscribe(saver);
+        final IdentityManager identityManager =
+                new IdentityManager(baseDirectory, identitiesDirectory, saver);
         errorManager.initialise(identityManager.getGlobalConfiguration());
         identityManager.loadVersionIdentity();
         try {
@@ -22,6 +22,7 @@ import com.dmdirc.config.provider.ConfigProvider;
 import com.dmdirc.config.provider.ConfigProviderMigrator;
 import com.dmdirc.interfaces.config.IdentityController;
 import com.dmdirc.interfaces.config.IdentityFactory;
+import com.dmdirc.util.TimerService;
 import com.dmdirc.util.io.ConfigFile;
 import com.dmdirc.util.io.FileUtils;
 import com.dmdirc.util.io.InvalidConfigFileException;
@@ -89,16 +90,33 @@ public class IdentityManager implements IdentityFactory, IdentityController {
     private ConfigFileBackedConfigProvider versionConfig;
     /** The config manager used for global settings. */
     private AggregateConfigProvider globalconfig;
+    /** Saves identities in the background after they change. */
+    private final IdentitySaver saver;
 
     /**
      * Creates a new instance of IdentityManager.
      *
      * @param baseDirectory       The BASE config directory.
      * @param identitiesDirectory The directory to store identities in.
+     * @param timerService        The service to schedule background saves on.
      */
-    public IdentityManager(final Path baseDirectory, final Path identitiesDirectory) {
+    public IdentityManager(final Path baseDirectory, final Path identitiesDirectory,
+            final TimerService timerService) {
+        this(baseDirectory, identitiesDirectory, new IdentitySaver(timerService.createGroup()));
+    }
+
+    /**
+     * Creates a new instance of IdentityManager.
+     *
+     * @param baseDirectory       The BASE config directory.
+     * @param identitiesDirectory The directory to store identities in.
+     * @param saver               The saver to use to save identities in the background.
+     */
+    IdentityManager(final Path baseDirectory, final Path identitiesDirectory,
+            final IdentitySaver saver) {
         this.configDirectory = baseDirectory;
         this.identitiesDirectory = identitiesDirectory;
+        this.saver = saver;
     }
 
     /**
@@ -202,7 +220,10 @@ public class IdentityManager implements IdentityFactory, IdentityController {
             for (Path child : directoryStream) {
                 if (Files.isDirectory(child)) {
                     loadUser(child);
-                } else {
+                } else if (!child.getFileName().toString().endsWith(
+                        ConfigFileBackedConfigProvider.TEMP_FILE_SUFFIX)) {
+                    // Skip partially written identities, which are still being saved or were
+                    // interrupted; the original file is still intact.
                     loadIdentity(child);
                 }
             }
@@ -318,11 +339,23 @@ public class IdentityManager implements IdentityFactory, IdentityController {
 
     @Override
     public void saveAll() {
+        final Collection<ConfigProvider> all;
         synchronized (identities) {
-            for (ConfigProvider identity : getAllIdentities()) {
-                identity.save();
-            }
+            all = new ArrayList<>(identities.values());
         }
+
+        saver.flush();
+        all.forEach(ConfigProvider::save);
+    }
+
+    /**
+     * Schedules the given identity to be saved in the background. Multiple changes made in quick
+     * succession result in a single save.
+     *
+     * @param identity The identity that has changed.
+     */
+    void scheduleSave(final ConfigFileBackedConfigProvider identity) {
+        saver.scheduleSave(identity);
     }
 
     @Override
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.config;
+
+import com.dmdirc.config.provider.ConfigProvider;
+import com.dmdirc.events.ClientClosingEvent;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import net.engio.mbassy.listener.Handler;
+
+/**
+ * Saves config providers in the background. Providers that change repeatedly in quick succession
+ * are only written once, after the changes have settled. A burst of changes that never settles is
+ * still written once it has been pending for the maximum delay.
+ *
+ * <p>When the client closes, every pending save is written immediately and the saver stops.
+ * Changes made after that are saved on the thread that made them.
+ */
+class IdentitySaver {
+
+    /** The default time to wait after a change before saving, in milliseconds. */
+    static final long DEFAULT_DELAY = 2000;
+    /** The default longest time to wait after the first unsaved change, in milliseconds. */
+    static final long DEFAULT_MAX_DELAY = 10000;
+
+    /** Providers that have changed since they were last saved. */
+    private final Set<ConfigProvider> dirty = ConcurrentHashMap.newKeySet();
+    /** The executor used to run saves. */
+    private final ScheduledExecutorService executor;
+    /** The clock used to measure delays, in milliseconds. */
+    private final LongSupplier clock;
+    /** The time to wait after a change before saving, in milliseconds. */
+    private final long delay;
+    /** The longest time to wait after the first unsaved change, in milliseconds. */
+    private final long maxDelay;
+    /** The pending save, if any. */
+    private ScheduledFuture<?> pending;
+    /** The time the pending save was first requested, from {@link #clock}. */
+    private long firstChange;
+    /** Whether the saver has been stopped. */
+    private boolean stopped;
+
+    IdentitySaver(final ScheduledExecutorService executor) {
+        this(executor, DEFAULT_DELAY, DEFAULT_MAX_DELAY, System::currentTimeMillis);
+    }
+
+    IdentitySaver(final ScheduledExecutorService executor, final long delay,
+            final long maxDelay, final LongSupplier clock) {
+        this.executor = executor;
+        this.delay = delay;
+        this.maxDelay = maxDelay;
+        this.clock = clock;
+    }
+
+    /**
+     * Marks the given provider as needing to be saved. Each change postpones the save until no
+     * further changes have been made for the delay, but never beyond the maximum delay after the
+     * first change. All providers that have changed in that time are saved together.
+     *
+     * @param provider The provider that has changed.
+     */
+    void scheduleSave(final ConfigProvider provider) {
+        dirty.add(provider);
+
+        synchronized (this) {
+            if (!stopped) {
+                final long now = clock.getAsLong();
+                if (pending == null) {
+                    firstChange = now;
+                } else {
+                    pending.cancel(false);
+                }
+
+                final long wait = Math.max(0, Math.min(delay, maxDelay - (now - firstChange)));
+                pending = executor.schedule(this::flush, wait, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+
+        // Don't save while holding this lock: providers call in while holding their own.
+        flush();
+    }
+
+    /**
+     * Immediately saves every provider that has changed, on the calling thread.
+     */
+    void flush() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
+        }
+
+        final Iterator<ConfigProvider> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            final ConfigProvider provider = iterator.next();
+            iterator.remove();
+            provider.save();
+        }
+    }
+
+    /**
+     * Saves every provider that has changed and stops scheduling saves in the background.
+     */
+    void stop() {
+        synchronized (this) {
+            stopped = true;
+        }
+        flush();
+        executor.shutdown();
+    }
+
+    @Handler
+    void handleClientClosing(final ClientClosingEvent event) {
+        stop();
+    }
+
+}
@@ -23,35 +23,127 @@ import com.dmdirc.parser.events.GroupListEndEvent;
 import com.dmdirc.parser.events.GroupListEntryEvent;
 import com.dmdirc.parser.events.GroupListStartEvent;
 import com.dmdirc.parser.interfaces.Parser;
+import com.dmdirc.util.TimerService;
 import com.dmdirc.util.collections.ListenerList;
 import com.dmdirc.util.collections.ObservableList;
 import com.dmdirc.util.collections.ObservableListDecorator;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
 
 import net.engio.mbassy.listener.Handler;
 
 /**
  * Manages a group list request.
+ *
+ * <p>Results are held in a {@link GroupListStore}, and delivered to observers in batches rather
+ * than one entry at a time. A batch is delivered once it is full, or once its first entry has
+ * been held back for the batch interval, whichever comes first. Batches that fill up too slowly
+ * are delivered on a group of the client's shared {@link TimerService}.
  */
 public class GroupListManager {
 
+    /** The maximum number of entries to deliver to observers in a single batch. */
+    static final int BATCH_SIZE = 500;
+    /** The maximum time to hold entries back before delivering them, in milliseconds. */
+    static final long BATCH_INTERVAL = 250;
+
     /** List of registered listeners. */
     private final ListenerList listenerList = new ListenerList();
     /** The connection to request group information from. */
     private final Connection connection;
     /** The cached groups. */
-    private final ObservableList<GroupListEntry> groups = new ObservableListDecorator<>(
-            new LinkedList<>());
+    private final GroupListStore groups;
+    /** Entries received but not yet delivered to observers. Guarded by itself. */
+    private final List<GroupListEntry> pending = new ArrayList<>();
+    /** The time the last batch of entries was delivered. Guarded by {@link #pending}. */
+    private long lastBatch;
+    /** The scheduled delivery of the pending entries, if any. Guarded by {@link #pending}. */
+    @Nullable private ScheduledFuture<?> scheduledBatch;
+    /** Lock held while delivering to observers, so deliveries are never reordered. */
+    private final Object deliveryLock = new Object();
+    /** The executor used to deliver batches that fill up too slowly. */
+    private final ScheduledExecutorService executor;
+    /**
+     * Observable copy of the groups for legacy callers, created the first time it is requested.
+     * Guarded by {@link #deliveryLock}.
+     */
+    @Nullable private ObservableList<GroupListEntry> legacyGroups;
+
+    /**
+     * Creates a new group list manager that keeps all groups.
+     *
+     * @param connection   The connection to request group information from.
+     * @param timerService The service to schedule batch deliveries with.
+     */
+    public GroupListManager(final Connection connection, final TimerService timerService) {
+        this(connection, 0, timerService);
+    }
 
-    public GroupListManager(final Connection connection) {
+    /**
+     * Creates a new group list manager.
+     *
+     * @param connection   The connection to request group information from.
+     * @param limit        The maximum number of groups to keep, or zero to keep all groups. When
+     *                     the limit is reached, only the groups with the most users are kept.
+     * @param timerService The service to schedule batch deliveries with.
+     */
+    public GroupListManager(final Connection connection, final int limit,
+            final TimerService timerService) {
+        this(connection, limit, timerService.createGroup());
+    }
+
+    /**
+     * Creates a new group list manager.
+     *
+     * @param connection The connection to request group information from.
+     * @param limit      The maximum number of groups to keep, or zero to keep all groups.
+     * @param executor   The executor to deliver batches on when they aren't filled in time.
+     */
+    GroupListManager(final Connection connection, final int limit,
+            final ScheduledExecutorService executor) {
         this.connection = connection;
+        this.groups = new GroupListStore(limit);
+        this.executor = executor;
     }
 
-    public ObservableList<GroupListEntry> getGroups() {
+    /**
+     * Gets the store holding the groups found by the current search.
+     *
+     * @return The group store, which can be sorted, filtered and paged.
+     */
+    public GroupListStore getGroupStore() {
         return groups;
     }
 
+    /**
+     * Gets an observable list of the groups found by the current search.
+     *
+     * <p>The list is only maintained once it has been requested, starting with the groups already
+     * found, and is added to a batch at a time. If this manager has a limit, groups that the store
+     * later drops are not removed from the list.
+     *
+     * @return An observable list of groups.
+     * @deprecated Use {@link #getGroupStore()}, which holds groups compactly and supports paging,
+     * together with {@link GroupListObserver#onGroupListEntries(List)}.
+     */
+    @Deprecated
+    public ObservableList<GroupListEntry> getGroups() {
+        synchronized (deliveryLock) {
+            if (legacyGroups == null) {
+                legacyGroups = new ObservableListDecorator<>(new ArrayList<>(groups.getPage(
+                        GroupListStore.SortKey.NAME, true, "", 0, Integer.MAX_VALUE)));
+            }
+            return legacyGroups;
+        }
+    }
+
     /**
      * Starts a search with the given search terms.
      *
@@ -60,7 +152,15 @@ public class GroupListManager {
      * @see Parser#requestGroupList(String)
      */
     public void startSearch(final String searchTerm) {
-        groups.clear();
+        synchronized (deliveryLock) {
+            synchronized (pending) {
+                takePending();
+                groups.clear();
+            }
+            if (legacyGroups != null) {
+                legacyGroups.clear();
+            }
+        }
 
         connection.getParser().ifPresent(p -> {
             p.getCallbackManager().subscribe(this);
@@ -70,18 +170,76 @@ public class GroupListManager {
 
     @Handler
     public void onGroupListStart(final GroupListStartEvent event) {
-        listenerList.getCallable(GroupListObserver.class).onGroupListStarted();
+        synchronized (deliveryLock) {
+            synchronized (pending) {
+                lastBatch = System.currentTimeMillis();
+            }
+            listenerList.getCallable(GroupListObserver.class).onGroupListStarted();
+        }
     }
 
     @Handler
     public void onGroupListEntry(final GroupListEntryEvent event) {
-        groups.add(new GroupListEntry(event.getName(), event.getUsers(), event.getTopic()));
+        synchronized (pending) {
+            groups.add(event.getName(), event.getUsers(), event.getTopic());
+            pending.add(new GroupListEntry(event.getName(), event.getUsers(), event.getTopic()));
+
+            final long remaining = BATCH_INTERVAL - (System.currentTimeMillis() - lastBatch);
+            if (pending.size() < BATCH_SIZE && remaining > 0) {
+                if (scheduledBatch == null) {
+                    scheduledBatch = executor.schedule(this::deliverPending, remaining,
+                            TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        deliverPending();
     }
 
     @Handler
     public void onGroupListEnd(final GroupListEndEvent event) {
         event.getParser().getCallbackManager().unsubscribe(this);
-        listenerList.getCallable(GroupListObserver.class).onGroupListFinished();
+
+        synchronized (deliveryLock) {
+            deliverPending();
+            listenerList.getCallable(GroupListObserver.class).onGroupListFinished();
+        }
+    }
+
+    /**
+     * Delivers any pending entries to observers.
+     */
+    private void deliverPending() {
+        synchronized (deliveryLock) {
+            final List<GroupListEntry> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = takePending();
+            }
+            if (legacyGroups != null) {
+                legacyGroups.addAll(batch);
+            }
+            listenerList.getCallable(GroupListObserver.class).onGroupListEntries(batch);
+        }
+    }
+
+    /**
+     * Removes and returns all pending entries, cancelling any scheduled delivery. Must be called
+     * while holding the lock on {@link #pending}.
+     *
+     * @return The entries that were pending.
+     */
+    private List<GroupListEntry> takePending() {
+        final List<GroupListEntry> batch = Collections.unmodifiableList(new ArrayList<>(pending));
+        pending.clear();
+        lastBatch = System.currentTimeMillis();
+        if (scheduledBatch != null) {
+            scheduledBatch.cancel(false);
+            scheduledBatch = null;
+        }
+        return batch;
     }
 
     /**
@@ -17,6 +17,8 @@
 
 package com.dmdirc.lists;
 
+import java.util.List;
+
 /**
  * Interface for objects interested in events raised by a {@link GroupListManager}.
  */
@@ -27,6 +29,20 @@ public interface GroupListObserver {
      */
     void onGroupListStarted();
 
+    /**
+     * Called when a batch of list results has been received. Entries are reported in the order
+     * they were received, which may include entries that a bounded
+     * {@link GroupListManager#getGroupStore() store} has chosen not to keep.
+     *
+     * <p>Observers that only need to know when the list starts and finishes may ignore this, and
+     * read the results from the manager's store once the list is finished.
+     *
+     * @param entries The entries that have been received.
+     */
+    default void onGroupListEntries(final List<GroupListEntry> entries) {
+        // Do nothing by default.
+    }
+
     /**
      * Called when the end of list results has been received.
      */
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.lists;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact store of group list results.
+ *
+ * <p>Entries are held in parallel arrays rather than as individual objects, and
+ * {@link GroupListEntry} instances are only created for the entries that are requested. Sort
+ * indexes over the entries are built when first needed and discarded whenever the entries change.
+ *
+ * <p>A store may optionally be bounded, in which case it only keeps the entries with the most
+ * users.
+ */
+public class GroupListStore {
+
+    /** The keys that entries can be sorted on. */
+    public enum SortKey {
+        /** Sort by group name, ignoring case. */
+        NAME,
+        /** Sort by the number of users in the group. */
+        USERS,
+        /** Sort by topic, ignoring case. */
+        TOPIC
+    }
+
+    /** The initial capacity of an unbounded store. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The maximum number of entries to keep, or zero to keep all entries. */
+    private final int limit;
+    /** Sort indexes that have been built since the entries last changed. */
+    private final Map<SortKey, int[]> indexes = new EnumMap<>(SortKey.class);
+    /** The names of the groups. */
+    private String[] names;
+    /** The number of users in each group. */
+    private int[] users;
+    /** The topics of the groups. */
+    private String[] topics;
+    /** Slots ordered as a min-heap on user count, used when the store is bounded. */
+    private int[] heap;
+    /** The number of entries in the store. */
+    private int size;
+
+    /**
+     * Creates a new, unbounded, store.
+     */
+    public GroupListStore() {
+        this(0);
+    }
+
+    /**
+     * Creates a new store.
+     *
+     * @param limit The maximum number of entries to keep, or zero to keep all entries. When the
+     *              limit is reached, the entries with the fewest users are dropped.
+     */
+    public GroupListStore(final int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        clear();
+    }
+
+    /**
+     * Adds an entry to the store. If the store is bounded and full, the entry replaces the one
+     * with the fewest users, or is discarded if it has no more users than that entry.
+     *
+     * @param name      The name of the group.
+     * @param userCount The number of users in the group.
+     * @param topic     The topic of the group.
+     */
+    public synchronized void add(final String name, final int userCount, final String topic) {
+        if (limit > 0 && size == limit) {
+            if (userCount <= users[heap[0]]) {
+                return;
+            }
+            set(heap[0], name, userCount, topic);
+            siftDown(0);
+        } else {
+            if (size == names.length) {
+                final int capacity = names.length * 2;
+                names = Arrays.copyOf(names, capacity);
+                users = Arrays.copyOf(users, capacity);
+                topics = Arrays.copyOf(topics, capacity);
+            }
+            set(size, name, userCount, topic);
+            if (limit > 0) {
+                heap[size] = size;
+                siftUp(size);
+            }
+            size++;
+        }
+        indexes.clear();
+    }
+
+    /**
+     * Removes all entries from the store.
+     */
+    public synchronized void clear() {
+        final int capacity = limit > 0 ? limit : INITIAL_CAPACITY;
+        names = new String[capacity];
+        users = new int[capacity];
+        topics = new String[capacity];
+        heap = limit > 0 ? new int[limit] : null;
+        size = 0;
+        indexes.clear();
+    }
+
+    /**
+     * Gets the number of entries in the store.
+     *
+     * @return The number of entries.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Counts the entries matching the given filter.
+     *
+     * @param filter Text that must appear in the name or topic of matching entries, ignoring case.
+     *               An empty filter matches every entry.
+     * @return The number of matching entries.
+     */
+    public synchronized int count(final String filter) {
+        if (filter.isEmpty()) {
+            return size;
+        }
+
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (matches(slot, filter)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets a page of entries matching the given filter, in the given order.
+     *
+     * @param key       The key to sort entries on.
+     * @param ascending True to sort in ascending order, false for descending.
+     * @param filter    Text that must appear in the name or topic of matching entries, ignoring
+     *                  case. An empty filter matches every entry.
+     * @param offset    The number of matching entries to skip.
+     * @param count     The maximum number of entries to return.
+     * @return The requested entries.
+     */
+    public synchronized List<GroupListEntry> getPage(final SortKey key, final boolean ascending,
+            final String filter, final int offset, final int count) {
+        final int[] index = getIndex(key);
+        final List<GroupListEntry> page = new ArrayList<>(Math.min(count, size));
+        int skipped = 0;
+        for (int i = 0; i < size && page.size() < count; i++) {
+            final int slot = index[ascending ? i : size - 1 - i];
+            if (filter.isEmpty() || matches(slot, filter)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(new GroupListEntry(names[slot], users[slot], topics[slot]));
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Gets the sort index for the given key, building it if needed.
+     *
+     * @param key The key to sort on.
+     * @return An array of slots, in ascending order of the given key.
+     */
+    private int[] getIndex(final SortKey key) {
+        int[] index = indexes.get(key);
+        if (index == null) {
+            index = key == SortKey.USERS ? buildUserIndex()
+                    : buildTextIndex(key == SortKey.NAME ? names : topics);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * Builds an index of slots in ascending order of user count.
+     *
+     * @return The sorted slots.
+     */
+    private int[] buildUserIndex() {
+        // Pack the user count and slot into a single long so they can be sorted without boxing.
+        final long[] keys = new long[size];
+        for (int slot = 0; slot < size; slot++) {
+            keys[slot] = (long) users[slot] << 32 | slot;
+        }
+        Arrays.sort(keys);
+
+        final int[] index = new int[size];
+        for (int i = 0; i < size; i++) {
+            index[i] = (int) keys[i];
+        }
+        return index;
+    }
+
+    /**
+     * Builds an index of slots in ascending order of the given text, ignoring case.
+     *
+     * @param values The text to sort on.
+     * @return The sorted slots.
+     */
+    private int[] buildTextIndex(final String[] values) {
+        final Integer[] slots = new Integer[size];
+        for (int slot = 0; slot < size; slot++) {
+            slots[slot] = slot;
+        }
+        Arrays.sort(slots, Comparator.comparing((Integer slot) -> values[slot],
+                String.CASE_INSENSITIVE_ORDER));
+
+        final int[] index = new int[size];
+        for (int i = 0; i < size; i++) {
+            index[i] = slots[i];
+        }
+        return index;
+    }
+
+    /**
+     * Determines whether the entry in the given slot matches a filter.
+     *
+     * @param slot   The slot to check.
+     * @param filter The non-empty text to look for.
+     * @return True if the name or topic contains the filter, ignoring case.
+     */
+    private boolean matches(final int slot, final String filter) {
+        return containsIgnoreCase(names[slot], filter) || containsIgnoreCase(topics[slot], filter);
+    }
+
+    /**
+     * Determines whether one string contains another, ignoring case.
+     *
+     * @param haystack The string to search.
+     * @param needle   The string to search for.
+     * @return True if the haystack contains the needle, false otherwise.
+     */
+    private static boolean containsIgnoreCase(final String haystack, final String needle) {
+        for (int i = 0; i <= haystack.length() - needle.length(); i++) {
+            if (haystack.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void set(final int slot, final String name, final int userCount, final String topic) {
+        names[slot] = name;
+        users[slot] = userCount;
+        topics[slot] = topic == null ? "" : topic;
+    }
+
+    private void siftUp(final int position) {
+        int child = position;
+        while (child > 0) {
+            final int parent = (child - 1) / 2;
+            if (users[heap[parent]] <= users[heap[child]]) {
+                break;
+            }
+            swap(parent, child);
+            child = parent;
+        }
+    }
+
+    private void siftDown(final int position) {
+        int parent = position;
+        while (true) {
+            final int left = parent * 2 + 1;
+            final int right = left + 1;
+            int smallest = parent;
+            if (left < size && users[heap[left]] < users[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && users[heap[right]] < users[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == parent) {
+                break;
+            }
+            swap(parent, smallest);
+            parent = smallest;
+        }
+    }
+
+    private void swap(final int first, final int second) {
+        final int temp = heap[first];
+        heap[first] = heap[second];
+        heap[second] = temp;
+    }
+
+}
@@ -20,9 +20,9 @@ package com.dmdirc.plugins;
 import com.dmdirc.util.resourcemanager.ResourceManager;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nullable;
 
@@ -31,8 +31,17 @@ import javax.annotation.Nullable;
  */
 public final class GlobalClassLoader extends ClassLoader {
 
-    /** HashMap containing sources of Global class files. */
-    private final Map<String, String> resourcesList = new HashMap<>();
+    static {
+        registerAsParallelCapable();
+    }
+
+    /** Map containing sources of Global class files. */
+    private final Map<String, String> resourcesList = new ConcurrentHashMap<>();
+    /**
+     * Names of classes our parent is known not to have. The parent's classpath doesn't change, so
+     * these are remembered to avoid repeatedly throwing and catching exceptions for them.
+     */
+    private final Set<String> missingFromParent = ConcurrentHashMap.newKeySet();
     /** Plugin Manager that owns this GlobalClassLoader. */
     private final PluginManager manager;
 
@@ -68,28 +77,36 @@ public final class GlobalClassLoader extends ClassLoader {
      */
     public Class<?> loadClass(final String name, final PluginInfo pi) throws ClassNotFoundException {
 
-        pi.getPersistentClasses().stream()
-                .filter(classname -> !resourcesList.containsKey(classname))
-                .forEach(classname -> resourcesList.put(classname,
-                        pi.getMetaData().getPluginPath().toAbsolutePath().toString()));
+        final String jarname = pi.getMetaData().getPluginPath().toAbsolutePath().toString();
+        pi.getPersistentClasses().forEach(classname -> resourcesList.putIfAbsent(classname,
+                jarname));
         return loadClass(name);
     }
 
     @Override
     public Class<?> loadClass(final String name) throws ClassNotFoundException {
-        try {
-            return super.loadClass(name);
-        } catch (ClassNotFoundException e) {
-            final byte[] data = getClassData(name);
-            if (data != null) {
-                return defineClass(name, data);
+        if (missingFromParent.contains(name)) {
+            final Class<?> loadedClass = findLoadedClass(name);
+            if (loadedClass != null) {
+                return loadedClass;
             }
+        } else {
+            try {
+                return super.loadClass(name);
+            } catch (ClassNotFoundException e) {
+                missingFromParent.add(name);
+            }
+        }
+
+        final byte[] data = getClassData(name);
+        if (data != null) {
+            return defineClass(name, data);
         }
 
         // Check the other plugins.
+        final String fileName = name.replace('.', '/') + ".class";
         for (PluginInfo pi : manager.getPluginInfos()) {
-            final List<String> classList = pi.getClassList();
-            if (classList.contains(name) && pi.getPluginClassLoader() != null) {
+            if (pi.hasEntry(fileName) && pi.getPluginClassLoader() != null) {
                 return pi.getPluginClassLoader().loadClass(name, false);
             }
         }
@@ -103,10 +120,17 @@ public final class GlobalClassLoader extends ClassLoader {
      * @param classname Class name to define.
      * @param data      Data to define class with.
      *
-     * @return The resulting {@link Class} object
+     * @return The resulting {@link Class} object, or the existing one if the class has already
+     * been defined.
      */
     public Class<?> defineClass(final String classname, final byte... data) {
-        return defineClass(classname, data, 0, data.length);
+        synchronized (getClassLoadingLock(classname)) {
+            final Class<?> loadedClass = findLoadedClass(classname);
+            if (loadedClass != null) {
+                return loadedClass;
+            }
+            return defineClass(classname, data, 0, data.length);
+        }
     }
 
     /**
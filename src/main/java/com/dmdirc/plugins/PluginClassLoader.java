@@ -27,6 +27,10 @@ import java.util.Enumeration;
 
 public class PluginClassLoader extends ClassLoader {
 
+    static {
+        registerAsParallelCapable();
+    }
+
     /** The plugin Info object for the plugin we are loading. */
     private final PluginInfo pluginInfo;
     /** Global Class Loader */
@@ -87,23 +91,24 @@ public class PluginClassLoader extends ClassLoader {
     @Override
     public Class<?> loadClass(final String name, final boolean askGlobal) throws
             ClassNotFoundException {
-        Class<?> loadedClass = null;
+        final String fileName = name.replace('.', '/') + ".class";
         for (PluginClassLoader parent : parents) {
-            try {
-                loadedClass = parent.loadClass(name, false);
-                if (loadedClass != null) {
-                    return loadedClass;
+            // Only ask parents that are known to have the class, rather than throwing and
+            // catching an exception for every parent that doesn't.
+            if (parent.canLoad(fileName)) {
+                try {
+                    return parent.loadClass(name, false);
+                } catch (ClassNotFoundException cnfe) {
+                    // Parent couldn't load the class, carry on trying...
                 }
-            } catch (ClassNotFoundException cnfe) {
-                // Parent doesn't have the class, carry on trying...
             }
         }
 
-        final String fileName = name.replace('.', '/') + ".class";
+        final boolean persistent = pluginInfo.isPersistent(name);
+        final boolean exists = pluginInfo.hasEntry(fileName);
         try {
-            if (pluginInfo.isPersistent(name) || !Files.exists(
-                    pluginInfo.getPath(fileName))) {
-                if (!pluginInfo.isPersistent(name) && askGlobal) {
+            if (persistent || !exists) {
+                if (!persistent && askGlobal) {
                     return globalLoader.loadClass(name);
                 } else {
                     // Try to load class from previous load.
@@ -121,41 +126,66 @@ public class PluginClassLoader extends ClassLoader {
                     + pluginInfo.getMetaData().getName() + ") -> " + e.getMessage(), e);
         }
 
-        // Don't duplicate a class
-        if (isClassLoaded(name, false)) {
-            return findLoadedClass(name);
+        if (!exists) {
+            throw new ClassNotFoundException("Resource '" + name + "' (wanted by " + pluginInfo.
+                    getMetaData().getName() + ") does not exist.");
         }
 
-        // We are meant to be loading this one!
-        final byte[] data;
-        if (Files.exists(pluginInfo.getPath(fileName))) {
+        synchronized (getClassLoadingLock(name)) {
+            // Don't duplicate a class
+            if (isClassLoaded(name, false)) {
+                return findLoadedClass(name);
+            }
+
+            // We are meant to be loading this one!
+            final byte[] data;
             try {
                 data = Files.readAllBytes(pluginInfo.getPath(fileName));
             } catch (IOException ex) {
                 throw new ClassNotFoundException(ex.getMessage(), ex);
             }
-        } else {
-            throw new ClassNotFoundException("Resource '" + name + "' (wanted by " + pluginInfo.
-                    getMetaData().getName() + ") does not exist.");
-        }
 
-        try {
-            if (pluginInfo.isPersistent(name)) {
-                globalLoader.defineClass(name, data);
+            Class<?> loadedClass = null;
+            try {
+                if (persistent) {
+                    loadedClass = globalLoader.defineClass(name, data);
+                } else {
+                    loadedClass = defineClass(name, data, 0, data.length);
+                }
+            } catch (LinkageError e) {
+                throw new ClassNotFoundException(e.getMessage(), e);
+            }
+
+            if (loadedClass == null) {
+                throw new ClassNotFoundException("Could not load " + name);
             } else {
-                loadedClass = defineClass(name, data, 0, data.length);
+                resolveClass(loadedClass);
             }
-        } catch (LinkageError e) {
-            throw new ClassNotFoundException(e.getMessage(), e);
+
+            return loadedClass;
+        }
+    }
+
+    /**
+     * Determines whether this loader or any of its parents has the given class file in its
+     * plugin, using the plugins' in-memory indexes rather than the jar files themselves.
+     *
+     * @param fileName The name of the class file (e.g. {@code com/dmdirc/Foo.class}).
+     *
+     * @return True if the class file exists in this or a parent plugin, false otherwise.
+     */
+    private boolean canLoad(final String fileName) {
+        if (pluginInfo.hasEntry(fileName)) {
+            return true;
         }
 
-        if (loadedClass == null) {
-            throw new ClassNotFoundException("Could not load " + name);
-        } else {
-            resolveClass(loadedClass);
+        for (PluginClassLoader parent : parents) {
+            if (parent.canLoad(fileName)) {
+                return true;
+            }
         }
 
-        return loadedClass;
+        return false;
     }
 
     @Override
@@ -30,11 +30,14 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -54,11 +57,14 @@ public class PluginFileHandler {
     private final Path directory;
 
     private final Collection<PluginMetaData> knownPlugins = new CopyOnWriteArrayList<>();
+    /** Index of plugin config files, used to avoid opening plugins that haven't changed. */
+    private final PluginIndex index;
 
     @Inject
     public PluginFileHandler(
             @Directory(DirectoryType.PLUGINS) final Path directory) {
         this.directory = directory;
+        this.index = new PluginIndex(directory.resolve(PluginIndex.FILENAME));
     }
 
     /**
@@ -124,26 +130,37 @@ public class PluginFileHandler {
     }
 
     /**
-     * Finds all plugins on disk with loadable metadata.
+     * Finds all plugins on disk with loadable metadata. Metadata for each plugin is loaded in
+     * parallel.
      *
      * @param manager The plugin manager to pass to new metadata instances.
      * @return Collection of all plugins with loadable metadata.
      */
     private Set<PluginMetaData> findAllPlugins(final PluginManager manager) {
-        try {
-            return Files.walk(directory, FileVisitOption.FOLLOW_LINKS)
-                    .filter(p -> p.getFileName().toString().endsWith(".jar"))
+        final List<Path> paths;
+        try (Stream<Path> files = Files.walk(directory, FileVisitOption.FOLLOW_LINKS)) {
+            paths = files.filter(p -> p.getFileName().toString().endsWith(".jar"))
                     .map(Path::toAbsolutePath)
-                    .map(path -> getMetaData(path, manager))
-                    .collect(Collectors.toSet());
+                    .collect(Collectors.toList());
         } catch (IOException ex) {
             LOG.error(USER_ERROR, "Unable to read plugin directory.", ex);
             return Collections.emptySet();
         }
+
+        synchronized (index) {
+            index.read();
+            final Set<PluginMetaData> metadata = paths.parallelStream()
+                    .map(path -> getMetaData(path, manager))
+                    .collect(Collectors.toSet());
+            index.retain(paths);
+            index.write();
+            return metadata;
+        }
     }
 
     /**
-     * Attempts to get the metadata for a plugin at the specified path.
+     * Attempts to get the metadata for a plugin at the specified path. If the plugin is unchanged
+     * since it was last indexed, its metadata is read from the index instead of the plugin.
      *
      * @param path The path of the plugin to get metadata from.
      * @param manager The plugin manager to pass to new metadata instances.
@@ -151,7 +168,13 @@ public class PluginFileHandler {
      */
     private PluginMetaData getMetaData(final Path path, final PluginManager manager) {
         final PluginMetaData metaData = new PluginMetaData(manager, path);
-        metaData.load();
+        final Optional<byte[]> indexed = index.get(path);
+        if (indexed.isPresent()) {
+            metaData.load(indexed.get());
+        } else {
+            metaData.load();
+            metaData.getConfigData().ifPresent(data -> index.put(path, data));
+        }
         return metaData;
     }
 
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.plugins;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the config files of plugins on disk, so that plugins which haven't changed since they
+ * were last seen don't need to be opened to read their metadata.
+ *
+ * <p>Entries are keyed on the plugin's path, and are only used if the plugin's size and
+ * modification time still match the ones recorded when the entry was added.
+ */
+class PluginIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PluginIndex.class);
+    /** The name of the index file within the plugin directory. */
+    static final String FILENAME = "plugins.index";
+    /** The suffix added to the index's name while a new version is being written. */
+    static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    /** The file the index is stored in. */
+    private final Path file;
+    /** Known entries, keyed on plugin path. */
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    /** Whether the index has been read from disk. */
+    private boolean read;
+    /** Whether the index has changed since it was read. */
+    private volatile boolean dirty;
+
+    PluginIndex(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the index from disk, if it hasn't already been read. Unreadable indexes are ignored.
+     */
+    void read() {
+        if (read) {
+            return;
+        }
+
+        read = true;
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            final Properties properties = new Properties();
+            properties.load(reader);
+            properties.stringPropertyNames()
+                    .forEach(key -> entries.put(key, properties.getProperty(key)));
+        } catch (IOException | IllegalArgumentException ex) {
+            LOG.info("Unable to read plugin index; plugins will be rescanned", ex);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the cached config file for the given plugin, if it hasn't changed on disk.
+     *
+     * @param plugin The path of the plugin.
+     * @return The contents of the plugin's config file, or empty if unknown or out of date.
+     */
+    Optional<byte[]> get(final Path plugin) {
+        final String entry = entries.get(plugin.toString());
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        final String[] parts = entry.split(":", 2);
+        try {
+            if (parts.length == 2 && parts[0].equals(getStamp(plugin))) {
+                return Optional.of(Base64.getDecoder().decode(parts[1]));
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            LOG.debug("Ignoring index entry for plugin {}", plugin, ex);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Records the config file of the given plugin.
+     *
+     * @param plugin The path of the plugin.
+     * @param config The contents of the plugin's config file.
+     */
+    void put(final Path plugin, final byte[] config) {
+        try {
+            entries.put(plugin.toString(),
+                    getStamp(plugin) + ':' + Base64.getEncoder().encodeToString(config));
+            dirty = true;
+        } catch (IOException ex) {
+            LOG.debug("Unable to index plugin {}", plugin, ex);
+        }
+    }
+
+    /**
+     * Removes entries for any plugins not in the given collection.
+     *
+     * @param plugins The paths of all plugins that still exist.
+     */
+    void retain(final Collection<Path> plugins) {
+        final Collection<String> keys = plugins.stream().map(Path::toString)
+                .collect(Collectors.toSet());
+        if (entries.keySet().retainAll(keys)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the index to disk, if it has changed. The index is written to a separate file that
+     * then replaces the original, so an interrupted write never leaves a truncated index behind.
+     */
+    void write() {
+        if (!dirty) {
+            return;
+        }
+
+        final Properties properties = new Properties();
+        properties.putAll(entries);
+        final Path tempFile = file.resolveSibling(file.getFileName() + TEMP_FILE_SUFFIX);
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.ISO_8859_1)) {
+                properties.store(writer, "DMDirc plugin index. Safe to delete.");
+            }
+
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException ex) {
+            LOG.info("Unable to write plugin index", ex);
+        }
+    }
+
+    /**
+     * Gets a stamp identifying the current version of a plugin on disk.
+     *
+     * @param plugin The path of the plugin.
+     * @return A string containing the plugin's size and modification time.
+     * @throws IOException If the plugin's attributes couldn't be read.
+     */
+    private static String getStamp(final Path plugin) throws IOException {
+        final BasicFileAttributes attributes =
+                Files.readAttributes(plugin, BasicFileAttributes.class);
+        return attributes.size() + "-" + attributes.lastModifiedTime().toMillis();
+    }
+
+}
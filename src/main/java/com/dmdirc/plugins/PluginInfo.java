@@ -40,8 +40,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -73,8 +78,10 @@ public class PluginInfo implements ServiceProvider {
     private Plugin plugin;
     /** The classloader used for this Plugin. */
     private PluginClassLoader pluginClassLoader;
-    /** List of classes this plugin has. */
-    private final List<String> myClasses = new ArrayList<>();
+    /** Names of all files in this plugin's jar, built when first needed. */
+    @Nullable private Set<String> entries;
+    /** List of classes this plugin has, built when first needed. */
+    @Nullable private List<String> myClasses;
     /** Last Error Message. */
     private String lastError = "No Error";
     /** Are we trying to load? */
@@ -123,9 +130,8 @@ public class PluginInfo implements ServiceProvider {
             lastError = "Error loading filesystem: " + ex.getMessage();
             throw new PluginException("Plugin " + filename + " failed to load. " + lastError, ex);
         }
-        updateClassList();
-
-        if (!myClasses.contains(metadata.getMainClass())) {
+        if (metadata.getMainClass() == null
+                || !Files.exists(getClassFile(metadata.getMainClass()))) {
             lastError = "main class file (" + metadata.getMainClass() + ") not found in jar.";
             throw new PluginException("Plugin " + filename + " failed to load. " + lastError);
         }
@@ -155,27 +161,63 @@ public class PluginInfo implements ServiceProvider {
     }
 
     /**
-     * Updates the list of known classes within this plugin from the specified resource manager.
+     * Gets the path of the file inside this plugin's jar that defines the given class.
+     *
+     * @param classname The fully qualified name of the class.
+     * @return The path to the class file.
      */
-    private void updateClassList() throws PluginException {
-        myClasses.clear();
-        try {
-            Files.walkFileTree(pluginFilesystem.getPath("/"), new SimpleFileVisitor<Path>() {
-
-                @Override
-                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
-                    if (file.getFileName().toString().endsWith(".class")) {
-                        final String classname = file.toAbsolutePath().toString().replace('/',
-                                '.');
-                        myClasses.add(classname.substring(1, classname.length() - 6));
-                    }
-                    return FileVisitResult.CONTINUE;
-                }
-            });
-        } catch (IOException ex) {
-            lastError = "Error loading classes: " + ex.getMessage();
-            throw new PluginException("Plugin " + filename + " failed to load. " + lastError, ex);
+    private Path getClassFile(final String classname) {
+        return pluginFilesystem.getPath('/' + classname.replace('.', '/') + ".class");
+    }
+
+    /**
+     * Builds the set of files within this plugin by walking its jar.
+     *
+     * @return The names of all files in the plugin, relative to the root of the jar.
+     * @throws IOException If the jar could not be read.
+     */
+    private Set<String> buildEntries() throws IOException {
+        final Set<String> names = new HashSet<>();
+        Files.walkFileTree(pluginFilesystem.getPath("/"), new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                names.add(file.toAbsolutePath().toString().substring(1));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return names;
+    }
+
+    /**
+     * Gets the names of all files in this plugin's jar. The set is built the first time it is
+     * requested, and is used in place of querying the jar for each lookup.
+     *
+     * @return The names of all files in the plugin.
+     */
+    private synchronized Set<String> getEntries() {
+        if (entries == null) {
+            try {
+                entries = Collections.unmodifiableSet(buildEntries());
+            } catch (IOException ex) {
+                lastError = "Error loading classes: " + ex.getMessage();
+                LOG.warn(USER_ERROR, "Unable to list files in plugin {}", filename, ex);
+                entries = Collections.emptySet();
+            }
         }
+        return entries;
+    }
+
+    /**
+     * Determines whether this plugin's jar contains the given file.
+     *
+     * @param name The name of the file, relative to the root of the jar (e.g.
+     *             {@code com/dmdirc/Foo.class}).
+     *
+     * @return True if the file exists in the plugin, false otherwise.
+     */
+    public boolean hasEntry(final String name) {
+        return getEntries().contains(name);
     }
 
     /**
@@ -321,7 +363,10 @@ public class PluginInfo implements ServiceProvider {
      * files.
      */
     public void pluginUpdated() throws PluginException {
-        updateClassList();
+        synchronized (this) {
+            entries = null;
+            myClasses = null;
+        }
         updateMetaData();
         updateProvides();
         getDefaults();
@@ -707,12 +752,18 @@ public class PluginInfo implements ServiceProvider {
     }
 
     /**
-     * Get the list of Classes
+     * Get the list of Classes. The list is built the first time it is requested.
      *
      * @return Classes this plugin has
      */
-    public List<String> getClassList() {
-        return Collections.unmodifiableList(myClasses);
+    public synchronized List<String> getClassList() {
+        if (myClasses == null) {
+            myClasses = Collections.unmodifiableList(getEntries().stream()
+                    .filter(name -> name.endsWith(".class"))
+                    .map(name -> name.substring(0, name.length() - 6).replace('/', '.'))
+                    .collect(Collectors.toList()));
+        }
+        return myClasses;
     }
 
     /**
@@ -21,9 +21,11 @@ import com.dmdirc.updater.Version;
 import com.dmdirc.util.io.ConfigFile;
 import com.dmdirc.util.io.InvalidConfigFileException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -32,6 +34,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
 
 /**
  * Reads metadata for a plugin. Plugin metadata is defined in a DMDirc {@link ConfigFile} which is
@@ -105,6 +110,8 @@ public class PluginMetaData {
     private final Path pluginPath;
     /** The parent plugin manager. */
     private final PluginManager manager;
+    /** The contents of the config file the metadata was last loaded from, if any. */
+    @Nullable private byte[] configData;
 
     /**
      * Creates a new meta data reader for a config file at the specified URL.
@@ -118,12 +125,28 @@ public class PluginMetaData {
     }
 
     /**
-     * Loads plugin metadata from a config file.
+     * Loads plugin metadata from the config file inside the plugin.
      */
     public void load() {
-        errors.clear();
         try (FileSystem fs = FileSystems.newFileSystem(pluginPath, getClass().getClassLoader())) {
-            final ConfigFile configFile = new ConfigFile(fs.getPath("/META-INF/plugin.config"));
+            load(Files.readAllBytes(fs.getPath("/META-INF/plugin.config")));
+        } catch (IOException ex) {
+            configData = null;
+            errors.clear();
+            errors.add("Unable to read config file: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Loads plugin metadata from the contents of a config file previously read from the plugin.
+     *
+     * @param data The contents of the plugin's config file.
+     */
+    public void load(final byte[] data) {
+        configData = data.clone();
+        errors.clear();
+        try {
+            final ConfigFile configFile = new ConfigFile(new ByteArrayInputStream(data));
             configFile.read();
             readMetaData(configFile.getKeyDomain("metadata"));
             readVersion(configFile.getKeyDomain("version"));
@@ -359,6 +382,15 @@ public class PluginMetaData {
         return pluginPath;
     }
 
+    /**
+     * Retrieves the contents of the config file that the metadata was last loaded from.
+     *
+     * @return The raw config file, or empty if it could not be read.
+     */
+    public Optional<byte[]> getConfigData() {
+        return Optional.ofNullable(configData).map(byte[]::clone);
+    }
+
     /**
      * Retrieves a collection of errors that occurred while trying to read the metadata.
      *
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.input;
+
+import com.dmdirc.parser.interfaces.StringConverter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A prefix tree of tab completion entries.
+ *
+ * <p>Entries are keyed on their case-folded form, as determined by a {@link StringConverter}, so
+ * finding all entries with a given prefix only requires walking the characters of the prefix and
+ * then collecting the subtree below it. Entries may be added more than once, in which case they
+ * must be removed the same number of times before they stop being offered as completions.
+ *
+ * <p>This class is not thread safe.
+ */
+public class CompletionTrie implements CompletionDictionary {
+
+    /** The converter used to fold the case of entries and prefixes. */
+    private final StringConverter converter;
+    /** The root node, representing the empty prefix. */
+    private final Node root = new Node();
+    /** The number of entries in the trie, including duplicates. */
+    private int size;
+
+    /**
+     * Creates a new, empty, trie.
+     *
+     * @param converter The converter to use to fold the case of entries.
+     */
+    public CompletionTrie(final StringConverter converter) {
+        this.converter = converter;
+    }
+
+    /**
+     * Gets the converter used to fold the case of entries in this trie.
+     *
+     * @return This trie's string converter.
+     */
+    public StringConverter getConverter() {
+        return converter;
+    }
+
+    /**
+     * Adds an entry to the trie.
+     *
+     * @param entry The entry to be added.
+     */
+    public void add(final String entry) {
+        Node node = root;
+        for (char c : converter.toLowerCase(entry).toCharArray()) {
+            node = node.getOrAddChild(c);
+        }
+        node.addEntry(entry);
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of an entry from the trie.
+     *
+     * @param entry The entry to be removed.
+     *
+     * @return True if the entry was present, false otherwise.
+     */
+    public boolean remove(final String entry) {
+        if (remove(root, converter.toLowerCase(entry), 0, entry)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Recursively removes an entry, pruning any nodes that are left empty.
+     *
+     * @param node  The node currently being visited.
+     * @param key   The case-folded form of the entry.
+     * @param depth The depth of the current node.
+     * @param entry The entry to be removed.
+     *
+     * @return True if the entry was removed, false otherwise.
+     */
+    private boolean remove(final Node node, final String key, final int depth,
+            final String entry) {
+        if (depth == key.length()) {
+            return node.removeEntry(entry);
+        }
+
+        final Node child = node.getChild(key.charAt(depth));
+        if (child == null || !remove(child, key, depth + 1, entry)) {
+            return false;
+        }
+
+        if (child.isEmpty()) {
+            node.removeChild(key.charAt(depth));
+        }
+        return true;
+    }
+
+    /**
+     * Removes all entries from the trie.
+     */
+    public void clear() {
+        root.clear();
+        size = 0;
+    }
+
+    /**
+     * Gets the number of entries in the trie, including duplicates.
+     *
+     * @return The number of entries in the trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets every entry in the trie, including duplicates.
+     *
+     * @return A list of all entries.
+     */
+    public List<String> getEntries() {
+        final List<String> result = new ArrayList<>(size);
+        root.collect(result, false);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Results are ordered by their case-folded form, and then by the order in which they were
+     * added.
+     */
+    @Override
+    public List<String> getCompletions(final String partial) {
+        Node node = root;
+        for (char c : converter.toLowerCase(partial).toCharArray()) {
+            node = node.getChild(c);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+        }
+
+        final List<String> result = new ArrayList<>();
+        node.collect(result, true);
+        return result;
+    }
+
+    /**
+     * A single node in the trie. Children are kept in arrays sorted by character, which are far
+     * smaller than a map for the handful of children most nodes have.
+     */
+    private static class Node {
+
+        /** An empty array of children, shared by all leaf nodes. */
+        private static final Node[] NO_CHILDREN = new Node[0];
+        /** An empty array of characters, shared by all leaf nodes. */
+        private static final char[] NO_KEYS = new char[0];
+
+        /** The characters leading to each child, in ascending order. */
+        private char[] keys = NO_KEYS;
+        /** The children of this node, in the same order as {@link #keys}. */
+        private Node[] children = NO_CHILDREN;
+        /** The number of children this node has. */
+        private int childCount;
+        /** The entries that terminate at this node, or {@code null} if there are none. */
+        private List<String> entries;
+
+        Node getChild(final char key) {
+            final int index = Arrays.binarySearch(keys, 0, childCount, key);
+            return index < 0 ? null : children[index];
+        }
+
+        Node getOrAddChild(final char key) {
+            final int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            final int insertion = -index - 1;
+            if (childCount == keys.length) {
+                final int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertion, keys, insertion + 1, childCount - insertion);
+            System.arraycopy(children, insertion, children, insertion + 1,
+                    childCount - insertion);
+            keys[insertion] = key;
+            children[insertion] = new Node();
+            childCount++;
+            return children[insertion];
+        }
+
+        void removeChild(final char key) {
+            final int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if (index >= 0) {
+                System.arraycopy(keys, index + 1, keys, index, childCount - index - 1);
+                System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+                children[--childCount] = null;
+            }
+        }
+
+        void addEntry(final String entry) {
+            if (entries == null) {
+                entries = new ArrayList<>(1);
+            }
+            entries.add(entry);
+        }
+
+        boolean removeEntry(final String entry) {
+            if (entries == null || !entries.remove(entry)) {
+                return false;
+            }
+            if (entries.isEmpty()) {
+                entries = null;
+            }
+            return true;
+        }
+
+        boolean isEmpty() {
+            return entries == null && childCount == 0;
+        }
+
+        void clear() {
+            keys = NO_KEYS;
+            children = NO_CHILDREN;
+            childCount = 0;
+            entries = null;
+        }
+
+        /**
+         * Adds the entries of this node and all of its descendants to the given list.
+         *
+         * @param result   The list to add entries to.
+         * @param distinct Whether to skip entries that have been added more than once.
+         */
+        void collect(final List<String> result, final boolean distinct) {
+            if (entries != null) {
+                for (int i = 0; i < entries.size(); i++) {
+                    // Identical entries always share a node, so only this node needs checking.
+                    if (!distinct || entries.indexOf(entries.get(i)) == i) {
+                        result.add(entries.get(i));
+                    }
+                }
+            }
+            for (int i = 0; i < childCount; i++) {
+                children[i].collect(result, distinct);
+            }
+        }
+
+    }
+
+}
@@ -36,17 +36,15 @@ import com.dmdirc.plugins.ServiceManager;
 import com.dmdirc.ui.input.tabstyles.TabCompletionResult;
 import com.dmdirc.ui.input.tabstyles.TabCompletionStyle;
 import com.dmdirc.ui.messages.IRCControlCodes;
+import com.dmdirc.util.TimerService;
 import com.dmdirc.util.collections.ListenerList;
 import com.dmdirc.util.collections.RollingList;
 import com.dmdirc.util.validators.ValidationResponse;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -115,7 +113,7 @@ public abstract class InputHandler implements ConfigChangeListener {
     private final CommandController commandController;
     /** The event bus to use to dispatch input events. */
     private final EventBus eventBus;
-    /** Executor service. */
+    /** Executor service used for the composition timer. */
     private final ScheduledExecutorService executorService;
 
     /**
@@ -127,6 +125,7 @@ public abstract class InputHandler implements ConfigChangeListener {
      * @param commandParser     The command parser to use for this text field.
      * @param parentWindow      The window that owns this input handler
      * @param eventBus          The event bus to use to dispatch input events.
+     * @param timerService      The service to use to schedule the composition timer.
      */
     public InputHandler(
             final ServiceManager serviceManager,
@@ -135,7 +134,8 @@ public abstract class InputHandler implements ConfigChangeListener {
             final CommandParser commandParser,
             final WindowModel parentWindow,
             final TabCompleterUtils tabCompleterUtils,
-            final EventBus eventBus) {
+            final EventBus eventBus,
+            final TimerService timerService) {
         buffer = new RollingList<>(parentWindow.getConfigManager()
                 .getOptionInt("ui", "inputbuffersize"), "");
 
@@ -146,8 +146,7 @@ public abstract class InputHandler implements ConfigChangeListener {
         this.parentWindow = parentWindow;
         this.tabCompleterUtils = tabCompleterUtils;
         this.eventBus = eventBus;
-        executorService = Executors.newSingleThreadScheduledExecutor(
-                new ThreadFactoryBuilder().setNameFormat("Composition state timer-%d").build());
+        executorService = timerService.createGroup();
 
         setStyle();
 
@@ -302,7 +301,7 @@ public abstract class InputHandler implements ConfigChangeListener {
     private void cancelTypingNotification() {
         if (compositionTimer != null) {
             LOG.debug("Cancelling composition timer");
-            compositionTimer.cancel(true);
+            compositionTimer.cancel(false);
         }
 
         LOG.debug("Cancelling typing notification");
@@ -313,7 +312,7 @@ public abstract class InputHandler implements ConfigChangeListener {
     private void updateTypingNotification() {
         if (compositionTimer != null) {
             LOG.debug("Cancelling composition timer");
-            compositionTimer.cancel(true);
+            compositionTimer.cancel(false);
         }
 
         compositionTimer = executorService.schedule(this::timeoutTypingNotification,
@@ -20,6 +20,11 @@ package com.dmdirc.ui.input;
 import com.dmdirc.commandparser.CommandType;
 import com.dmdirc.interfaces.CommandController;
 import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.parser.interfaces.Parser;
+import com.dmdirc.parser.interfaces.StringConverter;
+
+import java.util.function.Supplier;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -57,7 +62,7 @@ public class TabCompleterFactory {
     public TabCompleter getTabCompleter(
             final AggregateConfigProvider configProvider,
             final CommandType... commandTypes) {
-        final TabCompleter tabCompleter = new TabCompleterImpl(configProvider);
+        final TabCompleterImpl tabCompleter = new TabCompleterImpl(configProvider);
         addCommands(tabCompleter, commandTypes);
         return tabCompleter;
     }
@@ -76,21 +81,77 @@ public class TabCompleterFactory {
             final TabCompleter parent,
             final AggregateConfigProvider configProvider,
             final CommandType... commandTypes) {
-        final TabCompleter tabCompleter = new TabCompleterImpl(configProvider, parent);
+        final TabCompleterImpl tabCompleter = new TabCompleterImpl(configProvider, parent);
+        addCommands(tabCompleter, commandTypes);
+        return tabCompleter;
+    }
+
+    /**
+     * Gets a new root tab completer for a connection, with the specified command types added as
+     * completion targets. Entries are compared using the connection's case mapping.
+     *
+     * @param connection     The connection the completer belongs to.
+     * @param configProvider The configuration provider to use for completion settings.
+     * @param commandTypes   The types of command to be added
+     *
+     * @return A new tab completer with the appropriate configuration.
+     */
+    public TabCompleter getTabCompleter(
+            final Connection connection,
+            final AggregateConfigProvider configProvider,
+            final CommandType... commandTypes) {
+        final TabCompleterImpl tabCompleter = new TabCompleterImpl(configProvider, null,
+                getConverter(connection));
+        addCommands(tabCompleter, commandTypes);
+        return tabCompleter;
+    }
+
+    /**
+     * Gets a new child tab completer for a connection, with the specified additional command types
+     * added as completion targets. Entries are compared using the connection's case mapping.
+     *
+     * @param connection     The connection the completer belongs to.
+     * @param parent         The parent tab completer to inherit completions from.
+     * @param configProvider The configuration provider to use for completion settings.
+     * @param commandTypes   The types of command to be added
+     *
+     * @return A new tab completer with the appropriate configuration.
+     */
+    public TabCompleter getTabCompleter(
+            final Connection connection,
+            final TabCompleter parent,
+            final AggregateConfigProvider configProvider,
+            final CommandType... commandTypes) {
+        final TabCompleterImpl tabCompleter = new TabCompleterImpl(configProvider, parent,
+                getConverter(connection));
         addCommands(tabCompleter, commandTypes);
         return tabCompleter;
     }
 
     /**
-     * Adds all commands of the specified type to the given completer.
+     * Gets a supplier of the string converter currently used by a connection's parser.
+     *
+     * @param connection The connection to get the converter for.
+     *
+     * @return A supplier of the connection's converter, or the default converter if the
+     * connection has no parser.
+     */
+    private static Supplier<StringConverter> getConverter(final Connection connection) {
+        return () -> connection.getParser().map(Parser::getStringConverter)
+                .orElse(TabCompleterImpl.DEFAULT_CONVERTER);
+    }
+
+    /**
+     * Adds the shared dictionaries of all commands of the specified type to the given completer.
      *
      * @param tabCompleter The completer to add commands to.
      * @param commandTypes The types of command that should be added to the completer.
      */
-    private void addCommands(final TabCompleter tabCompleter, final CommandType... commandTypes) {
+    private void addCommands(final TabCompleterImpl tabCompleter,
+            final CommandType... commandTypes) {
         for (CommandType commandType : commandTypes) {
-            tabCompleter.addEntries(TabCompletionType.COMMAND,
-                    commandController.get().getCommandNames(commandType));
+            tabCompleter.addDictionary(TabCompletionType.COMMAND,
+                    () -> commandController.get().getCommandCompletions(commandType));
         }
     }
 
@@ -18,18 +18,34 @@
 package com.dmdirc.ui.input;
 
 import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.parser.common.DefaultStringConverter;
+import com.dmdirc.parser.interfaces.StringConverter;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * The tab completer handles a user's request to tab complete some word.
+ *
+ * <p>Entries are stored in a {@link CompletionTrie} for each type of completion, so completing a
+ * word only examines entries that share its prefix. Entries that are common to many completers,
+ * such as command names, can be referenced as a shared {@link CompletionDictionary} instead of
+ * being copied into each completer.
  */
 public class TabCompleterImpl implements TabCompleter {
 
+    /** The converter used when no other converter is supplied. */
+    static final StringConverter DEFAULT_CONVERTER = new DefaultStringConverter();
+
     /**
      * The parent TabCompleter. Results from parents are merged with results from this completer.
      */
@@ -37,8 +53,16 @@ public class TabCompleterImpl implements TabCompleter {
     private final TabCompleter parent;
     /** The config manager to use for reading settings. */
     private final AggregateConfigProvider configManager;
+    /** Supplier of the converter used to fold the case of entries. */
+    private final Supplier<StringConverter> converterSupplier;
     /** The entries in this completer. */
-    private final Multimap<TabCompletionType, String> entries = ArrayListMultimap.create();
+    private final Map<TabCompletionType, CompletionTrie> entries =
+            new EnumMap<>(TabCompletionType.class);
+    /** The shared dictionaries consulted by this completer. */
+    private final Multimap<TabCompletionType, Supplier<CompletionDictionary>> dictionaries =
+            ArrayListMultimap.create();
+    /** The converter the entries are currently folded with. */
+    private StringConverter converter;
 
     /**
      * Creates a new instance of {@link TabCompleterImpl}.
@@ -46,8 +70,7 @@ public class TabCompleterImpl implements TabCompleter {
      * @param configManager     The manager to read config settings from.
      */
     public TabCompleterImpl(final AggregateConfigProvider configManager) {
-        this.parent = null;
-        this.configManager = configManager;
+        this(configManager, null);
     }
 
     /**
@@ -59,82 +82,184 @@ public class TabCompleterImpl implements TabCompleter {
     public TabCompleterImpl(
             final AggregateConfigProvider configManager,
             @Nullable final TabCompleter parent) {
+        this(configManager, parent, () -> DEFAULT_CONVERTER);
+    }
+
+    /**
+     * Creates a new instance of {@link TabCompleterImpl}.
+     *
+     * @param configManager     The manager to read config settings from.
+     * @param parent            The parent tab completer to inherit completions from.
+     * @param converter         Supplier of the converter to use to fold the case of entries. If
+     *                          the supplied converter changes, entries are re-indexed.
+     */
+    public TabCompleterImpl(
+            final AggregateConfigProvider configManager,
+            @Nullable final TabCompleter parent,
+            final Supplier<StringConverter> converter) {
         this.parent = parent;
         this.configManager = configManager;
+        this.converterSupplier = converter;
+        this.converter = converter.get();
     }
 
     @Override
     public List<String> complete(final String partial, @Nullable final AdditionalTabTargets additionals) {
-        final List<String> result = new ArrayList<>();
-
         final boolean caseSensitive = configManager.getOptionBool("tabcompletion", "casesensitive");
         final boolean allowEmpty = configManager.getOptionBool("tabcompletion", "allowempty");
 
         if (partial.isEmpty() && !allowEmpty) {
-            return result;
+            return new ArrayList<>();
         }
 
-        final Multimap<TabCompletionType, String> targets = ArrayListMultimap.create(entries);
-        if (additionals != null) {
-            targets.putAll(TabCompletionType.ADDITIONAL, additionals);
-        }
+        final Set<String> result = new LinkedHashSet<>();
+
+        synchronized (this) {
+            updateConverter();
+            for (TabCompletionType type : TabCompletionType.values()) {
+                // Skip types that aren't allowed by the additional argument (if present)
+                if (additionals != null && !additionals.shouldInclude(type)) {
+                    continue;
+                }
 
-        targets.keys().stream()
-                // Filter out keys that aren't allowed by the additional argument (if present)
-                .filter(k -> additionals == null || additionals.shouldInclude(k))
-                // Select all values for the valid keys
-                .flatMap(k -> targets.get(k).stream())
-                // Filter out values that don't case sensitively match, if case sensitivity is on
-                .filter(v -> !caseSensitive || v.startsWith(partial))
-                // Filter out values that don't case INsensitively match, if case sensitivity is off
-                .filter(v -> caseSensitive || v.toLowerCase().startsWith(partial.toLowerCase()))
-                // Filter out duplicates
-                .distinct()
-                // Add them all to the result
-                .forEach(result::add);
+                if (entries.containsKey(type)) {
+                    addMatches(result, entries.get(type).getCompletions(partial), partial,
+                            caseSensitive);
+                }
+
+                for (Supplier<CompletionDictionary> dictionary : dictionaries.get(type)) {
+                    addMatches(result, dictionary.get().getCompletions(partial), partial,
+                            caseSensitive);
+                }
+
+                if (type == TabCompletionType.ADDITIONAL && additionals != null) {
+                    final String folded = converter.toLowerCase(partial);
+                    additionals.stream()
+                            .filter(v -> converter.toLowerCase(v).startsWith(folded))
+                            .forEach(v -> addMatches(result, v, partial, caseSensitive));
+                }
+            }
+        }
 
         if (parent != null) {
             if (additionals != null) {
                 additionals.clear();
             }
 
-            parent.complete(partial, additionals).stream()
-                    .filter(match -> !result.contains(match))
-                    .forEach(result::add);
+            result.addAll(parent.complete(partial, additionals));
         }
 
-        return result;
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Adds case-insensitive matches to the result, filtering out any that don't case sensitively
+     * match if case sensitivity is on.
+     *
+     * @param result        The set of results to add to.
+     * @param matches       The case-insensitive matches to add.
+     * @param partial       The string being completed.
+     * @param caseSensitive Whether matches must start with exactly the given partial string.
+     */
+    private static void addMatches(final Collection<String> result,
+            final Iterable<String> matches, final String partial, final boolean caseSensitive) {
+        for (String match : matches) {
+            addMatches(result, match, partial, caseSensitive);
+        }
+    }
+
+    /**
+     * Adds a case-insensitive match to the result, unless it doesn't case sensitively match and
+     * case sensitivity is on.
+     *
+     * @param result        The set of results to add to.
+     * @param match         The case-insensitive match to add.
+     * @param partial       The string being completed.
+     * @param caseSensitive Whether matches must start with exactly the given partial string.
+     */
+    private static void addMatches(final Collection<String> result, final String match,
+            final String partial, final boolean caseSensitive) {
+        if (!caseSensitive || match.startsWith(partial)) {
+            result.add(match);
+        }
+    }
+
+    /**
+     * Checks whether the converter has changed since entries were last indexed, and re-indexes
+     * them if so. This typically happens once, when a connection learns the server's case
+     * mapping.
+     */
+    private void updateConverter() {
+        final StringConverter current = converterSupplier.get();
+        if (current != converter) {
+            converter = current;
+            entries.replaceAll((type, trie) -> {
+                final CompletionTrie replacement = new CompletionTrie(current);
+                trie.getEntries().forEach(replacement::add);
+                return replacement;
+            });
+        }
+    }
+
+    /**
+     * Gets the trie holding entries of the given type, creating it if needed.
+     *
+     * @param type The type of entry to be stored.
+     *
+     * @return The trie for that type of entry.
+     */
+    private CompletionTrie getEntries(final TabCompletionType type) {
+        updateConverter();
+        return entries.computeIfAbsent(type, t -> new CompletionTrie(converter));
+    }
+
+    /**
+     * Adds a shared dictionary of entries to this completer. The supplier is called each time a
+     * completion is requested, so the dictionary it returns may be replaced at any time.
+     *
+     * @param type       The type of the entries in the dictionary
+     * @param dictionary Supplier of the dictionary to consult
+     */
+    public synchronized void addDictionary(final TabCompletionType type,
+            final Supplier<CompletionDictionary> dictionary) {
+        dictionaries.put(type, dictionary);
     }
 
     @Override
-    public void addEntry(final TabCompletionType type, final String entry) {
-        entries.put(type, entry);
+    public synchronized void addEntry(final TabCompletionType type, final String entry) {
+        getEntries(type).add(entry);
     }
 
     @Override
-    public void addEntries(final TabCompletionType type, final Iterable<String> newEntries) {
+    public synchronized void addEntries(final TabCompletionType type,
+            final Iterable<String> newEntries) {
         if (newEntries == null) {
             return;
         }
 
+        final CompletionTrie trie = getEntries(type);
         for (String entry : newEntries) {
-            addEntry(type, entry);
+            trie.add(entry);
         }
     }
 
     @Override
-    public void removeEntry(final TabCompletionType type, final String entry) {
-        entries.remove(type, entry);
+    public synchronized void removeEntry(final TabCompletionType type, final String entry) {
+        if (entries.containsKey(type)) {
+            entries.get(type).remove(entry);
+        }
     }
 
     @Override
-    public void clear() {
+    public synchronized void clear() {
         entries.clear();
+        dictionaries.clear();
     }
 
     @Override
-    public void clear(final TabCompletionType type) {
-        entries.removeAll(type);
+    public synchronized void clear(final TabCompletionType type) {
+        entries.remove(type);
+        dictionaries.removeAll(type);
     }
 
 }
@@ -17,8 +17,12 @@
 
 package com.dmdirc.ui.messages;
 
+import com.dmdirc.events.eventbus.EventBus;
 import com.dmdirc.interfaces.WindowModel;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -30,6 +34,8 @@ public class BackBufferFactory {
 
     private final ColourManagerFactory colourManagerFactory;
     private final EventFormatter formatter;
+    /** Routers for each event bus that back buffers have been created on. */
+    private final Map<EventBus, DisplayableEventRouter> routers = new ConcurrentHashMap<>();
 
     @Inject
     public BackBufferFactory(
@@ -40,7 +46,23 @@ public class BackBufferFactory {
     }
 
     public BackBufferImpl getBackBuffer(final WindowModel owner) {
-        return new BackBufferImpl(owner, colourManagerFactory, formatter);
+        return new BackBufferImpl(owner, colourManagerFactory, formatter,
+                getRouter(owner.getEventBus()));
+    }
+
+    /**
+     * Gets the router responsible for delivering events from the given bus, creating and
+     * subscribing a new one if required.
+     *
+     * @param eventBus The bus events will be published on.
+     * @return The router for the bus.
+     */
+    private DisplayableEventRouter getRouter(final EventBus eventBus) {
+        return routers.computeIfAbsent(eventBus, bus -> {
+            final DisplayableEventRouter router = new DisplayableEventRouter(formatter);
+            bus.subscribe(router);
+            return router;
+        });
     }
 
 }
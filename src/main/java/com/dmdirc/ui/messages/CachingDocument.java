@@ -18,28 +18,56 @@
 package com.dmdirc.ui.messages;
 
 import com.dmdirc.events.DisplayProperty;
-import com.dmdirc.util.collections.RollingList;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 /**
- * Wraps an {@link IRCDocument} and caches recent lines.
+ * Wraps an {@link IRCDocument} and caches recently styled lines.
+ *
+ * <p>Lines are cached by identity and evicted in least-recently-used order, so scrolling back and
+ * forth over the same region does not re-style it. Lines trimmed from the document are dropped
+ * from the cache once nothing else refers to them; clearing or repainting the document discards
+ * all cached lines.
+ *
+ * <p>The document only holds a weak reference back to this cache, so an abandoned cache does not
+ * stay registered with a long-lived document. {@link #dispose()} may still be called to stop
+ * listening straight away.
  */
-public class CachingDocument<T> {
+public class CachingDocument<T> implements DocumentListener {
+
+    /** The number of styled lines cached by default. */
+    public static final int DEFAULT_CAPACITY = 50;
 
     /** The document to wrap and cache data from. */
     private final Document document;
     /** The maker to use to produce styled lines. */
     private final StyledMessageMaker<T> maker;
-    /** Cached lines. */
-    private final RollingList<Line> cachedLines;
-    /** Cached attributed strings. */
-    private final RollingList<T> cachedStrings;
+    /** Cached styled lines, keyed on the line they were produced from. */
+    private final Cache<Line, T> cache;
+    /** The listener registered with the document on our behalf. */
+    private final DocumentListener listener;
 
     public CachingDocument(final Document document, final StyledMessageMaker<T> maker) {
+        this(document, maker, DEFAULT_CAPACITY);
+    }
+
+    public CachingDocument(final Document document, final StyledMessageMaker<T> maker,
+            final int capacity) {
         this.document = document;
         this.maker = maker;
 
-        cachedLines = new RollingList<>(50);
-        cachedStrings = new RollingList<>(50);
+        // A single segment makes eviction strictly least-recently-used; weak keys compare lines
+        // by identity and release lines once they are trimmed from the document.
+        cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumSize(capacity)
+                .weakKeys()
+                .recordStats()
+                .build();
+        listener = new WeakDocumentListener(document, this);
+        document.addIRCDocumentListener(listener);
     }
 
     /**
@@ -51,12 +79,7 @@ public class CachingDocument<T> {
      * @return Styled line
      */
     protected T getStyledLine(final Line line) {
-        T styledLine = null;
-
-        if (cachedLines.contains(line)) {
-            final int index = cachedLines.getList().indexOf(line);
-            styledLine = cachedStrings.get(index);
-        }
+        T styledLine = cache.getIfPresent(line);
 
         if (styledLine == null) {
             line.getDisplayableProperty(DisplayProperty.FOREGROUND_COLOUR)
@@ -65,8 +88,7 @@ public class CachingDocument<T> {
                     .ifPresent(maker::setDefaultBackground);
 
             styledLine = line.getStyled(maker);
-            cachedLines.add(line);
-            cachedStrings.add(styledLine);
+            cache.put(line, styledLine);
         }
 
         return styledLine;
@@ -92,4 +114,42 @@ public class CachingDocument<T> {
         return document.getLine(line);
     }
 
+    /**
+     * Gets statistics about the cache's performance, such as the number of hits and misses.
+     *
+     * @return A snapshot of the cache's statistics.
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Stops listening to the wrapped document. The cache will no longer be invalidated when the
+     * document is cleared or repainted, so should not be used after this method is called.
+     */
+    public void dispose() {
+        document.removeIRCDocumentListener(listener);
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void linesAdded(final int line, final int length, final int size) {
+        // New lines have not been styled yet, so there is nothing to invalidate.
+    }
+
+    @Override
+    public void trimmed(final int newSize, final int numTrimmed) {
+        cache.cleanUp();
+    }
+
+    @Override
+    public void cleared() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void repaintNeeded() {
+        cache.invalidateAll();
+    }
+
 }
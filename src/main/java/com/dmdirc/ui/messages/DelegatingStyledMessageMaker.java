@@ -52,6 +52,11 @@ public abstract class DelegatingStyledMessageMaker<S, T> implements StyledMessag
         delegatedMaker.appendString(text);
     }
 
+    @Override
+    public void appendString(final String text, final int start, final int end) {
+        delegatedMaker.appendString(text, start, end);
+    }
+
     @Override
     public void toggleBold() {
         delegatedMaker.toggleBold();
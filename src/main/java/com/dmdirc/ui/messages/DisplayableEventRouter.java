@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.dmdirc.events.DisplayLocation;
+import com.dmdirc.events.DisplayProperty;
+import com.dmdirc.events.DisplayableEvent;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.interfaces.WindowModel;
+import com.dmdirc.util.EventUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.engio.mbassy.listener.Handler;
+
+/**
+ * Routes {@link DisplayableEvent}s from a single event bus to the {@link BackBufferImpl}s that
+ * should display them.
+ *
+ * <p>Rather than every back buffer subscribing to the bus and rejecting the vast majority of
+ * events, the router subscribes once and looks up interested buffers directly. Events displayed
+ * at their {@link DisplayLocation#SOURCE} go straight to the source window's buffer, events for
+ * {@link DisplayLocation#SAME_CONNECTION} go to the buffers sharing the source's connection, and
+ * only custom display locations fall back to testing every registered buffer.
+ */
+public class DisplayableEventRouter {
+
+    /** Buffers keyed on the window that owns them. */
+    private final Map<WindowModel, BackBufferImpl> buffersByOwner = new ConcurrentHashMap<>();
+    /** Buffers keyed on the connection of the window that owns them. */
+    private final Map<Connection, Set<BackBufferImpl>> buffersByConnection =
+            new ConcurrentHashMap<>();
+    /** The formatter used to look up each event's display location. */
+    private final EventFormatter formatter;
+
+    public DisplayableEventRouter(final EventFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * Registers a buffer to receive events destined for its owner.
+     *
+     * @param buffer The buffer to register.
+     */
+    public void register(final BackBufferImpl buffer) {
+        buffersByOwner.put(buffer.getOwner(), buffer);
+        buffer.getOwner().getConnection().ifPresent(c -> buffersByConnection
+                .computeIfAbsent(c, k -> ConcurrentHashMap.newKeySet()).add(buffer));
+    }
+
+    /**
+     * Unregisters a previously registered buffer. Unknown buffers are ignored.
+     *
+     * @param buffer The buffer to unregister.
+     */
+    public void unregister(final BackBufferImpl buffer) {
+        buffersByOwner.remove(buffer.getOwner(), buffer);
+        buffer.getOwner().getConnection().ifPresent(c -> buffersByConnection
+                .computeIfPresent(c, (k, v) -> v.remove(buffer) && v.isEmpty() ? null : v));
+    }
+
+    /**
+     * Handles a displayable event received on the event bus.
+     *
+     * @param event The event to be displayed.
+     */
+    @Handler(priority = EventUtils.PRIORITY_DISPLAYABLE_EVENT_HANDLER)
+    public void handleDisplayableEvent(final DisplayableEvent event) {
+        if (event.hasDisplayProperty(DisplayProperty.DO_NOT_DISPLAY)) {
+            return;
+        }
+
+        final DisplayLocation location = getDisplayLocation(event);
+        for (BackBufferImpl buffer : getCandidates(location, event)) {
+            if (location.shouldDisplay(buffer.getOwner(), event)) {
+                buffer.addEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Gets the buffers that could possibly display an event at the given location.
+     *
+     * @param location The location the event will be displayed in.
+     * @param event The event being displayed.
+     * @return A collection of buffers to test the event against.
+     */
+    private Collection<BackBufferImpl> getCandidates(final DisplayLocation location,
+            final DisplayableEvent event) {
+        if (location == DisplayLocation.SOURCE) {
+            final BackBufferImpl buffer = buffersByOwner.get(event.getSource());
+            return buffer == null ? Collections.emptySet() : Collections.singleton(buffer);
+        }
+
+        if (location == DisplayLocation.SAME_CONNECTION) {
+            final Optional<Connection> connection = event.getSource().getConnection();
+            final Set<BackBufferImpl> buffers =
+                    connection.map(buffersByConnection::get).orElse(null);
+            return buffers == null ? Collections.emptySet() : buffers;
+        }
+
+        return buffersByOwner.values();
+    }
+
+    /**
+     * Determines the location an event should be displayed in, based on its format.
+     *
+     * @param event The event to check
+     * @return The display location of the event.
+     */
+    private DisplayLocation getDisplayLocation(final DisplayableEvent event) {
+        return formatter.getEventFormatProvider().getFormat(event.getClass())
+                .flatMap(f -> f.getDisplayProperties().get(DisplayProperty.DISPLAY_LOCATION))
+                .orElse(DisplayLocation.SOURCE);
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Provides plain-text searches over the lines of a {@link Document}.
+ *
+ * <p>Producing a line's plain text means formatting its timestamp and stripping its control
+ * codes, which is far more expensive than matching against it. Lines are read from the document
+ * as they are searched, and the text of recently searched lines is cached so repeated searches
+ * over the same region don't strip them again. The cache is keyed on line identity, so trimmed
+ * lines drop out of it once they are collected; clearing or repainting the document discards it.
+ *
+ * <p>This is not an index: each search scans the lines it covers. Searches follow the document
+ * as it is trimmed, so every line that remains is searched exactly once.
+ */
+public class DocumentSearcher implements DocumentListener {
+
+    /** The number of lines whose text is cached by default. */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /** The document being searched. */
+    private final Document document;
+    /** Plain text of recently searched lines. */
+    private final Cache<Line, String> texts;
+    /** The listener registered with the document on our behalf. */
+    private final DocumentListener listener;
+
+    /**
+     * Creates a new searcher for the given document.
+     *
+     * @param document The document to search.
+     */
+    public DocumentSearcher(final Document document) {
+        this(document, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new searcher for the given document.
+     *
+     * @param document The document to search.
+     * @param capacity The maximum number of lines whose text will be cached.
+     */
+    public DocumentSearcher(final Document document, final int capacity) {
+        this.document = document;
+        texts = CacheBuilder.newBuilder().maximumSize(capacity).weakKeys().build();
+        listener = new WeakDocumentListener(document, this);
+        document.addIRCDocumentListener(listener);
+    }
+
+    /**
+     * Gets the document being searched.
+     *
+     * @return The searched document.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Gets the number of lines in the document.
+     *
+     * @return The number of lines that can be searched.
+     */
+    public int getNumLines() {
+        return document.getNumLines();
+    }
+
+    /**
+     * Gets the plain text of the given line.
+     *
+     * @param line The index of the line to retrieve.
+     * @return The line's text, without any control codes.
+     * @throws IndexOutOfBoundsException If the line is not in the document.
+     */
+    public String getText(final int line) {
+        return getText(document.getLine(line));
+    }
+
+    /**
+     * Gets the plain text of the given line, from the cache if possible.
+     *
+     * @param line The line to retrieve the text of.
+     * @return The line's text, without any control codes.
+     */
+    private String getText(final Line line) {
+        String text = texts.getIfPresent(line);
+        if (text == null) {
+            text = line.getText();
+            texts.put(line, text);
+        }
+        return text;
+    }
+
+    /**
+     * Finds all matches for the given pattern in the given line.
+     *
+     * @param pattern The pattern to search for.
+     * @param line The index of the line to search.
+     * @return A stream of matches, in the order they appear in the line.
+     */
+    public Stream<LinePosition> search(final Pattern pattern, final int line) {
+        return StreamSupport.stream(new MatchSpliterator(pattern, line, line + 1), false);
+    }
+
+    /**
+     * Finds all matches for the given pattern in the document. Lines are only read and searched
+     * as the stream is consumed, so callers can stop after the first few results. If the document
+     * is trimmed while the stream is being consumed, the search carries on from the line after the
+     * last one it read, and later matches are numbered from the new start of the document.
+     *
+     * @param pattern The pattern to search for.
+     * @return A stream of matches, from the oldest line to the newest.
+     */
+    public Stream<LinePosition> search(final Pattern pattern) {
+        return StreamSupport.stream(new MatchSpliterator(pattern, 0, Integer.MAX_VALUE), false);
+    }
+
+    /**
+     * Stops following changes to the document and discards any cached text.
+     */
+    public void dispose() {
+        document.removeIRCDocumentListener(listener);
+        texts.invalidateAll();
+    }
+
+    @Override
+    public void linesAdded(final int line, final int length, final int size) {
+        // New lines haven't been searched yet, so there is nothing to invalidate.
+    }
+
+    @Override
+    public void trimmed(final int newSize, final int numTrimmed) {
+        // Trimmed lines are weakly referenced, so drop out of the cache once they are collected.
+    }
+
+    @Override
+    public void cleared() {
+        texts.invalidateAll();
+    }
+
+    @Override
+    public void repaintNeeded() {
+        // The timestamp format may have changed, which changes every line's text.
+        texts.invalidateAll();
+    }
+
+    /**
+     * Produces matches one at a time, only moving on to the next line once the current one has
+     * no more matches.
+     *
+     * <p>Trims move every line to a lower index, so before reading each line the spliterator checks
+     * that the line it read last is still where it left it, and finds it again if not.
+     */
+    private class MatchSpliterator extends Spliterators.AbstractSpliterator<LinePosition> {
+
+        /** The pattern being searched for. */
+        private final Pattern pattern;
+        /** The index after the last line to search. */
+        private int end;
+        /** The index of the next line to search. */
+        private int next;
+        /** The index the current line had when it was read. */
+        private int current;
+        /** The line most recently read, or {@code null} if no line has been read yet. */
+        private Line previous;
+        /** Matcher for the current line, or {@code null} if no line has been read yet. */
+        private Matcher matcher;
+
+        MatchSpliterator(final Pattern pattern, final int start, final int end) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.pattern = pattern;
+            this.next = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super LinePosition> action) {
+            while (matcher == null || !matcher.find()) {
+                final Line line = readNextLine();
+                if (line == null) {
+                    return false;
+                }
+                matcher = pattern.matcher(getText(line));
+            }
+            action.accept(new LinePosition(current, matcher.start(), current, matcher.end()));
+            return true;
+        }
+
+        /**
+         * Reads the line following the one most recently read.
+         *
+         * @return The next line, or {@code null} if there are no more lines to search.
+         */
+        private Line readNextLine() {
+            while (true) {
+                relocate();
+                if (next >= end || next >= document.getNumLines()) {
+                    return null;
+                }
+
+                try {
+                    final Line line = document.getLine(next);
+                    current = next++;
+                    previous = line;
+                    return line;
+                } catch (IndexOutOfBoundsException ex) {
+                    // The document was trimmed after we checked its size; find our place again.
+                }
+            }
+        }
+
+        /**
+         * Moves {@link #next} back to just after the previously read line, if the document has
+         * been trimmed since it was read. If that line has itself been trimmed, every line
+         * before the new start of the document has already been searched.
+         */
+        private void relocate() {
+            if (previous == null) {
+                return;
+            }
+
+            while (true) {
+                try {
+                    moveNextTo(indexOf(previous) + 1);
+                    return;
+                } catch (IndexOutOfBoundsException ex) {
+                    // The document was trimmed while we were looking; start looking again.
+                }
+            }
+        }
+
+        /**
+         * Finds the index of the given line, looking backwards from the next line to be searched.
+         *
+         * @param line The line to look for.
+         * @return The index of the line, or -1 if it is no longer in the document.
+         * @throws IndexOutOfBoundsException If the document is trimmed while looking.
+         */
+        private int indexOf(final Line line) {
+            for (int index = Math.min(next, document.getNumLines()) - 1; index >= 0; index--) {
+                if (document.getLine(index) == line) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Moves the next line to be searched, shifting the end of the search by the same amount.
+         *
+         * @param index The new index of the next line to search.
+         */
+        private void moveNextTo(final int index) {
+            if (end != Integer.MAX_VALUE) {
+                end -= next - index;
+            }
+            next = index;
+        }
+
+    }
+
+}
@@ -39,6 +39,12 @@ public abstract class EventFormat {
     public abstract Optional<String> getIterateProperty();
     /** Display properties to use. */
     public abstract DisplayPropertyMap getDisplayProperties();
+    /** The compiled form of the main template. */
+    public abstract EventTemplate getCompiledTemplate();
+    /** The compiled form of the before template. */
+    public abstract Optional<EventTemplate> getCompiledBeforeTemplate();
+    /** The compiled form of the after template. */
+    public abstract Optional<EventTemplate> getCompiledAfterTemplate();
 
     public static EventFormat create(
             final String template,
@@ -47,7 +53,9 @@ public abstract class EventFormat {
             final Optional<String> iterateProperty,
             final DisplayPropertyMap displayProperties) {
         return new AutoValue_EventFormat(template, beforeTemplate, afterTemplate, iterateProperty,
-                displayProperties);
+                displayProperties, EventTemplate.compile(template),
+                beforeTemplate.map(EventTemplate::compile),
+                afterTemplate.map(EventTemplate::compile));
     }
 
 }
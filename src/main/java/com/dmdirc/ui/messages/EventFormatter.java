@@ -23,6 +23,7 @@ import com.dmdirc.events.DisplayableEvent;
 
 import com.dmdirc.interfaces.Displayable;
 import com.dmdirc.util.colours.ColourUtils;
+import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Inject;
@@ -64,32 +65,30 @@ public class EventFormatter {
 
     private String format(final EventFormat format, final DisplayableEvent event) {
         final StringBuilder builder = new StringBuilder();
-        format.getBeforeTemplate().ifPresent(
+        format.getCompiledBeforeTemplate().ifPresent(
                 before -> builder.append(doSubstitutions(event, before)).append('\n'));
+        final EventTemplate template = format.getCompiledTemplate();
         builder.append(
                 format.getIterateProperty()
-                        .map(iterate -> formatIterable(event, iterate, format.getTemplate()))
-                        .orElseGet(() -> doSubstitutions(event, format.getTemplate())));
-        format.getAfterTemplate().ifPresent(
+                        .map(iterate -> formatIterable(event, iterate, template))
+                        .orElseGet(() -> doSubstitutions(event, template)));
+        format.getCompiledAfterTemplate().ifPresent(
                 after -> builder.append('\n').append(doSubstitutions(event, after)));
         return builder.toString();
     }
 
-    private String doSubstitutions(final Object dataSource, final String line) {
-        final StringBuilder builder = new StringBuilder(line);
-        int tagStart = builder.indexOf("{{");
-        while (tagStart > -1) {
-            final int tagEnd = builder.indexOf("}}", tagStart);
-            final String tag = builder.substring(tagStart + 2, tagEnd);
-            final String replacement = getReplacement(dataSource, tag);
-            builder.replace(tagStart, tagEnd + 2, replacement);
-            tagStart = builder.indexOf("{{", tagStart + replacement.length());
+    private String doSubstitutions(final Object dataSource, final EventTemplate template) {
+        final List<String> literals = template.getLiterals();
+        final List<EventTemplate.Tag> tags = template.getTags();
+        final StringBuilder builder = new StringBuilder(literals.get(0));
+        for (int i = 0; i < tags.size(); i++) {
+            builder.append(getReplacement(dataSource, tags.get(i))).append(literals.get(i + 1));
         }
         return builder.toString();
     }
 
     private String formatIterable(final DisplayableEvent event, final String property,
-            final String template) {
+            final EventTemplate template) {
         final Optional<Object> value
                 = propertyManager.getProperty(event, event.getClass(), property);
         if (!value.isPresent() || !(value.get() instanceof Iterable<?>)) {
@@ -107,13 +106,11 @@ public class EventFormatter {
         return res.toString();
     }
 
-    private String getReplacement(final Object dataSource, final String tag) {
-        final String[] functionParts = tag.split("\\|");
-        final String[] dataParts = functionParts[0].split("\\.");
+    private String getReplacement(final Object dataSource, final EventTemplate.Tag tag) {
         final DisplayPropertyMap displayProperties = new DisplayPropertyMap();
 
         Object target = dataSource;
-        for (String part : dataParts) {
+        for (String part : tag.getProperties()) {
             final Optional<Object> result = propertyManager.getProperty(target, target.getClass(), part);
             if (result.isPresent()) {
                 target = result.get();
@@ -130,8 +127,8 @@ public class EventFormatter {
         }
 
         String value = applyDisplayProperties(displayProperties, target.toString());
-        for (int i = 1; i < functionParts.length; i++) {
-            value = propertyManager.applyFunction(value, functionParts[i]);
+        for (String function : tag.getFunctions()) {
+            value = propertyManager.applyFunction(value, function);
         }
 
         return value;
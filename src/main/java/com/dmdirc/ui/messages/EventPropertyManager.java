@@ -19,10 +19,14 @@ package com.dmdirc.ui.messages;
 
 import com.google.common.base.Strings;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import javax.inject.Inject;
@@ -39,6 +43,10 @@ import static com.dmdirc.util.LogUtils.USER_ERROR;
  * <p>Properties are dyanamically supplied based on get methods within the class. For example, if
  * channel objects have a 'getName()' method, then the name can be accessed as {{channel.name}}.
  *
+ * <p>Property accessors are resolved once per type and property name and then cached, including
+ * properties that do not exist, so repeatedly formatting the same events does not need to use
+ * reflection.
+ *
  * <p>Functions are implemented as string transformations, and are defined in
  * {@link #EventPropertyManager()}.
  */
@@ -46,7 +54,17 @@ import static com.dmdirc.util.LogUtils.USER_ERROR;
 public class EventPropertyManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(EventPropertyManager.class);
+    /** The type all accessors are adapted to. */
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
     private final Map<String, Function<String, String>> functions = new HashMap<>();
+    /** Cached accessors for each type, keyed on property name. Absent if there is no such property. */
+    private final ClassValue<Map<String, Optional<MethodHandle>>> accessors =
+            new ClassValue<Map<String, Optional<MethodHandle>>>() {
+                @Override
+                protected Map<String, Optional<MethodHandle>> computeValue(final Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
 
     @Inject
     public EventPropertyManager() {
@@ -58,18 +76,56 @@ public class EventPropertyManager {
     }
 
     public <S> Optional<Object> getProperty(final S object, final Class<? extends S> type, final String property) {
-        final String methodName = "get" + property.substring(0, 1).toUpperCase() + property.substring(1);
+        final Optional<MethodHandle> accessor =
+                accessors.get(type).computeIfAbsent(property, p -> getAccessor(type, p));
+        if (!accessor.isPresent()) {
+            return Optional.empty();
+        }
+
         try {
-            final Method method = type.getMethod(methodName);
-            // TODO: This is needed for AutoValues, should probably get return types not real types
-            method.setAccessible(true);
-            final Object result = method.invoke(object);
+            final Object result = accessor.get().invokeExact((Object) object);
 
             if (result instanceof Optional<?>) {
                 return Optional.ofNullable(((Optional<?>) result).orElse(null));
             }
 
             return Optional.ofNullable(result);
+        } catch (RuntimeException ex) {
+            LOG.warn(USER_ERROR, "Unable to format event: could not retrieve property {}", property, ex);
+        } catch (Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            // Accessors never declare checked exceptions, so this can only be a sneaky throw.
+            throw new IllegalStateException("Unable to retrieve property " + property, ex);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Looks up an accessor for the given property. Failures are logged, and will be cached by the caller
+     * so they are only reported once. Methods that declare checked exceptions are not treated as
+     * accessors.
+     *
+     * @param type The type to find the property on.
+     * @param property The name of the property.
+     * @return A method handle that retrieves the property, or an empty optional if it doesn't exist.
+     */
+    private static Optional<MethodHandle> getAccessor(final Class<?> type, final String property) {
+        final String methodName = property.isEmpty() ? "get"
+                : "get" + property.substring(0, 1).toUpperCase() + property.substring(1);
+        try {
+            final Method method = type.getMethod(methodName);
+            for (Class<?> exception : method.getExceptionTypes()) {
+                if (!RuntimeException.class.isAssignableFrom(exception)
+                        && !Error.class.isAssignableFrom(exception)) {
+                    LOG.warn(USER_ERROR, "Unable to format event: property {} throws {}",
+                            property, exception.getName());
+                    return Optional.empty();
+                }
+            }
+            // TODO: This is needed for AutoValues, should probably get return types not real types
+            method.setAccessible(true);
+            return Optional.of(MethodHandles.lookup().unreflect(method).asType(ACCESSOR_TYPE));
         } catch (ReflectiveOperationException ex) {
             LOG.warn(USER_ERROR, "Unable to format event: could not retrieve property {}", property, ex);
         }
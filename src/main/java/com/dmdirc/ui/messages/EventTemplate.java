@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A template for an event that has been parsed into literal text and property tags, so it can be
+ * applied repeatedly without being re-scanned.
+ *
+ * <p>A compiled template always has one more literal segment than it has tags; when applied, the
+ * literals and the values of the tags are interleaved, starting and ending with a literal.
+ *
+ * @see EventFormatter
+ */
+public final class EventTemplate {
+
+    /** The text that starts a tag. */
+    private static final String TAG_START = "{{";
+    /** The text that ends a tag. */
+    private static final String TAG_END = "}}";
+
+    /** The template this was compiled from. */
+    private final String template;
+    /** The literal text surrounding each of the tags. */
+    private final List<String> literals;
+    /** The tags within the template. */
+    private final List<Tag> tags;
+
+    private EventTemplate(final String template, final List<String> literals,
+            final List<Tag> tags) {
+        this.template = template;
+        this.literals = Collections.unmodifiableList(literals);
+        this.tags = Collections.unmodifiableList(tags);
+    }
+
+    /**
+     * Compiles the given template.
+     *
+     * @param template The template to be compiled.
+     * @return A compiled version of the template.
+     */
+    public static EventTemplate compile(final String template) {
+        final List<String> literals = new ArrayList<>();
+        final List<Tag> tags = new ArrayList<>();
+
+        int offset = 0;
+        int tagStart = template.indexOf(TAG_START);
+        int tagEnd = tagStart == -1 ? -1 : template.indexOf(TAG_END, tagStart);
+        while (tagEnd > -1) {
+            literals.add(template.substring(offset, tagStart));
+            tags.add(new Tag(template.substring(tagStart + TAG_START.length(), tagEnd)));
+            offset = tagEnd + TAG_END.length();
+            tagStart = template.indexOf(TAG_START, offset);
+            tagEnd = tagStart == -1 ? -1 : template.indexOf(TAG_END, tagStart);
+        }
+        literals.add(template.substring(offset));
+
+        return new EventTemplate(template, literals, tags);
+    }
+
+    /**
+     * Gets the template this was compiled from.
+     *
+     * @return The uncompiled template.
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the literal text segments of the template. There is always one more literal than there
+     * are tags.
+     *
+     * @return The literal parts of the template.
+     */
+    List<String> getLiterals() {
+        return literals;
+    }
+
+    /**
+     * Gets the tags contained within the template, in order.
+     *
+     * @return The tags in the template.
+     */
+    List<Tag> getTags() {
+        return tags;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof EventTemplate && ((EventTemplate) obj).template.equals(template);
+    }
+
+    @Override
+    public int hashCode() {
+        return template.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    /**
+     * A single <code>{{...}}</code> tag within a template, split into the chain of properties
+     * to look up and the functions to apply to the result.
+     */
+    static final class Tag {
+
+        /** The chain of properties to be looked up. */
+        private final String[] properties;
+        /** The functions to apply to the value of the property. */
+        private final String[] functions;
+
+        Tag(final String tag) {
+            final String[] functionParts = tag.split("\\|");
+            if (functionParts.length == 0) {
+                properties = new String[]{""};
+                functions = new String[0];
+            } else {
+                properties = functionParts[0].split("\\.");
+                functions = Arrays.copyOfRange(functionParts, 1, functionParts.length);
+            }
+        }
+
+        String[] getProperties() {
+            return properties;
+        }
+
+        String[] getFunctions() {
+            return functions;
+        }
+
+    }
+
+}
@@ -31,25 +31,35 @@ import com.dmdirc.events.ServerNickChangeEvent;
 import com.dmdirc.interfaces.User;
 import com.dmdirc.interfaces.WindowModel;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import net.engio.mbassy.listener.Handler;
 
 /**
  * Looks for highlights in messages.
+ *
+ * <p>All highlight words and the current nickname are combined into a single pattern, which is
+ * only rebuilt when the connection is established or the nickname changes.
  */
 public class HighlightManager {
 
-    private static final String REGEX_TEPLATE = "(?i).*(\\p{Space}|^|\\p{Punct})\\Q%s\\E" +
-            "(\\p{Space}|\\p{Punct}|$).*";
+    /** Matches the start of a word: whitespace, punctuation or the start of the message. */
+    private static final String WORD_START = "(?:\\p{Space}|^|\\p{Punct})";
+    /** Matches, without consuming, the end of a word. */
+    private static final String WORD_END = "(?=\\p{Space}|\\p{Punct}|$)";
 
-    private final Collection<Pattern> patterns = new ArrayList<>();
+    private final Collection<String> highlights = new ArrayList<>();
     private final WindowModel serverWindow;
 
-    private Optional<Pattern> nicknamePattern = Optional.empty();
+    private Optional<String> nickname = Optional.empty();
+    /** Pattern matching any highlight, or empty if there is nothing to highlight. */
+    private volatile Optional<Pattern> pattern = Optional.empty();
 
     public HighlightManager(final WindowModel serverWindow) {
         this.serverWindow = serverWindow;
@@ -58,7 +68,7 @@ public class HighlightManager {
     @Handler(rejectSubtypes = true)
     void handleChannelMessage(final ChannelMessageEvent event) {
         if (event.getChannel().getConnection().get().getWindowModel().equals(serverWindow)
-                && patterns.stream().anyMatch(p -> p.matcher(event.getMessage()).matches())) {
+                && isHighlight(event.getMessage())) {
             event.setDisplayProperty(DisplayProperty.DO_NOT_DISPLAY, true);
             event.getChannel().getEventBus().publish(
                     new ChannelHighlightEvent(
@@ -70,7 +80,7 @@ public class HighlightManager {
     @Handler(rejectSubtypes = true)
     void handleChannelAction(final ChannelActionEvent event) {
         if (event.getChannel().getConnection().get().getWindowModel().equals(serverWindow)
-                && patterns.stream().anyMatch(p -> p.matcher(event.getMessage()).matches())) {
+                && isHighlight(event.getMessage())) {
             event.setDisplayProperty(DisplayProperty.DO_NOT_DISPLAY, true);
             event.getChannel().getEventBus().publish(
                     new ChannelActionHighlightEvent(
@@ -82,7 +92,7 @@ public class HighlightManager {
     @Handler(rejectSubtypes = true)
     void handleQueryMessage(final QueryMessageEvent event) {
         if (event.getUser().getConnection().getWindowModel().equals(serverWindow)
-                && patterns.stream().anyMatch(p -> p.matcher(event.getMessage()).matches())) {
+                && isHighlight(event.getMessage())) {
             event.setDisplayProperty(DisplayProperty.DO_NOT_DISPLAY, true);
             event.getQuery().getWindowModel().getEventBus().publish(
                     new QueryHighlightEvent(
@@ -94,7 +104,7 @@ public class HighlightManager {
     @Handler(rejectSubtypes = true)
     void handleQueryMessage(final QueryActionEvent event) {
         if (event.getUser().getConnection().getWindowModel().equals(serverWindow)
-                && patterns.stream().anyMatch(p -> p.matcher(event.getMessage()).matches())) {
+                && isHighlight(event.getMessage())) {
             event.setDisplayProperty(DisplayProperty.DO_NOT_DISPLAY, true);
             event.getQuery().getWindowModel().getEventBus().publish(
                     new QueryActionHighlightEvent(
@@ -113,27 +123,46 @@ public class HighlightManager {
     @Handler
     void handleConnected(final ServerConnectedEvent event) {
         if (event.getConnection().getWindowModel().equals(serverWindow)) {
-            patterns.clear();
+            setHighlights(event.getConnection().getProfile().getHighlights(),
+                    event.getConnection().getLocalUser().map(User::getNickname));
+        }
+    }
 
-            event.getConnection().getProfile().getHighlights()
-                    .stream()
-                    .map(this::compile)
-                    .forEach(patterns::add);
+    private synchronized void setHighlights(final Collection<String> newHighlights,
+            final Optional<String> newNick) {
+        highlights.clear();
+        highlights.addAll(newHighlights);
+        nickname = newNick;
+        rebuildPattern();
+    }
 
-            event.getConnection().getLocalUser()
-                    .map(User::getNickname)
-                    .ifPresent(this::setNickname);
-        }
+    private synchronized void setNickname(final String newNick) {
+        nickname = Optional.of(newNick);
+        rebuildPattern();
+    }
+
+    private boolean isHighlight(final String message) {
+        return pattern.map(p -> p.matcher(message).find()).orElse(false);
     }
 
-    private void setNickname(final String newNick) {
-        nicknamePattern.ifPresent(patterns::remove);
-        nicknamePattern = Optional.of(compile(newNick));
-        patterns.add(nicknamePattern.get());
+    private void rebuildPattern() {
+        final Collection<String> words = new ArrayList<>(highlights);
+        nickname.ifPresent(words::add);
+        pattern = words.isEmpty() ? Optional.empty() : Optional.of(compile(words));
     }
 
-    private Pattern compile(final String word) {
-        return Pattern.compile(String.format(REGEX_TEPLATE, word));
+    /**
+     * Compiles a pattern that finds any of the given words in a message, ignoring case. Words
+     * must be surrounded by whitespace, punctuation or the start or end of the message.
+     *
+     * @param words The words to search for.
+     * @return A pattern that can be used with {@link java.util.regex.Matcher#find()}.
+     */
+    @VisibleForTesting
+    static Pattern compile(final Collection<String> words) {
+        return Pattern.compile(words.stream().map(Pattern::quote)
+                        .collect(Collectors.joining("|", WORD_START + "(?:", ')' + WORD_END)),
+                Pattern.CASE_INSENSITIVE);
     }
 
 }
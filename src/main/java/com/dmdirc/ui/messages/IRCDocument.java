@@ -25,8 +25,6 @@ import com.dmdirc.util.collections.ListenerList;
 import java.awt.Font;
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 import javax.swing.UIManager;
 
@@ -37,14 +35,14 @@ public class IRCDocument implements Serializable, ConfigChangeListener, Document
 
     /** A version number for this class. */
     private static final long serialVersionUID = 4;
-    /** List of lines of text. */
-    private final List<Line> lines;
+    /** Lines of text. Reads do not lock, so the UI never waits on a busy window. */
+    private final LineRingBuffer<Line> lines;
     /** Listener list. */
     private final ListenerList listeners;
     /** Config Manager for getting settings. */
     private final AggregateConfigProvider configManager;
-    /** This document's styliser. */
-    private final Styliser styliser;
+    /** State shared by all of this document's lines. */
+    private final IRCLineContext lineContext;
     /** Font size. */
     private int fontSize;
     /** Font name. */
@@ -54,9 +52,9 @@ public class IRCDocument implements Serializable, ConfigChangeListener, Document
 
     public IRCDocument(final AggregateConfigProvider configManager, final Styliser styliser) {
         this.configManager = configManager;
-        this.styliser = styliser;
+        this.lineContext = new IRCLineContext(configManager, styliser);
 
-        lines = new ArrayList<>();
+        lines = new LineRingBuffer<>();
         listeners = new ListenerList();
 
         frameBufferSize = configManager.getOptionInt("ui", "frameBufferSize", false);
@@ -64,58 +62,42 @@ public class IRCDocument implements Serializable, ConfigChangeListener, Document
         configManager.addChangeListener("ui", "textPaneFontSize", this);
         configManager.addChangeListener("ui", "textPaneFontName", this);
         configManager.addChangeListener("ui", "frameBufferSize", this);
+        configManager.addChangeListener("formatter", "timestamp", this);
 
         setCachedSettings();
     }
 
     @Override
     public int getNumLines() {
-        synchronized (lines) {
-            return lines.size();
-        }
+        return lines.size();
     }
 
     @Override
     public Line getLine(final int lineNumber) {
-        synchronized (lines) {
-            return lines.get(lineNumber);
-        }
+        return lines.get(lineNumber);
     }
 
     @Override
     public void addText(final LocalDateTime timestamp, final DisplayPropertyMap displayPropertyMap,
         final String text) {
-        final int start;
-        synchronized (lines) {
-            start = lines.size();
-            lines.add(new IRCLine(styliser, formatTimestamp(timestamp), text, displayPropertyMap,
-                    fontSize, fontName));
-        }
+        final int start = lines.add(new IRCLine(lineContext, IRCLineContext.toMillis(timestamp),
+                text, lineContext.internDisplayProperties(displayPropertyMap), fontSize));
         fireLinesAdded(start, 1);
     }
 
-    private String formatTimestamp(final LocalDateTime timestamp) {
-        return Formatter.formatMessage(configManager, "timestamp", timestamp);
-    }
-
     @Override
     public void trim(final int numLines) {
-        synchronized (lines) {
-            if (frameBufferSize != null && frameBufferSize > 0) {
-                final int i = lines.size() - numLines;
-                if (i > 0) {
-                    lines.subList(0, i).clear();
-                    fireTrimmed(numLines, i);
-                }
+        if (frameBufferSize != null && frameBufferSize > 0) {
+            final int i = lines.trimTo(numLines);
+            if (i > 0) {
+                fireTrimmed(numLines, i);
             }
         }
     }
 
     @Override
     public void clear() {
-        synchronized (lines) {
-            lines.clear();
-        }
+        lines.clear();
         fireCleared();
     }
 
@@ -200,6 +182,7 @@ public class IRCDocument implements Serializable, ConfigChangeListener, Document
         } else {
             fontName = defaultFont.getName();
         }
+        lineContext.setFontName(fontName);
         if (configManager.hasOptionString("ui", "textPaneFontSize")) {
             fontSize = configManager.getOptionInt("ui", "textPaneFontSize");
         } else {
@@ -211,13 +194,11 @@ public class IRCDocument implements Serializable, ConfigChangeListener, Document
 
     @Override
     public void configChanged(final String domain, final String key) {
-        setCachedSettings();
-        synchronized (lines) {
-            for (Line line : lines) {
-                line.setFontName(fontName);
-                line.setFontSize(fontSize);
-            }
+        if ("formatter".equals(domain) && "timestamp".equals(key)) {
+            lineContext.timestampFormatChanged();
         }
+        setCachedSettings();
+        lines.forEach(line -> line.setFontSize(fontSize));
         fireRepaintNeeded();
     }
 }
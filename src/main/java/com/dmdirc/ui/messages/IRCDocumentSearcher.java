@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * Searches the textpane for specified phrases.
@@ -29,12 +30,12 @@ public class IRCDocumentSearcher {
 
     /** Document to search. */
     private final Document document;
-    /** Phrase to search for. */
-    private final String phrase;
+    /** Searcher that caches the document's text, if one is available. */
+    private final DocumentSearcher searcher;
+    /** Pattern to search for. */
+    private final Pattern pattern;
     /** Textpane position. */
     private LinePosition position;
-    /** Case sensitive? */
-    private final boolean caseSensitive;
 
     /**
      * Constructs a new IRC Document searcher.
@@ -45,10 +46,45 @@ public class IRCDocumentSearcher {
      */
     public IRCDocumentSearcher(final String phrase, final Document document,
             final boolean caseSensitive) {
-        this.phrase = phrase;
+        this(compile(phrase, false, caseSensitive), document, null);
+    }
+
+    /**
+     * Constructs a new IRC Document searcher that uses a cache of the document's text.
+     *
+     * @param phrase        Phrase to search for
+     * @param searcher      Searcher for the document to search
+     * @param caseSensitive Whether or not this searcher is case sensitive
+     * @param regex         Whether the phrase is a regular expression rather than literal text
+     */
+    public IRCDocumentSearcher(final String phrase, final DocumentSearcher searcher,
+            final boolean caseSensitive, final boolean regex) {
+        this(compile(phrase, regex, caseSensitive), searcher.getDocument(), searcher);
+    }
+
+    private IRCDocumentSearcher(final Pattern pattern, final Document document,
+            final DocumentSearcher searcher) {
+        this.pattern = pattern;
         this.document = document;
+        this.searcher = searcher;
         this.position = getEndPosition();
-        this.caseSensitive = caseSensitive;
+    }
+
+    /**
+     * Compiles a search phrase into a pattern.
+     *
+     * @param phrase        Phrase to search for
+     * @param regex         Whether the phrase is a regular expression rather than literal text
+     * @param caseSensitive Whether or not the pattern should be case sensitive
+     *
+     * @return A pattern matching the phrase
+     *
+     * @throws java.util.regex.PatternSyntaxException If the phrase is an invalid regex
+     */
+    private static Pattern compile(final String phrase, final boolean regex,
+            final boolean caseSensitive) {
+        return Pattern.compile(regex ? phrase : Pattern.quote(phrase),
+                caseSensitive ? 0 : Pattern.CASE_INSENSITIVE);
     }
 
     /**
@@ -93,9 +129,7 @@ public class IRCDocumentSearcher {
             if (line < 0) {
                 line = 0;
             }
-            final String lineText = document.getLine(line).getText();
-
-            final List<LinePosition> matches = searchLine(line, lineText);
+            final List<LinePosition> matches = searchLine(line);
 
             for (int i = matches.size() - 1; i >= 0; i--) {
                 if (position.getEndLine() != line
@@ -130,9 +164,7 @@ public class IRCDocumentSearcher {
             if (line < 0) {
                 line = 0;
             }
-            final String lineText = document.getLine(line).getText();
-
-            final List<LinePosition> matches = searchLine(line, lineText);
+            final List<LinePosition> matches = searchLine(line);
 
             for (LinePosition match : matches) {
                 if (position.getStartLine() != line
@@ -155,14 +187,16 @@ public class IRCDocumentSearcher {
      * Searches a line and returns all matches on a line.
      *
      * @param lineNum the line number of the line we're searching
-     * @param line    Line to search
      *
      * @return List of matches
      */
-    private List<LinePosition> searchLine(final int lineNum, final String line) {
+    private List<LinePosition> searchLine(final int lineNum) {
+        if (searcher != null && lineNum < searcher.getNumLines()) {
+            return searcher.search(pattern, lineNum).collect(Collectors.toList());
+        }
+
         final List<LinePosition> matches = new ArrayList<>();
-        final Matcher matcher = Pattern.compile((caseSensitive ? "" : "(?i)")
-                + "\\Q" + phrase + "\\E").matcher(line);
+        final Matcher matcher = pattern.matcher(document.getLine(lineNum).getText());
 
         while (matcher.find()) {
             matches.add(new LinePosition(lineNum, matcher.start(), lineNum, matcher.end()));
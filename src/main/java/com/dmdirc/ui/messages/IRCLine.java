@@ -19,39 +19,42 @@ package com.dmdirc.ui.messages;
 
 import com.dmdirc.events.DisplayProperty;
 import com.dmdirc.events.DisplayPropertyMap;
-import java.util.Arrays;
 import java.util.Optional;
 
 /**
  * Represents a line of text in IRC.
+ *
+ * <p>Lines are kept for as long as they remain in a window's scrollback, so they store as little
+ * as possible: the timestamp is kept as a number and only formatted when the line is rendered,
+ * and the styliser, default font and display properties are shared between lines via an
+ * {@link IRCLineContext}.
  */
 public class IRCLine implements Line {
 
-    private final String timestamp;
+    private final IRCLineContext context;
+    private final long timestamp;
     private final String text;
-    private final Styliser styliser;
-    private final StyledMessageUtils styleUtils = new StyledMessageUtils(); // TODO: Inject
     private final DisplayPropertyMap displayProperties;
     private int fontSize;
+    /** Font name for this line, or {@code null} to use the context's default. */
     private String fontName;
 
     /**
      * Creates a new line with a specified height.
      *
-     * @param styliser  The styliser to use to style this line
-     * @param timestamp The textual timestamp to use for the line
+     * @param context   The context shared by lines in the same document
+     * @param timestamp The timestamp of the line, as returned by
+     *                  {@link IRCLineContext#toMillis(java.time.LocalDateTime)}
      * @param text      The textual content of the line
      * @param displayProperties The properties to use when displaying the line.
      * @param fontSize  The height for this line
-     * @param fontName  The name of the font to use for this line
      */
-    public IRCLine(final Styliser styliser, final String timestamp, final String text,
-            final DisplayPropertyMap displayProperties, final int fontSize, final String fontName) {
-        this.styliser = styliser;
-        this.timestamp = timestamp; // TODO: Make this a long and convert further down the line
+    IRCLine(final IRCLineContext context, final long timestamp, final String text,
+            final DisplayPropertyMap displayProperties, final int fontSize) {
+        this.context = context;
+        this.timestamp = timestamp;
         this.text = text;
         this.displayProperties = displayProperties;
-        this.fontName = fontName;
         this.fontSize = fontSize;
     }
 
@@ -61,16 +64,24 @@ public class IRCLine implements Line {
      * @return Lines parts
      */
     private String[] getLineParts() {
-        if (displayProperties.get(DisplayProperty.NO_TIMESTAMPS).orElse(false)) {
-            return new String[] { text };
+        if (hasTimestamp()) {
+            return new String[] { getTimestamp(), text };
         } else {
-            return new String[] { timestamp, text };
+            return new String[] { text };
         }
     }
 
+    private boolean hasTimestamp() {
+        return !displayProperties.get(DisplayProperty.NO_TIMESTAMPS).orElse(false);
+    }
+
+    private String getTimestamp() {
+        return context.formatTimestamp(timestamp);
+    }
+
     @Override
     public int getLength() {
-        return timestamp.length() + text.length();
+        return getTimestamp().length() + text.length();
     }
 
     @Override
@@ -90,18 +101,18 @@ public class IRCLine implements Line {
 
     @Override
     public String getText() {
-        return styleUtils.stripControlCodes(timestamp + text);
+        return context.getStyleUtils().stripControlCodes(getTimestamp() + text);
     }
 
     @Override
     public String getStyledText() {
-        return timestamp + text;
+        return getTimestamp() + text;
     }
 
     @Override
     public <T> T getStyled(final StyledMessageMaker<T> maker) {
-        maker.setDefaultFont(fontName, fontSize);
-        styliser.addStyledString(maker, getLineParts());
+        maker.setDefaultFont(fontName == null ? context.getFontName() : fontName, fontSize);
+        context.getStyliser().addStyledString(maker, getLineParts());
         final T styledString = maker.getStyledMessage();
         fontSize = maker.getMaximumFontSize();
         maker.clear();
@@ -110,12 +121,17 @@ public class IRCLine implements Line {
 
     @Override
     public boolean equals(final Object obj) {
-        return obj instanceof Line && Arrays.equals(((IRCLine) obj).getLineParts(), getLineParts());
+        if (!(obj instanceof IRCLine)) {
+            return false;
+        }
+        final IRCLine other = (IRCLine) obj;
+        return text.equals(other.text) && hasTimestamp() == other.hasTimestamp()
+                && (!hasTimestamp() || timestamp == other.timestamp);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(getLineParts());
+        return hasTimestamp() ? 31 * Long.hashCode(timestamp) + text.hashCode() : text.hashCode();
     }
 
     @Override
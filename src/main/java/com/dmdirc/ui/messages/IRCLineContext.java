@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.events.DisplayPropertyMap;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * State shared by every {@link IRCLine} in a single document.
+ *
+ * <p>Holding this once per document rather than once per line keeps each line down to its text,
+ * a numeric timestamp and references to shared objects.
+ */
+class IRCLineContext {
+
+    /** The number of formatted timestamps to remember. */
+    private static final int TIMESTAMP_CACHE_SIZE = 512;
+
+    /** Config provider used to read the timestamp format. */
+    private final AggregateConfigProvider configManager;
+    /** The styliser used to style lines. */
+    private final Styliser styliser;
+    /** Utilities used to strip control codes from lines. */
+    private final StyledMessageUtils styleUtils = new StyledMessageUtils();
+    /** Canonical copies of the display properties used by lines. */
+    private final Interner<DisplayPropertyMap> displayProperties = Interners.newWeakInterner();
+    /** Recently formatted timestamps, in access order. Guarded by itself. */
+    private final Map<Long, String> timestamps =
+            new LinkedHashMap<Long, String>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1;
+
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Long, String> eldest) {
+                    return size() > TIMESTAMP_CACHE_SIZE;
+                }
+            };
+    /** Incremented whenever the timestamp format changes. Guarded by {@link #timestamps}. */
+    private int timestampFormatVersion;
+    /** The default font name for lines. */
+    private volatile String fontName;
+
+    IRCLineContext(final AggregateConfigProvider configManager, final Styliser styliser) {
+        this.configManager = configManager;
+        this.styliser = styliser;
+    }
+
+    Styliser getStyliser() {
+        return styliser;
+    }
+
+    StyledMessageUtils getStyleUtils() {
+        return styleUtils;
+    }
+
+    String getFontName() {
+        return fontName;
+    }
+
+    void setFontName(final String fontName) {
+        this.fontName = fontName;
+    }
+
+    /**
+     * Gets a canonical copy of the given display properties. Equal maps passed to this method
+     * will result in the same instance, so lines with identical properties share them.
+     *
+     * @param properties The properties to copy.
+     * @return A shared, read only map with the same properties.
+     */
+    DisplayPropertyMap internDisplayProperties(final DisplayPropertyMap properties) {
+        return displayProperties.intern(properties.snapshot());
+    }
+
+    /**
+     * Converts a timestamp into the compact form stored by lines.
+     *
+     * @param timestamp The timestamp to convert.
+     * @return The timestamp as milliseconds since the epoch, treating it as if it were in UTC.
+     */
+    static long toMillis(final LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Formats a timestamp previously produced by {@link #toMillis(LocalDateTime)}.
+     *
+     * @param millis The compact timestamp to format.
+     * @return The timestamp formatted according to the user's settings.
+     */
+    String formatTimestamp(final long millis) {
+        final int version;
+        synchronized (timestamps) {
+            final String cached = timestamps.get(millis);
+            if (cached != null) {
+                return cached;
+            }
+            version = timestampFormatVersion;
+        }
+
+        final String formatted = Formatter.formatMessage(configManager, "timestamp",
+                LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                        (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC));
+
+        synchronized (timestamps) {
+            if (version == timestampFormatVersion) {
+                timestamps.put(millis, formatted);
+            }
+        }
+        return formatted;
+    }
+
+    /**
+     * Discards any previously formatted timestamps. Must be called whenever the timestamp format
+     * changes.
+     */
+    void timestampFormatChanged() {
+        synchronized (timestamps) {
+            timestampFormatVersion++;
+            timestamps.clear();
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A ring buffer of lines, supporting constant time appends and trims from the start.
+ *
+ * <p>The buffer grows in powers of two until it can hold the number of lines being retained, after
+ * which appending and trimming never move existing lines. Writes are serialised, but reads do not
+ * lock: a reader that races with a trim will receive an {@link IndexOutOfBoundsException}, exactly
+ * as if the trim had happened before the read.
+ *
+ * @param <T> The type of line stored in the buffer.
+ */
+class LineRingBuffer<T> implements Serializable {
+
+    /** A version number for this class. */
+    private static final long serialVersionUID = 1;
+    /** The initial capacity of the buffer. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Slots containing lines, indexed by absolute line number modulo capacity. */
+    private volatile AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    /** Absolute number of the first line still in the buffer. */
+    private volatile long first;
+    /** Absolute number of the line after the last line in the buffer. */
+    private volatile long end;
+
+    /**
+     * Gets the number of lines in the buffer.
+     *
+     * @return The number of lines currently in the buffer.
+     */
+    public int size() {
+        final long start = first;
+        return (int) (end - start);
+    }
+
+    /**
+     * Gets the line at the specified position, relative to the first line in the buffer.
+     *
+     * @param index The index of the line to retrieve.
+     * @return The line at the given index.
+     * @throws IndexOutOfBoundsException If the index is not in the buffer.
+     */
+    public T get(final int index) {
+        final long absolute = first + index;
+        // End must be read before the slots, so we see any replacement array that holds the line.
+        if (index < 0 || absolute >= end) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        final AtomicReferenceArray<T> current = slots;
+        final T line = current.get(slot(absolute, current));
+        // Trims move the start of the buffer before touching slots, so if the line we read has
+        // since been trimmed or overwritten this will notice.
+        if (line == null || absolute < first) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return line;
+    }
+
+    /**
+     * Appends a line to the end of the buffer.
+     *
+     * @param line The line to be added.
+     * @return The index of the new line, relative to the first line in the buffer.
+     */
+    public synchronized int add(final T line) {
+        AtomicReferenceArray<T> current = slots;
+        final int size = (int) (end - first);
+        if (size == current.length()) {
+            current = grow(current);
+        }
+        current.set(slot(end, current), line);
+        end++;
+        return size;
+    }
+
+    /**
+     * Removes lines from the start of the buffer so that at most the given number remain.
+     *
+     * @param numLines The maximum number of lines to retain.
+     * @return The number of lines that were removed.
+     */
+    public synchronized int trimTo(final int numLines) {
+        final long oldFirst = first;
+        final int removed = (int) (end - oldFirst) - Math.max(0, numLines);
+        if (removed <= 0) {
+            return 0;
+        }
+
+        first = oldFirst + removed;
+        final AtomicReferenceArray<T> current = slots;
+        for (long i = oldFirst; i < oldFirst + removed; i++) {
+            current.set(slot(i, current), null);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all lines from the buffer.
+     */
+    public void clear() {
+        trimTo(0);
+    }
+
+    /**
+     * Performs the given action for each line in the buffer, preventing any modifications while
+     * doing so.
+     *
+     * @param action The action to perform.
+     */
+    public synchronized void forEach(final Consumer<? super T> action) {
+        final AtomicReferenceArray<T> current = slots;
+        for (long i = first; i < end; i++) {
+            action.accept(current.get(slot(i, current)));
+        }
+    }
+
+    /**
+     * Replaces the slots with an array twice the size, containing the same lines.
+     *
+     * @param current The current array of slots.
+     * @return The new array of slots.
+     */
+    private AtomicReferenceArray<T> grow(final AtomicReferenceArray<T> current) {
+        final AtomicReferenceArray<T> replacement =
+                new AtomicReferenceArray<>(current.length() * 2);
+        for (long i = first; i < end; i++) {
+            replacement.set(slot(i, replacement), current.get(slot(i, current)));
+        }
+        slots = replacement;
+        return replacement;
+    }
+
+    /**
+     * Gets the slot that holds the given absolute line number.
+     *
+     * @param absolute The absolute line number.
+     * @param array The slots being used.
+     * @return The index of the slot within the array.
+     */
+    private static int slot(final long absolute, final AtomicReferenceArray<?> array) {
+        return (int) (absolute & (array.length() - 1));
+    }
+
+}
@@ -17,6 +17,8 @@
 
 package com.dmdirc.ui.messages;
 
+import java.util.regex.Pattern;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -33,6 +35,20 @@ import static com.google.common.base.Preconditions.checkArgument;
 @Singleton
 public class StyledMessageUtils {
 
+    /** Matches all recognised control codes, other than those wrapping other text. */
+    private static final Pattern CONTROL_CODES = Pattern.compile("[" + IRCControlCodes.BOLD
+            + CODE_CHANNEL + IRCControlCodes.FIXED + CODE_HYPERLINK + IRCControlCodes.ITALIC
+            + IRCControlCodes.NEGATE + CODE_SMILIE + IRCControlCodes.STOP
+            + IRCControlCodes.UNDERLINE + "]|"
+            + IRCControlCodes.COLOUR_HEX + "([A-Za-z0-9]{6}(,[A-Za-z0-9]{6})?)?|"
+            + IRCControlCodes.COLOUR + "([0-9]{1,2}(,[0-9]{1,2})?)?");
+    /** Matches internal control codes, other than those wrapping other text. */
+    private static final Pattern INTERNAL_CONTROL_CODES =
+            Pattern.compile("[" + CODE_CHANNEL + CODE_HYPERLINK + CODE_SMILIE + ']');
+    /** Matches tooltips and nicknames, capturing the text they wrap. */
+    private static final Pattern WRAPPING_CODES =
+            Pattern.compile("([" + CODE_TOOLTIP + CODE_NICKNAME + "]).*?\\1(.*?)\\1");
+
     @Inject
     public StyledMessageUtils() {
     }
@@ -45,12 +61,8 @@ public class StyledMessageUtils {
      * @return a copy of the input with control codes removed
      */
     public String stripControlCodes(final String input) {
-        return input.replaceAll("[" + IRCControlCodes.BOLD + CODE_CHANNEL + IRCControlCodes.FIXED
-                + CODE_HYPERLINK + IRCControlCodes.ITALIC + IRCControlCodes.NEGATE
-                + CODE_SMILIE + IRCControlCodes.STOP + IRCControlCodes.UNDERLINE + "]|"
-                + IRCControlCodes.COLOUR_HEX + "([A-Za-z0-9]{6}(,[A-Za-z0-9]{6})?)?|"
-                + IRCControlCodes.COLOUR + "([0-9]{1,2}(,[0-9]{1,2})?)?", "")
-                .replaceAll("([" + CODE_TOOLTIP + CODE_NICKNAME + "]).*?\\1(.*?)\\1", "$2");
+        return WRAPPING_CODES.matcher(CONTROL_CODES.matcher(input).replaceAll(""))
+                .replaceAll("$2");
     }
 
     /**
@@ -108,8 +120,8 @@ public class StyledMessageUtils {
      * @return a copy of the input with control codes removed
      */
     private String stripInternalControlCodes(final String input) {
-        return input.replaceAll("[" + CODE_CHANNEL + CODE_HYPERLINK + CODE_SMILIE + ']', "")
-                .replaceAll("([" + CODE_TOOLTIP + CODE_NICKNAME + "]).*?\\1(.*?)\\1", "$2");
+        return WRAPPING_CODES.matcher(INTERNAL_CONTROL_CODES.matcher(input).replaceAll(""))
+                .replaceAll("$2");
     }
 
 }
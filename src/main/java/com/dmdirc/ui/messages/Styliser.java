@@ -22,7 +22,6 @@ import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.config.provider.ConfigChangeListener;
 import com.dmdirc.util.colours.Colour;
 import com.google.common.annotations.VisibleForTesting;
-import java.util.Locale;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 
@@ -77,6 +76,36 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
     /** The regular expression to use for marking up channels. */
     private static final String URL_CHANNEL = "(?i)(?<![^\\s\\+@\\-<>\\(\"',])([\\Q%s\\E]"
             + RESERVED_CHARS + "+)";
+    /** Compiled pattern for {@link #INTERNAL_CHARS}. */
+    private static final Pattern INTERNAL_CHARS_PATTERN = Pattern.compile(INTERNAL_CHARS);
+    /** Compiled pattern for {@link #URL_REGEXP}. */
+    private static final Pattern URL_PATTERN = Pattern.compile(URL_REGEXP);
+    /** Compiled pattern for {@link #URL_INT1}. */
+    private static final Pattern URL_INT1_PATTERN = Pattern.compile(URL_INT1);
+    /** Compiled pattern for {@link #URL_INT2}. */
+    private static final Pattern URL_INT2_PATTERN = Pattern.compile(URL_INT2);
+    /** Compiled pattern for {@link #URL_INT3}. */
+    private static final Pattern URL_INT3_PATTERN = Pattern.compile(URL_INT3);
+    /** Compiled pattern for {@link #URL_INT4}. */
+    private static final Pattern URL_INT4_PATTERN = Pattern.compile(URL_INT4);
+    /** Lookup table of characters that {@link #readControlChars} handles, indexed by char. */
+    private static final boolean[] CONTROL_CHARS = new boolean[32];
+    /** Cached channel pattern, and the prefixes it was compiled for. */
+    @Nullable
+    private volatile ChannelPattern channelPattern;
+    /** Cached smilie pattern, or null if it needs to be rebuilt from the config. */
+    @Nullable
+    private volatile Pattern smiliePattern;
+
+    static {
+        for (char c : new char[]{IRCControlCodes.BOLD, IRCControlCodes.UNDERLINE,
+                IRCControlCodes.STOP, IRCControlCodes.COLOUR, IRCControlCodes.COLOUR_HEX,
+                IRCControlCodes.ITALIC, IRCControlCodes.FIXED, IRCControlCodes.NEGATE,
+                CODE_HYPERLINK, CODE_NICKNAME, CODE_CHANNEL, CODE_SMILIE, CODE_TOOLTIP}) {
+            CONTROL_CHARS[c] = true;
+        }
+    }
+
     /** Whether or not we should style links. */
     private boolean styleURIs;
     /** Whether or not we should style channel names. */
@@ -113,6 +142,7 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
         configManager.addChangeListener("ui", "channelcolour", this);
         configManager.addChangeListener("ui", "stylelinks", this);
         configManager.addChangeListener("ui", "stylechannels", this);
+        configManager.addChangeListener("icon", this);
         styleURIs = configManager.getOptionBool("ui", "stylelinks");
         styleChannels = configManager.getOptionBool("ui", "stylechannels");
         uriColour = colourManager.getColourFromString(
@@ -126,27 +156,21 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
         maker.resetAllStyles();
 
         for (String string : strings) {
-            final char[] chars = string.toCharArray();
-
-            for (int j = 0; j < chars.length; j++) {
-                if (chars[j] == 65533) {
-                    chars[j] = '?';
-                }
-            }
-
-            int position = 0;
-
-            final String target =
-                    doSmilies(doLinks(new String(chars).replaceAll(INTERNAL_CHARS, "")));
+            final String target = doSmilies(doLinks(INTERNAL_CHARS_PATTERN
+                    .matcher(string.replace('\uFFFD', '?')).replaceAll("")));
             final StyliserState state = new StyliserState();
+            final int length = target.length();
+            int position = 0;
 
-            while (position < target.length()) {
-                final String next = readUntilControl(target.substring(position));
-                maker.appendString(next);
-                position += next.length();
+            while (position < length) {
+                final int next = findControl(target, position);
+                if (next > position) {
+                    maker.appendString(target, position, next);
+                    position = next;
+                }
 
-                if (position < target.length()) {
-                    position += readControlChars(target.substring(position), state, maker);
+                if (position < length) {
+                    position += readControlChars(target, position, state, maker);
                 }
             }
         }
@@ -159,20 +183,20 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
                 : connection.getGroupChatManager().getChannelPrefixes();
 
         String target2 = target;
-        target = target.replaceAll(URL_REGEXP, CODE_HYPERLINK + "$0" + CODE_HYPERLINK);
+        target = URL_PATTERN.matcher(target)
+                .replaceAll(CODE_HYPERLINK + "$0" + CODE_HYPERLINK);
 
         if (prefixes != null) {
-            target = target.replaceAll(String.format(URL_CHANNEL, prefixes),
-                    CODE_CHANNEL + "$0" + CODE_CHANNEL);
+            target = getChannelPattern(prefixes).matcher(target)
+                    .replaceAll(CODE_CHANNEL + "$0" + CODE_CHANNEL);
         }
 
         for (int j = 0; j < 5 && !target.equals(target2); j++) {
             target2 = target;
-            target = target
-                    .replaceAll(URL_INT1, "$1$3$2")
-                    .replaceAll(URL_INT2, "$1$2$3$5$4")
-                    .replaceAll(URL_INT3, "$1$2$4$3")
-                    .replaceAll(URL_INT4, "$1$3$2");
+            target = URL_INT1_PATTERN.matcher(target).replaceAll("$1$3$2");
+            target = URL_INT2_PATTERN.matcher(target).replaceAll("$1$2$3$5$4");
+            target = URL_INT3_PATTERN.matcher(target).replaceAll("$1$2$4$3");
+            target = URL_INT4_PATTERN.matcher(target).replaceAll("$1$3$2");
         }
 
         return target;
@@ -189,8 +213,48 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
      */
     private String doSmilies(final String string) {
         // TODO: Check if they're enabled.
-        // TODO: Store the list instead of building it every line
+        return getSmiliePattern().matcher(string)
+                .replaceAll("$1" + CODE_SMILIE + "$2" + CODE_SMILIE);
+    }
 
+    /**
+     * Gets a pattern that matches channel names starting with any of the given prefixes. The
+     * pattern is cached until the prefixes change.
+     *
+     * @param prefixes The channel prefixes in use.
+     *
+     * @return A pattern to match channel names.
+     */
+    private Pattern getChannelPattern(final String prefixes) {
+        ChannelPattern pattern = channelPattern;
+        if (pattern == null || !pattern.prefixes.equals(prefixes)) {
+            pattern = new ChannelPattern(prefixes);
+            channelPattern = pattern;
+        }
+        return pattern.pattern;
+    }
+
+    /**
+     * Gets a pattern that matches any of the configured smilies. The pattern is cached until the
+     * icon settings change.
+     *
+     * @return A pattern to match smilies.
+     */
+    private Pattern getSmiliePattern() {
+        Pattern pattern = smiliePattern;
+        if (pattern == null) {
+            pattern = buildSmiliePattern();
+            smiliePattern = pattern;
+        }
+        return pattern;
+    }
+
+    /**
+     * Builds a pattern that matches any of the smilies currently defined in the config.
+     *
+     * @return A pattern to match smilies.
+     */
+    private Pattern buildSmiliePattern() {
         final StringBuilder smilies = new StringBuilder();
 
         configManager.getOptions("icon").entrySet().stream()
@@ -202,8 +266,7 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
             smilies.append(Pattern.quote(icon.getKey().substring(7)));
         });
 
-        return string.replaceAll("(\\s|^)(" + smilies + ")(?=\\s|$)",
-                "$1" + CODE_SMILIE + "$2" + CODE_SMILIE);
+        return Pattern.compile("(\\s|^)(" + smilies + ")(?=\\s|$)");
     }
 
     /**
@@ -217,260 +280,228 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
      */
     @VisibleForTesting
     static String readUntilControl(final String input) {
-        int pos = input.length();
-
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.BOLD));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.UNDERLINE));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.STOP));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.COLOUR));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.COLOUR_HEX));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.ITALIC));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.FIXED));
-        pos = checkChar(pos, input.indexOf(CODE_HYPERLINK));
-        pos = checkChar(pos, input.indexOf(CODE_NICKNAME));
-        pos = checkChar(pos, input.indexOf(CODE_CHANNEL));
-        pos = checkChar(pos, input.indexOf(CODE_SMILIE));
-        pos = checkChar(pos, input.indexOf(IRCControlCodes.NEGATE));
-        pos = checkChar(pos, input.indexOf(CODE_TOOLTIP));
-
-        return input.substring(0, pos);
+        return input.substring(0, findControl(input, 0));
     }
 
     /**
-     * Helper function used in readUntilControl. Checks if i is a valid index of the string (i.e.,
-     * it's not -1), and then returns the minimum of pos and i.
+     * Finds the index of the first control character in the input at or after the given offset.
      *
-     * @param pos The current position in the string
-     * @param i   The index of the first occurrence of some character
+     * @param input The string to read from
+     * @param start The offset to start searching at
      *
-     * @return The new position (see implementation)
+     * @return The index of the next control character, or the length of the input if there is none
      */
-    private static int checkChar(final int pos, final int i) {
-        if (i < pos && i != -1) {
-            return i;
+    @VisibleForTesting
+    static int findControl(final String input, final int start) {
+        final int length = input.length();
+        for (int i = start; i < length; i++) {
+            final char c = input.charAt(i);
+            if (c < CONTROL_CHARS.length && CONTROL_CHARS[c]) {
+                return i;
+            }
         }
-        return pos;
+        return length;
+    }
+
+    /**
+     * Reads the string following a control character up until the next control character.
+     *
+     * @param input  The string to read from
+     * @param offset The offset of the control character
+     *
+     * @return The text between the control character and the next one
+     */
+    private static String readArgument(final String input, final int offset) {
+        return input.substring(offset + 1, findControl(input, offset + 1));
     }
 
     /**
-     * Reads the first control character from the input string (and any arguments it takes), and
-     * applies it to the specified attribute set.
+     * Reads the control character at the given offset of the input string (and any arguments it
+     * takes), and applies it to the specified attribute set.
      *
      * @return The number of characters read as control characters
      * @param string  The string to read from
+     * @param offset  The offset of the control character within the string
      * @param maker The attribute set that new attributes will be applied to
      */
-    private int readControlChars(final String string, final StyliserState state, final StyledMessageMaker<?> maker) {
+    private int readControlChars(final String string, final int offset,
+            final StyliserState state, final StyledMessageMaker<?> maker) {
         final boolean isNegated = state.isNegated;
+        final int length = string.length();
 
-        // Bold
-        if (string.charAt(0) == IRCControlCodes.BOLD) {
-            if (!isNegated) {
-                maker.toggleBold();
-            }
-
-            return 1;
-        }
-
-        // Underline
-        if (string.charAt(0) == IRCControlCodes.UNDERLINE) {
-            if (!isNegated) {
-                maker.toggleUnderline();
-            }
-
-            return 1;
-        }
-
-        // Italic
-        if (string.charAt(0) == IRCControlCodes.ITALIC) {
-            if (!isNegated) {
-                maker.toggleItalic();
-            }
-
-            return 1;
-        }
-
-        // Hyperlinks
-        if (string.charAt(0) == CODE_HYPERLINK) {
-            if (!isNegated && styleURIs) {
-                maker.toggleHyperlinkStyle(uriColour);
-            }
-
-            if (state.isInLink) {
-                maker.endHyperlink();
-            } else {
-                maker.startHyperlink(readUntilControl(string.substring(1)));
-            }
-            state.isInLink = !state.isInLink;
-
-            return 1;
-        }
-
-        // Channel links
-        if (string.charAt(0) == CODE_CHANNEL) {
-            if (!isNegated && styleChannels) {
-                maker.toggleChannelLinkStyle(channelColour);
-            }
-
-            if (state.isInLink) {
-                maker.endChannelLink();
-            } else {
-                maker.startChannelLink(readUntilControl(string.substring(1)));
-            }
-            state.isInLink = !state.isInLink;
+        switch (string.charAt(offset)) {
+            case IRCControlCodes.BOLD:
+                if (!isNegated) {
+                    maker.toggleBold();
+                }
+                return 1;
 
-            return 1;
-        }
+            case IRCControlCodes.UNDERLINE:
+                if (!isNegated) {
+                    maker.toggleUnderline();
+                }
+                return 1;
 
-        // Nickname links
-        if (string.charAt(0) == CODE_NICKNAME) {
-            int count = 1;
-            if (state.isInLink) {
-                maker.endNicknameLink();
-            } else {
-                int next = string.indexOf(CODE_NICKNAME, 1);
-                maker.startNicknameLink(string.substring(1, next));
-                count += next;
-            }
-            state.isInLink = !state.isInLink;
+            case IRCControlCodes.ITALIC:
+                if (!isNegated) {
+                    maker.toggleItalic();
+                }
+                return 1;
 
-            return count;
-        }
+            case CODE_HYPERLINK:
+                if (!isNegated && styleURIs) {
+                    maker.toggleHyperlinkStyle(uriColour);
+                }
 
-        // Fixed pitch
-        if (string.charAt(0) == IRCControlCodes.FIXED) {
-            if (!isNegated) {
-                maker.toggleFixedWidth();
-            }
+                if (state.isInLink) {
+                    maker.endHyperlink();
+                } else {
+                    maker.startHyperlink(readArgument(string, offset));
+                }
+                state.isInLink = !state.isInLink;
+                return 1;
 
-            return 1;
-        }
+            case CODE_CHANNEL:
+                if (!isNegated && styleChannels) {
+                    maker.toggleChannelLinkStyle(channelColour);
+                }
 
-        // Stop formatting
-        if (string.charAt(0) == IRCControlCodes.STOP) {
-            if (!isNegated) {
-                maker.resetAllStyles();
+                if (state.isInLink) {
+                    maker.endChannelLink();
+                } else {
+                    maker.startChannelLink(readArgument(string, offset));
+                }
+                state.isInLink = !state.isInLink;
+                return 1;
+
+            case CODE_NICKNAME: {
+                int count = 1;
+                if (state.isInLink) {
+                    maker.endNicknameLink();
+                } else {
+                    final int next = string.indexOf(CODE_NICKNAME, offset + 1);
+                    maker.startNicknameLink(string.substring(offset + 1, next));
+                    count += next - offset;
+                }
+                state.isInLink = !state.isInLink;
+                return count;
             }
 
-            return 1;
-        }
-
-        // Colours
-        if (string.charAt(0) == IRCControlCodes.COLOUR) {
-            int count = 1;
-            // This isn't too nice!
-            if (string.length() > count && isInt(string.charAt(count))) {
-                int foreground = string.charAt(count) - '0';
-                count++;
-                if (string.length() > count && isInt(string.charAt(count))) {
-                    foreground = foreground * 10 + string.charAt(count) - '0';
-                    count++;
+            case IRCControlCodes.FIXED:
+                if (!isNegated) {
+                    maker.toggleFixedWidth();
                 }
-                foreground %= 16;
+                return 1;
 
+            case IRCControlCodes.STOP:
                 if (!isNegated) {
-                    maker.setForeground(colourManager.getColourFromString(
-                            String.valueOf(foreground), Colour.WHITE));
+                    maker.resetAllStyles();
                 }
-
-                // Now background
-                if (string.length() > count && string.charAt(count) == ','
-                        && string.length() > count + 1
-                        && isInt(string.charAt(count + 1))) {
-                    int background = string.charAt(count + 1) - '0';
-                    count += 2; // Comma and first digit
-                    if (string.length() > count && isInt(string.charAt(count))) {
-                        background = background * 10 + string.charAt(count) - '0';
-                        count++;
+                return 1;
+
+            case IRCControlCodes.COLOUR: {
+                int pos = offset + 1;
+                if (pos < length && isInt(string.charAt(pos))) {
+                    int foreground = string.charAt(pos) - '0';
+                    pos++;
+                    if (pos < length && isInt(string.charAt(pos))) {
+                        foreground = foreground * 10 + string.charAt(pos) - '0';
+                        pos++;
                     }
-                    background %= 16;
+                    foreground %= 16;
 
                     if (!isNegated) {
-                        maker.setBackground(colourManager
-                                .getColourFromString(String.valueOf(background), Colour.WHITE));
+                        maker.setForeground(colourManager.getColourFromString(
+                                String.valueOf(foreground), Colour.WHITE));
                     }
-                }
-            } else if (!isNegated) {
-                maker.resetColours();
-            }
-            return count;
-        }
-
-        // Hex colours
-        if (string.charAt(0) == IRCControlCodes.COLOUR_HEX) {
-            int count = 1;
-            if (hasHexString(string, 1)) {
-                if (!isNegated) {
-                    maker.setForeground(
-                            colourManager.getColourFromString(string.substring(1, 7).toUpperCase(),
-                                    Colour.WHITE));
-                }
 
-                count += 6;
-
-                if (string.length() == count) {
-                    return count;
+                    // Now background
+                    if (pos + 1 < length && string.charAt(pos) == ','
+                            && isInt(string.charAt(pos + 1))) {
+                        int background = string.charAt(pos + 1) - '0';
+                        pos += 2; // Comma and first digit
+                        if (pos < length && isInt(string.charAt(pos))) {
+                            background = background * 10 + string.charAt(pos) - '0';
+                            pos++;
+                        }
+                        background %= 16;
+
+                        if (!isNegated) {
+                            maker.setBackground(colourManager
+                                    .getColourFromString(String.valueOf(background), Colour.WHITE));
+                        }
+                    }
+                } else if (!isNegated) {
+                    maker.resetColours();
                 }
-                // Now for background
-                if (string.charAt(count) == ',' && hasHexString(string, count + 1)) {
-                    count++;
+                return pos - offset;
+            }
 
+            case IRCControlCodes.COLOUR_HEX: {
+                int pos = offset + 1;
+                if (hasHexString(string, pos)) {
                     if (!isNegated) {
-                        maker.setBackground(colourManager.getColourFromString(
-                                string.substring(count, count + 6).toUpperCase(), Colour.WHITE));
+                        maker.setForeground(colourManager.getColourFromString(
+                                string.substring(pos, pos + 6).toUpperCase(), Colour.WHITE));
                     }
 
-                    count += 6;
-                }
-            } else if (!isNegated) {
-                maker.resetColours();
-            }
-            return count;
-        }
+                    pos += 6;
 
-        // Control code negation
-        if (string.charAt(0) == IRCControlCodes.NEGATE) {
-            state.isNegated = !state.isNegated;
-            return 1;
-        }
+                    // Now for background
+                    if (pos < length && string.charAt(pos) == ','
+                            && hasHexString(string, pos + 1)) {
+                        pos++;
 
-        // Smilies!!
-        if (string.charAt(0) == CODE_SMILIE) {
-            if (state.isInSmilie) {
-                maker.endSmilie();
-            } else {
-                maker.startSmilie("smilie-" + readUntilControl(string.substring(1)));
-            }
-            state.isInSmilie = !state.isInSmilie;
+                        if (!isNegated) {
+                            maker.setBackground(colourManager.getColourFromString(
+                                    string.substring(pos, pos + 6).toUpperCase(), Colour.WHITE));
+                        }
 
-            return 1;
-        }
+                        pos += 6;
+                    }
+                } else if (!isNegated) {
+                    maker.resetColours();
+                }
+                return pos - offset;
+            }
 
-        // Tooltips
-        if (string.charAt(0) == CODE_TOOLTIP) {
-            if (state.isInToolTip) {
-                maker.endToolTip();
-            } else {
-                final int index = string.indexOf(CODE_TOOLTIP, 1);
+            case IRCControlCodes.NEGATE:
+                state.isNegated = !state.isNegated;
+                return 1;
 
-                if (index == -1) {
-                    // Doesn't make much sense, let's ignore it!
-                    return 1;
+            case CODE_SMILIE:
+                if (state.isInSmilie) {
+                    maker.endSmilie();
+                } else {
+                    maker.startSmilie("smilie-" + readArgument(string, offset));
                 }
+                state.isInSmilie = !state.isInSmilie;
+                return 1;
+
+            case CODE_TOOLTIP:
+                if (state.isInToolTip) {
+                    maker.endToolTip();
+                } else {
+                    final int index = string.indexOf(CODE_TOOLTIP, offset + 1);
+
+                    if (index == -1) {
+                        // Doesn't make much sense, let's ignore it!
+                        return 1;
+                    }
 
-                final String tooltip = string.substring(1, index);
+                    final String tooltip = string.substring(offset + 1, index);
 
-                maker.startToolTip(tooltip);
+                    maker.startToolTip(tooltip);
 
+                    state.isInToolTip = !state.isInToolTip;
+                    return tooltip.length() + 2;
+                }
                 state.isInToolTip = !state.isInToolTip;
-                return tooltip.length() + 2;
-            }
-            state.isInToolTip = !state.isInToolTip;
+                return 1;
 
-            return 1;
+            default:
+                return 0;
         }
-
-        return 0;
     }
 
     /**
@@ -508,16 +539,24 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
         if (input.length() < offset + 6) {
             return false;
         }
-        boolean res = true;
         for (int i = offset; i < 6 + offset; i++) {
-            res = res && isHex(input.toUpperCase(Locale.getDefault()).charAt(i));
+            if (!isHex(Character.toUpperCase(input.charAt(i)))) {
+                return false;
+            }
         }
 
-        return res;
+        return true;
     }
 
     @Override
     public void configChanged(final String domain, final String key) {
+        if ("icon".equals(domain)) {
+            if (key.startsWith("smilie-")) {
+                smiliePattern = null;
+            }
+            return;
+        }
+
         switch (key) {
             case "stylelinks":
                 styleURIs = configManager.getOptionBool("ui", "stylelinks");
@@ -536,6 +575,21 @@ public class Styliser implements ConfigChangeListener, StyleApplier {
         }
     }
 
+    /**
+     * A compiled channel pattern, along with the prefixes it was compiled for.
+     */
+    private static class ChannelPattern {
+
+        final String prefixes;
+        final Pattern pattern;
+
+        ChannelPattern(final String prefixes) {
+            this.prefixes = prefixes;
+            this.pattern = Pattern.compile(String.format(URL_CHANNEL, prefixes));
+        }
+
+    }
+
     private static class StyliserState {
 
         boolean isNegated;
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.dmdirc.ui.messages;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Forwards document events to another listener for as long as it is reachable, and unregisters
+ * itself from the document once it is not.
+ *
+ * <p>This allows caches that follow a document to be abandoned without being explicitly disposed
+ * of, as the document does not keep them alive.
+ */
+class WeakDocumentListener implements DocumentListener {
+
+    /** The document this listener is registered with. */
+    private final Document document;
+    /** The listener to forward events to. */
+    private final WeakReference<DocumentListener> target;
+
+    /**
+     * Creates a new listener that forwards events to the given target. The new listener must
+     * still be registered with the document.
+     *
+     * @param document The document the listener will be registered with.
+     * @param target The listener to forward events to.
+     */
+    WeakDocumentListener(final Document document, final DocumentListener target) {
+        this.document = document;
+        this.target = new WeakReference<>(target);
+    }
+
+    /**
+     * Gets the target listener, unregistering this listener if it has been collected.
+     *
+     * @return The target listener, or {@code null} if it no longer exists.
+     */
+    private DocumentListener getTarget() {
+        final DocumentListener listener = target.get();
+        if (listener == null) {
+            document.removeIRCDocumentListener(this);
+        }
+        return listener;
+    }
+
+    @Override
+    public void linesAdded(final int line, final int length, final int size) {
+        final DocumentListener listener = getTarget();
+        if (listener != null) {
+            listener.linesAdded(line, length, size);
+        }
+    }
+
+    @Override
+    public void trimmed(final int newSize, final int numTrimmed) {
+        final DocumentListener listener = getTarget();
+        if (listener != null) {
+            listener.trimmed(newSize, numTrimmed);
+        }
+    }
+
+    @Override
+    public void cleared() {
+        final DocumentListener listener = getTarget();
+        if (listener != null) {
+            listener.cleared();
+        }
+    }
+
+    @Override
+    public void repaintNeeded() {
+        final DocumentListener listener = getTarget();
+        if (listener != null) {
+            listener.repaintNeeded();
+        }
+    }
+
+}
@@ -53,6 +53,7 @@ public class YamlEventFormatProvider implements EventFormatProvider {
     private final Path path;
     private final ColourManager colourManager;
     private final DisplayLocationManager displayLocationManager;
+    /** Formats, with their templates already compiled, keyed on the simple name of the event. */
     private final Map<String, EventFormat> formats = new HashMap<>();
 
     public YamlEventFormatProvider(final Path path, final ColourManager colourManager,
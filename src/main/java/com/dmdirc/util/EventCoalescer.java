@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.util;
+
+import com.dmdirc.config.binding.ConfigBinding;
+import com.dmdirc.events.eventbus.BaseEvent;
+import com.dmdirc.events.eventbus.EventBus;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Coalesces bursts of related events raised by a single window.
+ *
+ * <p>The first event of a given kind is published immediately. Any further events of the same
+ * kind raised within the configured delay are held back, and once the delay expires a single
+ * summary event is published in their place. The coalescer keeps doing this until a full delay
+ * passes without any events of that kind, so a long burst results in at most one event per delay.
+ */
+public class EventCoalescer {
+
+    /** The default delay, in milliseconds. */
+    public static final int DEFAULT_DELAY = 100;
+
+    /** The bus to publish events on. */
+    private final EventBus eventBus;
+    /** The executor to schedule the end of each burst on. */
+    private final ScheduledExecutorService executor;
+    /** The bursts currently in progress, keyed on their kind. Guarded by {@code this}. */
+    private final Map<Object, Burst> bursts = new HashMap<>();
+    /** The time to hold back events for, in milliseconds. */
+    private volatile int delay;
+
+    public EventCoalescer(final EventBus eventBus, final ScheduledExecutorService executor) {
+        this(eventBus, executor, DEFAULT_DELAY);
+    }
+
+    public EventCoalescer(final EventBus eventBus, final ScheduledExecutorService executor,
+            final int delay) {
+        this.eventBus = eventBus;
+        this.executor = executor;
+        this.delay = delay;
+    }
+
+    /**
+     * Sets the time to hold back events for. A delay of zero or less disables coalescing.
+     *
+     * @param delay The new delay, in milliseconds.
+     */
+    @ConfigBinding(domain = "ui", key = "eventCoalesceDelay")
+    public void setDelay(final int delay) {
+        this.delay = delay;
+    }
+
+    /**
+     * Publishes an event asynchronously, coalescing it with other events of the same kind.
+     *
+     * @param kind    The kind of event. Events of the same kind are coalesced together.
+     * @param event   The event to publish if no burst of this kind is in progress.
+     * @param summary Supplier of the event to publish at the end of the delay in place of any
+     *                events that were held back. Called on the coalescer's thread.
+     */
+    public void publish(final Object kind, final BaseEvent event,
+            final Supplier<? extends BaseEvent> summary) {
+        final int currentDelay = delay;
+        synchronized (this) {
+            final Burst burst = bursts.get(kind);
+            if (burst != null) {
+                burst.summary = summary;
+                return;
+            }
+
+            if (currentDelay > 0) {
+                bursts.put(kind, new Burst(schedule(kind, currentDelay)));
+            }
+
+            // Published while holding the lock so that a summary can't overtake it.
+            eventBus.publishAsync(event);
+        }
+    }
+
+    /**
+     * Discards any events of the given kind that are being held back.
+     *
+     * @param kind The kind of event to discard.
+     */
+    public synchronized void discard(final Object kind) {
+        final Burst burst = bursts.remove(kind);
+        if (burst != null) {
+            burst.future.cancel(false);
+        }
+    }
+
+    /**
+     * Discards all events that are being held back.
+     */
+    public synchronized void discardAll() {
+        bursts.values().forEach(burst -> burst.future.cancel(false));
+        bursts.clear();
+    }
+
+    /**
+     * Ends the current period of a burst. If any events were held back, a summary is published and
+     * a new period started; otherwise the burst is over.
+     *
+     * @param kind The kind of event being coalesced.
+     */
+    private synchronized void flush(final Object kind) {
+        final Burst burst = bursts.get(kind);
+        if (burst == null) {
+            return;
+        }
+
+        if (burst.summary == null || delay <= 0) {
+            bursts.remove(kind);
+        } else {
+            burst.future = schedule(kind, delay);
+        }
+
+        if (burst.summary != null) {
+            eventBus.publishAsync(burst.summary.get());
+            burst.summary = null;
+        }
+    }
+
+    /**
+     * Schedules the end of a burst's current period.
+     *
+     * @param kind  The kind of event being coalesced.
+     * @param delay The length of the period, in milliseconds.
+     * @return A future representing the scheduled flush.
+     */
+    private ScheduledFuture<?> schedule(final Object kind, final int delay) {
+        return executor.schedule(() -> flush(kind), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A burst of events of a single kind.
+     */
+    private static class Burst {
+
+        /** The scheduled end of the burst's current period. */
+        private ScheduledFuture<?> future;
+        /** Supplier of the summary to publish, if any events have been held back. */
+        @Nullable private Supplier<? extends BaseEvent> summary;
+
+        Burst(final ScheduledFuture<?> future) {
+            this.future = future;
+        }
+
+    }
+
+}
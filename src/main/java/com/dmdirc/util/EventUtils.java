@@ -17,7 +17,18 @@
 
 package com.dmdirc.util;
 
+import com.dmdirc.events.ChannelEvent;
 import com.dmdirc.events.DisplayableEvent;
+import com.dmdirc.events.QueryEvent;
+import com.dmdirc.events.ServerEvent;
+import com.dmdirc.events.SourcedEvent;
+import com.dmdirc.events.eventbus.BaseEvent;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.interfaces.WindowModel;
+
+import java.util.Optional;
+
+import javax.annotation.Nullable;
 
 /**
  * Utilities for interacting with events.
@@ -39,4 +50,37 @@ public final class EventUtils {
     private EventUtils() {
     }
 
+    /**
+     * Gets the key used to order asynchronous dispatch of the given event. Events relating to the
+     * same connection share a key, so they are delivered in the order they were raised.
+     *
+     * @param event The event to get the ordering key of.
+     * @return The event's connection, or its source window if it has no connection, or
+     * {@code null} if neither is known.
+     */
+    @Nullable
+    public static Object getOrderingKey(final BaseEvent event) {
+        if (event instanceof ServerEvent) {
+            return ((ServerEvent) event).getConnection();
+        }
+
+        final WindowModel window;
+        if (event instanceof ChannelEvent) {
+            window = ((ChannelEvent) event).getChannel().getWindowModel();
+        } else if (event instanceof QueryEvent) {
+            window = ((QueryEvent) event).getQuery().getWindowModel();
+        } else if (event instanceof SourcedEvent) {
+            window = ((SourcedEvent) event).getSource();
+        } else {
+            return null;
+        }
+
+        if (window == null) {
+            return null;
+        }
+
+        final Optional<Connection> connection = window.getConnection();
+        return connection.isPresent() ? connection.get() : window;
+    }
+
 }
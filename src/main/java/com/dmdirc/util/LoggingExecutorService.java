@@ -20,6 +20,7 @@ package com.dmdirc.util;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -65,7 +66,23 @@ public class LoggingExecutorService extends ThreadPoolExecutor {
      */
     public LoggingExecutorService(final int coreSize, final int maxSize,
             final BiConsumer<Runnable, Throwable> afterExecute, final String poolName) {
-        super(coreSize, maxSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(5));
+        this(coreSize, maxSize, new ArrayBlockingQueue<>(5), afterExecute, poolName);
+    }
+
+    /**
+     * Creates a new instance of this executor service.
+     *
+     * @param coreSize     The number of threads to keep in the pool, even if they are idle,
+     *                     unless {@code allowCoreThreadTimeOut} is set
+     * @param maxSize      The maximum number of threads to allow in the pool
+     * @param queue        The queue to hold tasks in until a thread is available
+     * @param afterExecute The function to call when an exception occurs
+     * @param poolName     The naming format to use when naming threads
+     */
+    public LoggingExecutorService(final int coreSize, final int maxSize,
+            final BlockingQueue<Runnable> queue,
+            final BiConsumer<Runnable, Throwable> afterExecute, final String poolName) {
+        super(coreSize, maxSize, 0, TimeUnit.MILLISECONDS, queue);
         this.afterExecute = afterExecute;
         setThreadFactory(new ThreadFactoryBuilder().setNameFormat(poolName + "-%d").build());
     }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A group of timers scheduled on a shared executor.
+ *
+ * <p>Shutting down the group cancels every timer that has not yet run, without interrupting any
+ * that are in progress, and leaves the shared executor untouched. Unlike a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}, delayed tasks are not run after the
+ * group is shut down, and the group does not wait for running tasks in order to terminate.
+ */
+class TimerGroup extends AbstractExecutorService implements ScheduledExecutorService {
+
+    /** The executor timers are scheduled on. */
+    private final ScheduledExecutorService executor;
+    /** The timers scheduled through this group that may not have finished. */
+    private final Set<Future<?>> timers = ConcurrentHashMap.newKeySet();
+    /** Whether the group has been shut down. */
+    private volatile boolean shutdown;
+
+    TimerGroup(final ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay,
+            final TimeUnit unit) {
+        return track(() -> executor.schedule(command, delay, unit));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(final Callable<V> callable, final long delay,
+            final TimeUnit unit) {
+        return track(() -> executor.schedule(callable, delay, unit));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable command, final long initialDelay,
+            final long period, final TimeUnit unit) {
+        return track(() -> executor.scheduleAtFixedRate(command, initialDelay, period, unit));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(final Runnable command,
+            final long initialDelay, final long delay, final TimeUnit unit) {
+        return track(() -> executor.scheduleWithFixedDelay(command, initialDelay, delay, unit));
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        timers.forEach(timer -> timer.cancel(false));
+        timers.clear();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+        return isTerminated();
+    }
+
+    /**
+     * Gets the number of timers scheduled through this group that have not yet finished.
+     *
+     * @return The number of outstanding timers.
+     */
+    int getActiveTimers() {
+        timers.removeIf(Future::isDone);
+        return timers.size();
+    }
+
+    /**
+     * Schedules a timer and records it so that it can be cancelled when the group shuts down.
+     *
+     * @param scheduler Function that schedules the timer on the shared executor.
+     * @param <T>       The type of future returned by the scheduler.
+     * @return The scheduled timer.
+     */
+    private <T extends Future<?>> T track(final Supplier<T> scheduler) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Timer group has been shut down");
+        }
+
+        timers.removeIf(Future::isDone);
+        final T timer = scheduler.get();
+        timers.add(timer);
+
+        if (shutdown) {
+            // Lost a race with shutdown(), which may not have seen this timer.
+            timer.cancel(false);
+        }
+        return timer;
+    }
+
+}
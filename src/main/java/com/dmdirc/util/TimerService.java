@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.util;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Provides a small pool of threads shared by all of the client's timers, such as composition
+ * timeouts and reconnect delays.
+ *
+ * <p>Components should not shut down the shared pool, but instead request their own
+ * {@link #createGroup() group}. Shutting down a group cancels just the timers scheduled through
+ * it, without interrupting any that are already running.
+ */
+@Singleton
+public class TimerService {
+
+    /** The default number of threads in the pool. */
+    public static final int DEFAULT_POOL_SIZE = 2;
+    /** The time an idle thread is kept alive for, in seconds. */
+    private static final long KEEP_ALIVE = 60;
+
+    /** The executor that runs all timers. */
+    private final ScheduledThreadPoolExecutor executor;
+
+    @Inject
+    public TimerService() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    public TimerService(final int poolSize) {
+        executor = new LoggingScheduledExecutorService(poolSize, "Timer");
+        executor.setKeepAliveTime(KEEP_ALIVE, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Creates a new group of timers that share this service's threads.
+     *
+     * @return A new executor service for scheduling timers.
+     */
+    public ScheduledExecutorService createGroup() {
+        return new TimerGroup(executor);
+    }
+
+    /**
+     * Gets the number of timers waiting to run. Cancelled timers are not counted.
+     *
+     * @return The number of timers currently scheduled.
+     */
+    public int getActiveTimers() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of timers that are currently running.
+     *
+     * @return The number of timers currently being executed.
+     */
+    public int getRunningTimers() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Gets the number of timers that have finished running since this service was created.
+     *
+     * @return The approximate number of completed timers.
+     */
+    public long getCompletedTimers() {
+        return executor.getCompletedTaskCount();
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.parser.events.ChannelMessageEvent;
+import com.dmdirc.parser.events.OtherAwayStateEvent;
+import com.dmdirc.parser.interfaces.ChannelInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ChannelEventDispatcherTest {
+
+    @Mock private Connection connection;
+    @Mock private Channel channel1;
+    @Mock private Channel channel2;
+    @Mock private ChannelEventHandler handler1;
+    @Mock private ChannelEventHandler handler2;
+    @Mock private ChannelInfo channelInfo;
+    @Mock private ChannelMessageEvent messageEvent;
+    @Mock private OtherAwayStateEvent awayEvent;
+    private ChannelEventDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        when(channel1.getName()).thenReturn("#DMDirc");
+        when(channel1.getEventHandler()).thenReturn(handler1);
+        when(channel2.getName()).thenReturn("#other");
+        when(channel2.getEventHandler()).thenReturn(handler2);
+        when(messageEvent.getChannel()).thenReturn(channelInfo);
+
+        final ChannelMap channels = new ChannelMap();
+        channels.add(channel1);
+        channels.add(channel2);
+        dispatcher = new ChannelEventDispatcher(connection, channels);
+    }
+
+    @Test
+    public void testDispatchesOnlyToNamedChannel() {
+        when(channelInfo.getName()).thenReturn("#DMDirc");
+        dispatcher.onChannelMessage(messageEvent);
+        verify(handler1).onChannelMessage(messageEvent);
+        verify(handler2, never()).onChannelMessage(messageEvent);
+    }
+
+    @Test
+    public void testLooksUpChannelsCaseInsensitively() {
+        when(channelInfo.getName()).thenReturn("#dmdirc");
+        dispatcher.onChannelMessage(messageEvent);
+        verify(handler1).onChannelMessage(messageEvent);
+    }
+
+    @Test
+    public void testDropsEventsForUnknownChannels() {
+        when(channelInfo.getName()).thenReturn("#unknown");
+        dispatcher.onChannelMessage(messageEvent);
+        verify(handler1, never()).onChannelMessage(messageEvent);
+        verify(handler2, never()).onChannelMessage(messageEvent);
+    }
+
+    @Test
+    public void testDispatchesAwayStatesToAllChannels() {
+        dispatcher.onAwayStateOther(awayEvent);
+        verify(handler1).onAwayStateOther(awayEvent);
+        verify(handler2).onAwayStateOther(awayEvent);
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.interfaces.GroupChat;
+import com.dmdirc.interfaces.GroupChatUser;
+import com.dmdirc.interfaces.User;
+import com.dmdirc.parser.interfaces.ChannelClientInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GroupChatUserManagerTest {
+
+    @Mock private GroupChatUserFactory factory;
+    @Mock private UserManager userManager;
+    @Mock private User user;
+    @Mock private GroupChat channel1;
+    @Mock private GroupChat channel2;
+    @Mock private ChannelClientInfo client1;
+    @Mock private ChannelClientInfo client2;
+    @Mock private GroupChatUser user1;
+    @Mock private GroupChatUser user2;
+    private GroupChatUserManager manager;
+
+    @Before
+    public void setUp() {
+        when(factory.getGroupChatUser(user, channel1, client1)).thenReturn(user1);
+        when(factory.getGroupChatUser(user, channel2, client2)).thenReturn(user2);
+        manager = new GroupChatUserManager(factory, userManager);
+    }
+
+    @Test
+    public void testReturnsSameUserForClient() {
+        assertSame(user1, manager.getUserFromClient(client1, user, channel1));
+        assertSame(user1, manager.getUserFromClient(client1, user, channel1));
+        verify(factory, times(1)).getGroupChatUser(user, channel1, client1);
+        assertEquals(1, manager.getCacheSize());
+    }
+
+    @Test
+    public void testRemoveUser() {
+        manager.getUserFromClient(client1, user, channel1);
+        manager.getUserFromClient(client2, user, channel2);
+        manager.removeUser(client1);
+        assertEquals(1, manager.getCacheSize());
+
+        final GroupChatUser replacement = mock(GroupChatUser.class);
+        when(factory.getGroupChatUser(user, channel1, client1)).thenReturn(replacement);
+        assertNotSame(user1, manager.getUserFromClient(client1, user, channel1));
+    }
+
+    @Test
+    public void testRemoveUsersForGroupChat() {
+        when(user1.getGroupChat()).thenReturn(channel1);
+        when(user2.getGroupChat()).thenReturn(channel2);
+        manager.getUserFromClient(client1, user, channel1);
+        manager.getUserFromClient(client2, user, channel2);
+        manager.removeUsers(channel1);
+        assertEquals(1, manager.getCacheSize());
+        assertSame(user2, manager.getUserFromClient(client2, user, channel2));
+    }
+
+}
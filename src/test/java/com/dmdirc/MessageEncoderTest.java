@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.interfaces.GroupChat;
+import com.dmdirc.interfaces.GroupChatManager;
+import com.dmdirc.interfaces.WindowModel;
+import com.dmdirc.parser.interfaces.Parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MessageEncoderTest {
+
+    private static final byte[] LATIN1 = "café".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] UTF8 = "café".getBytes(StandardCharsets.UTF_8);
+
+    @Mock private Connection connection;
+    @Mock private Parser parser;
+    @Mock private GroupChatManager groupChatManager;
+    @Mock private GroupChat channel;
+    @Mock private WindowModel serverWindow;
+    @Mock private WindowModel channelWindow;
+    @Mock private AggregateConfigProvider serverConfig;
+    @Mock private AggregateConfigProvider channelConfig;
+    private MessageEncoder encoder;
+
+    @Before
+    public void setUp() {
+        when(connection.getWindowModel()).thenReturn(serverWindow);
+        when(connection.getGroupChatManager()).thenReturn(groupChatManager);
+        when(serverWindow.getConfigManager()).thenReturn(serverConfig);
+        when(channelWindow.getConfigManager()).thenReturn(channelConfig);
+        when(channel.getWindowModel()).thenReturn(channelWindow);
+        when(parser.isValidChannelName("#channel")).thenReturn(true);
+        when(groupChatManager.getChannel("#channel")).thenReturn(Optional.of(channel));
+        when(serverConfig.getOption("general", "encoding")).thenReturn("UTF-8");
+        encoder = new MessageEncoder(connection, parser);
+    }
+
+    @Test
+    public void testUsesServerEncoding() {
+        assertEquals("café", encoder.encode("nick", "nick", UTF8, 0, UTF8.length));
+    }
+
+    @Test
+    public void testUsesChannelEncoding() {
+        when(channelConfig.getOption("general", "encoding")).thenReturn("ISO-8859-1");
+        assertEquals("café", encoder.encode("nick", "#channel", LATIN1, 0, LATIN1.length));
+    }
+
+    @Test
+    public void testDoesNotListenToConfig() {
+        encoder.encode("nick", "nick", UTF8, 0, UTF8.length);
+        verify(serverConfig, never()).addChangeListener(anyString(), anyString(), any());
+        verify(serverConfig, never()).addChangeListener(anyString(), any());
+    }
+
+    @Test
+    public void testRereadsEncodingWhenChanged() {
+        assertEquals("café", encoder.encode("nick", "nick", UTF8, 0, UTF8.length));
+        when(serverConfig.getOption("general", "encoding")).thenReturn("ISO-8859-1");
+        assertEquals("café", encoder.encode("nick", "nick", LATIN1, 0, LATIN1.length));
+    }
+
+    @Test
+    public void testRereadsAutodetectWhenChanged() {
+        when(channelConfig.getOption("general", "encoding")).thenReturn("ISO-8859-1");
+        assertEquals("cafÃ©", encoder.encode("nick", "#channel", UTF8, 0, UTF8.length));
+        when(channelConfig.getOptionBool("general", "autodetectencoding")).thenReturn(true);
+        assertEquals("café", encoder.encode("nick", "#channel", UTF8, 0, UTF8.length));
+    }
+
+    @Test
+    public void testFallsBackForUnsupportedEncoding() {
+        when(serverConfig.getOption("general", "encoding")).thenReturn("not-a-charset");
+        assertEquals("abc", encoder.encode("nick", "nick", "xabc".getBytes(), 1, 3));
+    }
+
+    @Test
+    public void testAutodetectsUtf8() {
+        when(channelConfig.getOption("general", "encoding")).thenReturn("ISO-8859-1");
+        when(channelConfig.getOptionBool("general", "autodetectencoding")).thenReturn(true);
+        assertEquals("café", encoder.encode("nick", "#channel", UTF8, 0, UTF8.length));
+        assertEquals("café", encoder.encode("nick", "#channel", LATIN1, 0, LATIN1.length));
+    }
+
+}
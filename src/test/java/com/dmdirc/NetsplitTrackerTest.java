@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.events.BaseChannelNetsplitEvent;
+import com.dmdirc.events.ChannelNetjoinEvent;
+import com.dmdirc.events.ChannelNetsplitEvent;
+import com.dmdirc.events.eventbus.BaseEvent;
+import com.dmdirc.events.eventbus.EventBus;
+import com.dmdirc.interfaces.GroupChat;
+import com.dmdirc.interfaces.GroupChatUser;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NetsplitTrackerTest {
+
+    private static final String SPLIT = "hub.example.com leaf.example.com";
+
+    @Mock private ScheduledExecutorService executor;
+    @Mock private GroupChat channel;
+    @Mock private EventBus eventBus;
+    @Mock private GroupChatUser user1;
+    @Mock private GroupChatUser user2;
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final LocalDateTime date = LocalDateTime.now();
+    private long time;
+    private NetsplitTracker tracker;
+
+    @Before
+    public void setup() {
+        when(channel.getEventBus()).thenReturn(eventBus);
+        when(user1.getNickname()).thenReturn("user1");
+        when(user2.getNickname()).thenReturn("user2");
+        when(executor.schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS)))
+                .thenAnswer(invocation -> {
+                    scheduled.add((Runnable) invocation.getArguments()[0]);
+                    return null;
+                });
+        tracker = new NetsplitTracker(executor, () -> time);
+    }
+
+    @Test
+    public void testIgnoresNormalQuits() {
+        assertFalse(tracker.handleQuit(channel, user1, "Quit: bye", date));
+        assertFalse(tracker.handleQuit(channel, user1, "", date));
+        assertFalse(tracker.handleQuit(channel, user1, null, date));
+        assertFalse(tracker.handleQuit(channel, user1, "http://a.b c.d", date));
+        verify(executor, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void testIgnoresJoinsWithoutSplit() {
+        assertFalse(tracker.handleJoin(channel, user1, date));
+    }
+
+    @Test
+    public void testSummarisesSplitQuits() {
+        assertTrue(tracker.handleQuit(channel, user1, SPLIT, date));
+        assertTrue(tracker.handleQuit(channel, user2, SPLIT, date));
+
+        time += NetsplitTracker.QUIT_DELAY;
+        runScheduled(1);
+
+        final ChannelNetsplitEvent event = getEvent(ChannelNetsplitEvent.class);
+        assertEquals("hub.example.com", event.getServer1());
+        assertEquals("leaf.example.com", event.getServer2());
+        assertEquals(2, event.getUserCount());
+        assertEquals("user1, user2", event.getNicknames());
+        assertEquals(date, event.getTimestamp());
+    }
+
+    @Test
+    public void testWaitsForQuitsToStop() {
+        tracker.handleQuit(channel, user1, SPLIT, date);
+        time += NetsplitTracker.QUIT_DELAY - 1;
+        tracker.handleQuit(channel, user2, SPLIT, date);
+        time += 1;
+        runScheduled(1);
+
+        verify(eventBus, never()).publishAsync(any());
+        time += NetsplitTracker.QUIT_DELAY;
+        runScheduled(2);
+        assertEquals(2, getEvent(ChannelNetsplitEvent.class).getUserCount());
+    }
+
+    @Test
+    public void testSummarisesRejoins() {
+        tracker.handleQuit(channel, user1, SPLIT, date);
+        tracker.handleQuit(channel, user2, SPLIT, date);
+        time += NetsplitTracker.QUIT_DELAY;
+        runScheduled(1);
+
+        assertTrue(tracker.handleJoin(channel, user1, date));
+        assertTrue(tracker.handleJoin(channel, user2, date));
+        time += NetsplitTracker.JOIN_DELAY;
+        runScheduled(2);
+
+        final ChannelNetjoinEvent event = getEvent(ChannelNetjoinEvent.class);
+        assertEquals(SPLIT, event.getServer1() + ' ' + event.getServer2());
+        assertEquals(2, event.getUserCount());
+
+        // Once the netjoin has been summarised, later joins are displayed as normal.
+        assertFalse(tracker.handleJoin(channel, user1, date));
+    }
+
+    @Test
+    public void testForgetsOldSplits() {
+        tracker.handleQuit(channel, user1, SPLIT, date);
+        time += NetsplitTracker.SPLIT_EXPIRY + 1;
+        assertFalse(tracker.handleJoin(channel, user1, date));
+    }
+
+    @Test
+    public void testClearForgetsSplits() {
+        tracker.handleQuit(channel, user1, SPLIT, date);
+        tracker.clear();
+        assertFalse(tracker.handleJoin(channel, user1, date));
+    }
+
+    private void runScheduled(final int count) {
+        assertEquals(count, scheduled.size());
+        scheduled.get(count - 1).run();
+    }
+
+    private <T extends BaseChannelNetsplitEvent> T getEvent(final Class<T> type) {
+        final ArgumentCaptor<BaseEvent> captor = ArgumentCaptor.forClass(BaseEvent.class);
+        verify(eventBus, atLeastOnce()).publishAsync(captor.capture());
+        assertTrue(type.isInstance(captor.getValue()));
+        return type.cast(captor.getValue());
+    }
+
+}
@@ -31,6 +31,7 @@ import com.dmdirc.config.provider.ConfigProviderMigrator;
 import com.dmdirc.interfaces.config.IdentityFactory;
 import com.dmdirc.parser.common.ChannelJoinRequest;
 import com.dmdirc.ui.WindowManager;
+import com.dmdirc.util.TimerService;
 import java.net.URI;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
@@ -43,7 +44,6 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -64,6 +64,8 @@ public class ServerManagerTest {
     @Mock private GroupChatManager groupChatManager;
     @Mock private EventBus eventBus;
     @Mock private Channel channel;
+    @Mock private TimerService timerService;
+    @Mock private ScheduledExecutorService timerGroup;
 
     @Captor private ArgumentCaptor<URI> uriCaptor;
 
@@ -71,7 +73,8 @@ public class ServerManagerTest {
 
     @Before
     public void setUp() throws Exception {
-        serverManager = new ServerManager(profileManager, identityFactory, windowManager, serverFactoryImpl, eventBus);
+        serverManager = new ServerManager(profileManager, identityFactory, windowManager,
+                serverFactoryImpl, eventBus, timerService);
 
         when(server.getState()).thenReturn(ServerState.DISCONNECTED);
         when(server.getWindowModel()).thenReturn(windowModel);
@@ -80,8 +83,9 @@ public class ServerManagerTest {
         when(identityFactory.createMigratableConfig(anyString(), anyString(), anyString(),
                 anyString())).thenReturn(configProviderMigrator);
 
+        when(timerService.createGroup()).thenReturn(timerGroup);
         when(serverFactoryImpl.getServer(eq(configProviderMigrator),
-                any(ScheduledExecutorService.class), uriCaptor.capture(), eq(profile)))
+                eq(timerGroup), uriCaptor.capture(), eq(profile)))
                 .thenReturn(server);
     }
 
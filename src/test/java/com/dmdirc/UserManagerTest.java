@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc;
+
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.interfaces.User;
+import com.dmdirc.parser.interfaces.ClientInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserManagerTest {
+
+    @Mock private UserFactory factory;
+    @Mock private Connection connection1;
+    @Mock private Connection connection2;
+    @Mock private ClientInfo client1;
+    @Mock private ClientInfo client2;
+    @Mock private User user1;
+    @Mock private User user2;
+    private UserManager manager;
+
+    @Before
+    public void setUp() {
+        when(factory.getUser(connection1, client1)).thenReturn(user1);
+        when(factory.getUser(connection2, client2)).thenReturn(user2);
+        manager = new UserManager(factory);
+    }
+
+    @Test
+    public void testReturnsSameUserForClient() {
+        assertSame(user1, manager.getUserFromClientInfo(client1, connection1));
+        assertSame(user1, manager.getUserFromClientInfo(client1, connection1));
+        verify(factory, times(1)).getUser(connection1, client1);
+        assertEquals(1, manager.getCacheSize());
+    }
+
+    @Test
+    public void testRemoveUsersForConnection() {
+        when(user1.getConnection()).thenReturn(connection1);
+        when(user2.getConnection()).thenReturn(connection2);
+        manager.getUserFromClientInfo(client1, connection1);
+        manager.getUserFromClientInfo(client2, connection2);
+        manager.removeUsers(connection1);
+        assertEquals(1, manager.getCacheSize());
+        assertSame(user2, manager.getUserFromClientInfo(client2, connection2));
+    }
+
+}
@@ -85,6 +85,45 @@ public class AliasCommandHandlerTest {
         verify(commandParser).parseCommand(container, "#test2 agadoo do do agadoo do do");
     }
 
+    @Test
+    public void testMultiLineAlias() {
+        final Alias alias = new Alias(CommandType.TYPE_CHAT, "test", 0, "test2 $1\n  test3 $2-  ");
+        final AliasCommandHandler handler = new AliasCommandHandler(commandController, alias);
+        final CommandArguments arguments
+                = new CommandArguments(commandController, "#test agadoo do do");
+        handler.execute(container, arguments, context);
+        verify(commandParser).parseCommand(container, "#test2 agadoo");
+        verify(commandParser).parseCommand(container, "#test3 do do");
+    }
+
+    @Test
+    public void testMissingArgumentsAreNotSubstituted() {
+        final Alias alias = new Alias(CommandType.TYPE_CHAT, "test", 0, "test2 $1 $2 $3- $0 $");
+        final AliasCommandHandler handler = new AliasCommandHandler(commandController, alias);
+        final CommandArguments arguments = new CommandArguments(commandController, "#test agadoo");
+        handler.execute(container, arguments, context);
+        verify(commandParser).parseCommand(container, "#test2 agadoo $2 $3- $0 $");
+    }
+
+    @Test
+    public void testDoubleDigitArguments() {
+        final Alias alias = new Alias(CommandType.TYPE_CHAT, "test", 0, "test2 $10 $1");
+        final AliasCommandHandler handler = new AliasCommandHandler(commandController, alias);
+        final CommandArguments arguments
+                = new CommandArguments(commandController, "#test a b c d e f g h i j");
+        handler.execute(container, arguments, context);
+        verify(commandParser).parseCommand(container, "#test2 j a");
+    }
+
+    @Test
+    public void testSubstitutedArgumentsAreNotExpanded() {
+        final Alias alias = new Alias(CommandType.TYPE_CHAT, "test", 0, "test2 $1 $2");
+        final AliasCommandHandler handler = new AliasCommandHandler(commandController, alias);
+        final CommandArguments arguments = new CommandArguments(commandController, "#test $2 $1");
+        handler.execute(container, arguments, context);
+        verify(commandParser).parseCommand(container, "#test2 $2 $1");
+    }
+
     @Test
     public void testInsufficientArgsSingular() {
         final Alias alias = new Alias(CommandType.TYPE_CHAT, "test", 1, "blah");
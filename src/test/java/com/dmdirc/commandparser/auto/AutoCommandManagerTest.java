@@ -22,8 +22,13 @@
 
 package com.dmdirc.commandparser.auto;
 
+import com.dmdirc.events.ClientOpenedEvent;
+import com.dmdirc.events.ServerConnectedEvent;
 import com.dmdirc.events.eventbus.EventBus;
+import com.dmdirc.interfaces.Connection;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Before;
@@ -49,6 +54,13 @@ public class AutoCommandManagerTest {
     @Mock private AutoCommandHandler ircquakenetHandler;
     @Mock private AutoCommandHandler ukquakenetHandler;
     @Mock private AutoCommandHandler testnetHandler;
+    @Mock private AutoCommandHandler serverHandler;
+    @Mock private ClientOpenedEvent clientOpenedEvent;
+    @Mock private ServerConnectedEvent serverConnectedEvent;
+    @Mock private ServerConnectedEvent otherEvent;
+    @Mock private Connection connection;
+    @Mock private Connection otherConnection;
+    private final List<Runnable> tasks = new ArrayList<>();
     private AutoCommandManager autoCommandManager;
     private AutoCommand global;
     private AutoCommand ircquakenet;
@@ -57,7 +69,7 @@ public class AutoCommandManagerTest {
 
     @Before
     public void setup() {
-        autoCommandManager = new AutoCommandManager(eventBus, factory);
+        autoCommandManager = new AutoCommandManager(eventBus, factory, tasks::add);
         global = AutoCommand.create(Optional.<String>empty(), Optional.<String>empty(),
                 Optional.<String>empty(), "");
         ircquakenet = AutoCommand.create(Optional.ofNullable("irc.quakenet.org"),
@@ -74,6 +86,9 @@ public class AutoCommandManagerTest {
         autoCommandManager.addAutoCommand(ircquakenet);
         autoCommandManager.addAutoCommand(quakenet);
         autoCommandManager.addAutoCommand(testnet);
+        when(serverConnectedEvent.getConnection()).thenReturn(connection);
+        when(connection.getNetwork()).thenReturn("QuakeNet");
+        when(connection.getAddress()).thenReturn("irc.quakenet.org");
     }
 
     @Test
@@ -165,40 +180,82 @@ public class AutoCommandManagerTest {
     @Test
     public void testStart() {
         autoCommandManager.start();
-        verify(eventBus).subscribe(globalHandler);
+        verify(eventBus).subscribe(autoCommandManager);
     }
 
     @Test
     public void testStop() {
         autoCommandManager.stop();
-        verify(eventBus).unsubscribe(globalHandler);
+        verify(eventBus).unsubscribe(autoCommandManager);
     }
 
     @Test
-    public void testAddWhenStarted() {
-        autoCommandManager.removeAutoCommand(global);
-        autoCommandManager.start();
-        autoCommandManager.addAutoCommand(global);
-        verify(eventBus).subscribe(globalHandler);
+    public void testDispatchesClientOpenedToGlobalCommands() {
+        autoCommandManager.handleClientOpened(clientOpenedEvent);
+        runAll();
+        verify(globalHandler).checkAutoCommand(clientOpenedEvent);
+        verify(ircquakenetHandler, never()).checkAutoCommand(clientOpenedEvent);
+        verify(ukquakenetHandler, never()).checkAutoCommand(clientOpenedEvent);
+        verify(testnetHandler, never()).checkAutoCommand(clientOpenedEvent);
     }
 
     @Test
-    public void testAddWhenStopped() {
-        verify(eventBus, never()).subscribe(globalHandler);
+    public void testDispatchesServerConnectedByNetwork() {
+        autoCommandManager.handleServerConnected(serverConnectedEvent);
+        runAll();
+        verify(ircquakenetHandler).checkAutoCommand(serverConnectedEvent);
+        verify(ukquakenetHandler).checkAutoCommand(serverConnectedEvent);
+        verify(globalHandler, never()).checkAutoCommand(serverConnectedEvent);
+        verify(testnetHandler, never()).checkAutoCommand(serverConnectedEvent);
     }
 
     @Test
-    public void testRemoveWhenStarted() {
-        autoCommandManager.start();
-        autoCommandManager.removeAutoCommand(global);
-        verify(eventBus).subscribe(globalHandler);
-        verify(eventBus).unsubscribe(globalHandler);
+    public void testDispatchesServerConnectedByServer() {
+        final AutoCommand server = AutoCommand.create(Optional.of("IRC.Example.com"),
+                Optional.empty(), Optional.empty(), "");
+        when(factory.getAutoCommandHandler(server)).thenReturn(serverHandler);
+        autoCommandManager.addAutoCommand(server);
+        when(connection.getNetwork()).thenReturn("Example");
+        when(connection.getAddress()).thenReturn("irc.example.com");
+
+        autoCommandManager.handleServerConnected(serverConnectedEvent);
+        runAll();
+        verify(serverHandler).checkAutoCommand(serverConnectedEvent);
+        verify(ukquakenetHandler, never()).checkAutoCommand(serverConnectedEvent);
+    }
+
+    @Test
+    public void testDoesNotDispatchToRemovedCommands() {
+        autoCommandManager.removeAutoCommand(quakenet);
+        autoCommandManager.handleServerConnected(serverConnectedEvent);
+        runAll();
+        verify(ircquakenetHandler).checkAutoCommand(serverConnectedEvent);
+        verify(ukquakenetHandler, never()).checkAutoCommand(serverConnectedEvent);
     }
 
     @Test
-    public void testRemoveWhenStopped() {
-        autoCommandManager.removeAutoCommand(global);
-        verify(eventBus, never()).subscribe(global);
-        verify(eventBus, never()).unsubscribe(globalHandler);
+    public void testExecutesCommandsInOrderForEachConnection() {
+        when(otherEvent.getConnection()).thenReturn(otherConnection);
+        when(otherConnection.getNetwork()).thenReturn("testnet");
+        when(otherConnection.getAddress()).thenReturn("irc.testnet.org");
+
+        autoCommandManager.handleServerConnected(serverConnectedEvent);
+        autoCommandManager.handleServerConnected(otherEvent);
+
+        // One command for each connection may run at once; the next waits for it to finish.
+        assertEquals(2, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(2, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertEquals(0, tasks.size());
     }
-}
\ No newline at end of file
+
+    private void runAll() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+}
@@ -48,6 +48,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -203,6 +204,55 @@ public class ConfigFileBackedConfigProviderTest {
         assertEquals("DMDircircd!", loaded.getTarget().getData());
     }
 
+    @Test
+    public void testSaveExcludesTemporarySettings() throws Exception {
+        final ConfigFileBackedConfigProvider provider = getProvider("simple-ircd");
+        provider.setOption("temp", "test123", "foo");
+        provider.setOption("newdomain", "test123", 47);
+        provider.save();
+
+        final ConfigFileBackedConfigProvider loaded = getProvider("simple-ircd");
+        assertFalse(loaded.hasOptionString("temp", "test123"));
+        assertEquals("47", loaded.getOption("newdomain", "test123"));
+    }
+
+    @Test
+    public void testSaveKeepsTemporarySettingsInMemory() throws Exception {
+        final ConfigFileBackedConfigProvider provider = getProvider("simple-ircd");
+        provider.setOption("temp", "test123", "foo");
+        provider.setOption("newdomain", "test123", 47);
+        provider.save();
+        provider.save();
+
+        assertEquals("foo", provider.getOption("temp", "test123"));
+    }
+
+    @Test
+    public void testSaveRemovesTemporaryFile() throws Exception {
+        final ConfigFileBackedConfigProvider provider = getProvider("simple-ircd");
+        provider.setOption("newdomain", "test123", 47);
+        provider.save();
+
+        assertTrue(Files.exists(jimFsRule.getPath("simple-ircd")));
+        assertFalse(Files.exists(jimFsRule.getPath(
+                "simple-ircd" + ConfigFileBackedConfigProvider.TEMP_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void testSchedulesSaveWhenSettingChanged() throws Exception {
+        final ConfigFileBackedConfigProvider provider = getProvider("simple-ircd");
+        provider.setOption("new", "option", "boo");
+        provider.unsetOption("new", "option");
+        verify(identityManager, times(2)).scheduleSave(provider);
+    }
+
+    @Test
+    public void testDoesNotScheduleSaveForTemporarySettings() throws Exception {
+        final ConfigFileBackedConfigProvider provider = getProvider("simple-ircd");
+        provider.setOption("temp", "option", "boo");
+        verify(identityManager, never()).scheduleSave(provider);
+    }
+
     @Test
     public void testFiresSettingChanged() throws Exception {
         final ConfigFileBackedConfigProvider provider = getProvider("simple-ircd");
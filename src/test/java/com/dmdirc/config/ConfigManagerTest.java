@@ -22,20 +22,27 @@
 
 package com.dmdirc.config;
 
+import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.config.provider.ConfigChangeListener;
 import com.dmdirc.util.validators.PermissiveValidator;
+import java.util.Collections;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ConfigManagerTest {
@@ -52,11 +59,81 @@ public class ConfigManagerTest {
     public void testStats() {
         final ConfigManager cm = new ConfigManager(identityManager, "", "", "", "");
         assertNull(ConfigManager.getStats().get("unit-test123.baz"));
-        cm.hasOption("unit-test123", "baz", new PermissiveValidator<>());
+        ConfigManager.setStatsEnabled(true);
+        try {
+            cm.hasOption("unit-test123", "baz", new PermissiveValidator<>());
+        } finally {
+            ConfigManager.setStatsEnabled(false);
+        }
         assertNotNull(ConfigManager.getStats().get("unit-test123.baz"));
         assertEquals(1, (int) ConfigManager.getStats().get("unit-test123.baz"));
     }
 
+    @Test
+    public void testStatsDisabledByDefault() {
+        final ConfigManager cm = new ConfigManager(identityManager, "", "", "", "");
+        cm.hasOption("unit-test123", "qux", new PermissiveValidator<>());
+        assertNull(ConfigManager.getStats().get("unit-test123.qux"));
+    }
+
+    @Test
+    public void testValuesAreCached() {
+        final ConfigManager cm = new ConfigManager(identityManager, "", "", "", "");
+        final ConfigFileBackedConfigProvider source = mockSource("unit-test", "foo", "bar");
+        cm.checkIdentity(source);
+
+        assertEquals("bar", cm.getOption("unit-test", "foo"));
+        assertEquals("bar", cm.getOption("unit-test", "foo"));
+        assertTrue(cm.hasOptionString("unit-test", "foo"));
+        verify(source).getOption(eq("unit-test"), eq("foo"), any());
+    }
+
+    @Test
+    public void testValidatorAppliedToCachedValues() {
+        final ConfigManager cm = new ConfigManager(identityManager, "", "", "", "");
+        cm.checkIdentity(mockSource("unit-test", "foo", "bar"));
+
+        assertEquals("bar", cm.getOption("unit-test", "foo"));
+        assertFalse(cm.hasOption("unit-test", "foo", AggregateConfigProvider.INT_VALIDATOR));
+        assertNull(cm.getOption("unit-test", "foo", AggregateConfigProvider.INT_VALIDATOR));
+    }
+
+    @Test
+    public void testConfigChangedInvalidatesCache() {
+        final ConfigManager cm = new ConfigManager(identityManager, "", "", "", "");
+        final ConfigFileBackedConfigProvider source = mockSource("unit-test", "foo", "bar");
+        cm.checkIdentity(source);
+        assertEquals("bar", cm.getOption("unit-test", "foo"));
+
+        when(source.getOption(eq("unit-test"), eq("foo"), any())).thenReturn("baz");
+        cm.configChanged("unit-test", "foo");
+        assertEquals("baz", cm.getOption("unit-test", "foo"));
+    }
+
+    @Test
+    public void testRemoveIdentityInvalidatesCache() {
+        final ConfigManager cm = new ConfigManager(identityManager, "", "", "", "");
+        final ConfigFileBackedConfigProvider source = mockSource("unit-test", "foo", "bar");
+        when(source.getDomains()).thenReturn(Collections.singleton("unit-test"));
+        when(source.getOptions("unit-test")).thenReturn(Collections.singletonMap("foo", "bar"));
+        cm.checkIdentity(source);
+        assertEquals("bar", cm.getOption("unit-test", "foo"));
+
+        cm.removeIdentity(source);
+        assertNull(cm.getOption("unit-test", "foo"));
+    }
+
+    private ConfigFileBackedConfigProvider mockSource(final String domain, final String option,
+            final String value) {
+        final ConfigTarget target = new ConfigTarget();
+        target.setGlobal();
+        final ConfigFileBackedConfigProvider source = mock(ConfigFileBackedConfigProvider.class);
+        when(source.getTarget()).thenReturn(target);
+        when(source.hasOption(eq(domain), eq(option), any())).thenReturn(true);
+        when(source.getOption(eq(domain), eq(option), any())).thenReturn(value);
+        return source;
+    }
+
     @Test
     public void testDomainListener() {
         final ConfigChangeListener listener = mock(ConfigChangeListener.class);
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.config;
+
+import com.dmdirc.config.provider.ConfigProvider;
+import com.dmdirc.events.ClientClosingEvent;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdentitySaverTest {
+
+    @Mock private ConfigProvider provider1;
+    @Mock private ConfigProvider provider2;
+    @Mock private ScheduledExecutorService executor;
+    @Mock private ScheduledFuture<?> future;
+    @Mock private ClientClosingEvent clientClosingEvent;
+    private long time;
+    private IdentitySaver saver;
+
+    @Before
+    public void setUp() {
+        doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any());
+        saver = new IdentitySaver(executor, 50, 100, () -> time);
+    }
+
+    @Test
+    public void testDoesNotSaveImmediately() {
+        saver.scheduleSave(provider1);
+        verify(provider1, never()).save();
+        verify(executor).schedule(any(Runnable.class), eq(50L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSavesAfterDelay() {
+        saver.scheduleSave(provider1);
+        saver.scheduleSave(provider2);
+        getScheduledSave(2).run();
+        verify(provider1).save();
+        verify(provider2).save();
+    }
+
+    @Test
+    public void testCoalescesRepeatedChanges() {
+        saver.scheduleSave(provider1);
+        saver.scheduleSave(provider1);
+        saver.scheduleSave(provider1);
+        verify(future, times(2)).cancel(false);
+        getScheduledSave(3).run();
+        verify(provider1).save();
+    }
+
+    @Test
+    public void testPostponedWhileChangesContinue() {
+        saver.scheduleSave(provider1);
+        time = 40;
+        saver.scheduleSave(provider1);
+        verify(future).cancel(false);
+        verify(executor, times(2)).schedule(any(Runnable.class), eq(50L),
+                eq(TimeUnit.MILLISECONDS));
+        verify(provider1, never()).save();
+    }
+
+    @Test
+    public void testSavedAfterMaximumDelay() {
+        saver.scheduleSave(provider1);
+        time = 80;
+        saver.scheduleSave(provider1);
+        verify(executor).schedule(any(Runnable.class), eq(20L), eq(TimeUnit.MILLISECONDS));
+        time = 120;
+        saver.scheduleSave(provider1);
+        verify(executor).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testDelayRestartsAfterSave() {
+        saver.scheduleSave(provider1);
+        time = 80;
+        getScheduledSave(1).run();
+        saver.scheduleSave(provider1);
+        verify(executor, times(2)).schedule(any(Runnable.class), eq(50L),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testFlushSavesImmediately() {
+        saver.scheduleSave(provider1);
+        saver.flush();
+        verify(provider1).save();
+        verify(future).cancel(false);
+    }
+
+    @Test
+    public void testFlushWithNothingPending() {
+        saver.flush();
+        verify(provider1, never()).save();
+    }
+
+    @Test
+    public void testClientClosingSavesAndStops() {
+        saver.scheduleSave(provider1);
+        saver.handleClientClosing(clientClosingEvent);
+        verify(provider1).save();
+        verify(executor).shutdown();
+    }
+
+    @Test
+    public void testSavesImmediatelyOnceStopped() {
+        saver.stop();
+        saver.scheduleSave(provider1);
+        verify(provider1).save();
+        verify(executor, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private Runnable getScheduledSave(final int count) {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(count)).schedule(captor.capture(), anyLong(), any());
+        return captor.getValue();
+    }
+
+}
@@ -31,6 +31,7 @@ import com.dmdirc.events.eventbus.EventBus;
 import com.dmdirc.config.provider.AggregateConfigProvider;
 import com.dmdirc.ui.input.TabCompleterImpl;
 import com.dmdirc.ui.messages.BackBufferFactory;
+import com.dmdirc.util.TimerService;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -43,6 +44,7 @@ public class TestWritableFrameContainer extends FrameContainer {
             final BackBufferFactory backBufferFactory) {
         super("raw", "Raw", "(Raw)", cm, backBufferFactory,
                 eventBus,
+                new TimerService(1),
                 Collections.<String>emptySet());
 
         setInputModel(
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.lists;
+
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.parser.common.CallbackManager;
+import com.dmdirc.parser.events.GroupListEndEvent;
+import com.dmdirc.parser.events.GroupListEntryEvent;
+import com.dmdirc.parser.events.GroupListStartEvent;
+import com.dmdirc.parser.interfaces.Parser;
+import com.dmdirc.util.TimerService;
+import com.dmdirc.util.collections.ObservableList;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GroupListManagerTest {
+
+    @Mock private Connection connection;
+    @Mock private ScheduledExecutorService executor;
+    @Mock private ScheduledFuture<?> future;
+    @Mock private GroupListObserver observer;
+    @Mock private GroupListStartEvent startEvent;
+    @Mock private GroupListEndEvent endEvent;
+    @Mock private Parser parser;
+    @Mock private CallbackManager callbackManager;
+    @Captor private ArgumentCaptor<Runnable> runnableCaptor;
+    @Captor private ArgumentCaptor<List<GroupListEntry>> entriesCaptor;
+    private GroupListManager manager;
+
+    @Before
+    public void setUp() {
+        doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any());
+        manager = new GroupListManager(connection, 0, executor);
+        manager.addGroupListObserver(observer);
+        manager.onGroupListStart(startEvent);
+    }
+
+    @Test
+    public void testHoldsBackEntriesUntilTimerFires() {
+        addEntries(3);
+        verify(observer, never()).onGroupListEntries(anyList());
+        verify(executor).schedule(runnableCaptor.capture(),
+                longThat(delay -> delay > 0 && delay <= GroupListManager.BATCH_INTERVAL),
+                eq(TimeUnit.MILLISECONDS));
+
+        runnableCaptor.getValue().run();
+        verify(observer).onGroupListEntries(entriesCaptor.capture());
+        assertEquals(3, entriesCaptor.getValue().size());
+        assertEquals("#channel0", entriesCaptor.getValue().get(0).getName());
+    }
+
+    @Test
+    public void testDeliversFullBatchImmediately() {
+        addEntries(GroupListManager.BATCH_SIZE);
+        verify(observer).onGroupListEntries(entriesCaptor.capture());
+        assertEquals(GroupListManager.BATCH_SIZE, entriesCaptor.getValue().size());
+        verify(future).cancel(false);
+    }
+
+    @Test
+    public void testTimerDoesNothingOnceBatchDelivered() {
+        addEntries(GroupListManager.BATCH_SIZE);
+        verify(executor).schedule(runnableCaptor.capture(), anyLong(), any());
+        runnableCaptor.getValue().run();
+        verify(observer, times(1)).onGroupListEntries(anyList());
+    }
+
+    @Test
+    public void testDeliversRemainingEntriesBeforeFinishing() {
+        when(endEvent.getParser()).thenReturn(parser);
+        when(parser.getCallbackManager()).thenReturn(callbackManager);
+        addEntries(2);
+        manager.onGroupListEnd(endEvent);
+
+        final InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onGroupListEntries(entriesCaptor.capture());
+        inOrder.verify(observer).onGroupListFinished();
+        assertEquals(2, entriesCaptor.getValue().size());
+        verify(callbackManager).unsubscribe(manager);
+    }
+
+    @Test
+    public void testStoresEntries() {
+        addEntries(3);
+        assertEquals(3, manager.getGroupStore().size());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLegacyListIsUpdatedInBatches() {
+        final ObservableList<GroupListEntry> groups = manager.getGroups();
+        addEntries(3);
+        assertEquals(0, groups.size());
+
+        verify(executor).schedule(runnableCaptor.capture(), anyLong(), any());
+        runnableCaptor.getValue().run();
+        assertEquals(3, groups.size());
+        assertEquals("#channel0", groups.get(0).getName());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLegacyListStartsWithStoredEntries() {
+        addEntries(3);
+        assertEquals(3, manager.getGroups().size());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testLegacyListClearedOnNewSearch() {
+        when(connection.getParser()).thenReturn(Optional.empty());
+        addEntries(3);
+        final ObservableList<GroupListEntry> groups = manager.getGroups();
+        manager.startSearch("");
+        assertEquals(0, groups.size());
+        assertEquals(0, manager.getGroupStore().size());
+    }
+
+    @Test
+    public void testSchedulesOnTimerServiceGroup() {
+        final TimerService timerService = mock(TimerService.class);
+        when(timerService.createGroup()).thenReturn(executor);
+        manager = new GroupListManager(connection, timerService);
+        manager.onGroupListStart(startEvent);
+        addEntries(1);
+        verify(timerService).createGroup();
+        verify(executor, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private void addEntries(final int count) {
+        for (int i = 0; i < count; i++) {
+            final GroupListEntryEvent event = mock(GroupListEntryEvent.class);
+            when(event.getName()).thenReturn("#channel" + i);
+            when(event.getUsers()).thenReturn(i);
+            when(event.getTopic()).thenReturn("Topic " + i);
+            manager.onGroupListEntry(event);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.lists;
+
+import com.dmdirc.lists.GroupListStore.SortKey;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class GroupListStoreTest {
+
+    private GroupListStore store;
+
+    @Before
+    public void setUp() {
+        store = new GroupListStore();
+        store.add("#beta", 20, "Second channel");
+        store.add("#Alpha", 5, "First channel");
+        store.add("#gamma", 100, "Third");
+    }
+
+    @Test
+    public void testSortsByName() {
+        assertEquals(asList("#Alpha", "#beta", "#gamma"),
+                names(store.getPage(SortKey.NAME, true, "", 0, 10)));
+        assertEquals(asList("#gamma", "#beta", "#Alpha"),
+                names(store.getPage(SortKey.NAME, false, "", 0, 10)));
+    }
+
+    @Test
+    public void testSortsByUsers() {
+        assertEquals(asList("#Alpha", "#beta", "#gamma"),
+                names(store.getPage(SortKey.USERS, true, "", 0, 10)));
+        assertEquals(asList("#gamma", "#beta", "#Alpha"),
+                names(store.getPage(SortKey.USERS, false, "", 0, 10)));
+    }
+
+    @Test
+    public void testSortsByTopic() {
+        assertEquals(asList("#Alpha", "#beta", "#gamma"),
+                names(store.getPage(SortKey.TOPIC, true, "", 0, 10)));
+    }
+
+    @Test
+    public void testFilters() {
+        assertEquals(2, store.count("CHANNEL"));
+        assertEquals(asList("#Alpha", "#beta"),
+                names(store.getPage(SortKey.NAME, true, "channel", 0, 10)));
+        assertEquals(asList("#gamma"), names(store.getPage(SortKey.NAME, true, "gam", 0, 10)));
+    }
+
+    @Test
+    public void testPages() {
+        assertEquals(asList("#beta"), names(store.getPage(SortKey.NAME, true, "", 1, 1)));
+        assertEquals(asList("#gamma"), names(store.getPage(SortKey.NAME, true, "", 2, 5)));
+        assertEquals(asList(), names(store.getPage(SortKey.NAME, true, "", 3, 5)));
+    }
+
+    @Test
+    public void testUpdatesIndexesWhenEntriesAdded() {
+        store.getPage(SortKey.USERS, true, "", 0, 10);
+        store.add("#delta", 1, "");
+        assertEquals(asList("#delta", "#Alpha", "#beta", "#gamma"),
+                names(store.getPage(SortKey.USERS, true, "", 0, 10)));
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            store.add("#channel" + i, i, "");
+        }
+        assertEquals(1003, store.size());
+        assertEquals(asList("#channel999"),
+                names(store.getPage(SortKey.USERS, false, "", 0, 1)));
+    }
+
+    @Test
+    public void testBoundedStoreKeepsLargestGroups() {
+        final GroupListStore bounded = new GroupListStore(3);
+        for (int users : new int[]{5, 50, 1, 30, 40, 2, 10}) {
+            bounded.add("#c" + users, users, "");
+        }
+        assertEquals(3, bounded.size());
+        assertEquals(asList("#c50", "#c40", "#c30"),
+                names(bounded.getPage(SortKey.USERS, false, "", 0, 10)));
+    }
+
+    @Test
+    public void testClear() {
+        store.clear();
+        assertEquals(0, store.size());
+        assertEquals(asList(), names(store.getPage(SortKey.NAME, true, "", 0, 10)));
+    }
+
+    private static List<String> names(final List<GroupListEntry> entries) {
+        return entries.stream().map(GroupListEntry::getName).collect(Collectors.toList());
+    }
+
+}
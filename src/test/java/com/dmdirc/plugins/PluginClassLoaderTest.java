@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.plugins;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PluginClassLoaderTest {
+
+    private static final String CLASS_NAME = Dummy.class.getName();
+    private static final String CLASS_FILE = CLASS_NAME.replace('.', '/') + ".class";
+
+    @Mock private PluginManager pluginManager;
+    @Mock private PluginMetaData metaData;
+    @Mock private PluginInfo parentInfo;
+    @Mock private PluginInfo childInfo;
+
+    private Path classPath;
+    private GlobalClassLoader globalLoader;
+    private PluginClassLoader parent;
+    private PluginClassLoader child;
+
+    @Before
+    public void setUp() throws URISyntaxException {
+        classPath = Paths.get(getClass().getResource('/' + CLASS_FILE).toURI());
+        when(childInfo.getMetaData()).thenReturn(metaData);
+        when(parentInfo.getPath(CLASS_FILE)).thenReturn(classPath);
+        when(childInfo.getPath(CLASS_FILE)).thenReturn(classPath);
+
+        globalLoader = new GlobalClassLoader(pluginManager);
+        parent = new PluginClassLoader(parentInfo, globalLoader);
+        child = new PluginClassLoader(childInfo, globalLoader, parent);
+    }
+
+    @Test
+    public void testLoadsClassFromParentPlugin() throws ClassNotFoundException {
+        when(parentInfo.hasEntry(CLASS_FILE)).thenReturn(true);
+        assertSame(parent, child.loadClass(CLASS_NAME, true).getClassLoader());
+    }
+
+    @Test
+    public void testLoadsClassFromOwnPlugin() throws ClassNotFoundException {
+        when(childInfo.hasEntry(CLASS_FILE)).thenReturn(true);
+        assertSame(child, child.loadClass(CLASS_NAME, true).getClassLoader());
+    }
+
+    @Test
+    public void testDoesNotAskParentWithoutClass() throws ClassNotFoundException {
+        when(childInfo.hasEntry(CLASS_FILE)).thenReturn(true);
+        child.loadClass(CLASS_NAME, true);
+        verify(parentInfo).hasEntry(CLASS_FILE);
+        verify(parentInfo, never()).isPersistent(CLASS_NAME);
+        verify(parentInfo, never()).getPath(CLASS_FILE);
+    }
+
+    @Test
+    public void testReusesLoadedClass() throws ClassNotFoundException {
+        when(childInfo.hasEntry(CLASS_FILE)).thenReturn(true);
+        assertSame(child.loadClass(CLASS_NAME, true), child.loadClass(CLASS_NAME, true));
+    }
+
+    @Test
+    public void testDefinesPersistentClassInGlobalLoader() throws ClassNotFoundException {
+        when(childInfo.hasEntry(CLASS_FILE)).thenReturn(true);
+        when(childInfo.isPersistent(CLASS_NAME)).thenReturn(true);
+        final Class<?> loadedClass = child.loadClass(CLASS_NAME, false);
+        assertSame(globalLoader, loadedClass.getClassLoader());
+        assertSame(loadedClass, child.loadClass(CLASS_NAME, false));
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testThrowsForMissingClass() throws ClassNotFoundException {
+        child.loadClass(CLASS_NAME, false);
+    }
+
+    /** Class loaded by the plugin class loaders under test. */
+    public static class Dummy {
+    }
+
+}
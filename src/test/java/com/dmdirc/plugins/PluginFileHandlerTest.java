@@ -83,4 +83,17 @@ public class PluginFileHandlerTest {
         assertTrue(Files.size(directory.resolve("plugin.jar")) > 0);
     }
 
+    @Test
+    public void testIndexesPlugins() throws IOException {
+        Files.copy(getClass().getResource("plugin.jar").openStream(),
+                directory.resolve("plugin.jar"));
+
+        fileHandler.refresh(pluginManager);
+
+        assertTrue(Files.exists(directory.resolve(PluginIndex.FILENAME)));
+        final PluginIndex index = new PluginIndex(directory.resolve(PluginIndex.FILENAME));
+        index.read();
+        assertTrue(index.get(directory.resolve("plugin.jar").toAbsolutePath()).isPresent());
+    }
+
 }
\ No newline at end of file
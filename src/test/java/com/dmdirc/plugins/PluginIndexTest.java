@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.plugins;
+
+import com.dmdirc.tests.JimFsRule;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PluginIndexTest {
+
+    private static final byte[] CONFIG =
+            "metadata:\n  name=test\n".getBytes(StandardCharsets.UTF_8);
+
+    @Rule public final JimFsRule jimFsRule = new JimFsRule();
+
+    private Path plugin;
+    private Path indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        plugin = jimFsRule.getPath("/plugins/test.jar");
+        indexFile = jimFsRule.getPath("/plugins/" + PluginIndex.FILENAME);
+        Files.createDirectory(plugin.getParent());
+        Files.write(plugin, new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testReturnsConfigForUnchangedPlugin() {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.put(plugin, CONFIG);
+        assertArrayEquals(CONFIG, index.get(plugin).get());
+    }
+
+    @Test
+    public void testIgnoresUnknownPlugin() {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.read();
+        assertFalse(index.get(plugin).isPresent());
+    }
+
+    @Test
+    public void testIgnoresResizedPlugin() throws IOException {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.put(plugin, CONFIG);
+        Files.write(plugin, new byte[]{1, 2, 3, 4});
+        assertFalse(index.get(plugin).isPresent());
+    }
+
+    @Test
+    public void testIgnoresModifiedPlugin() throws IOException {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.put(plugin, CONFIG);
+        Files.setLastModifiedTime(plugin, FileTime.fromMillis(
+                Files.getLastModifiedTime(plugin).toMillis() + 1000));
+        assertFalse(index.get(plugin).isPresent());
+    }
+
+    @Test
+    public void testPersistsEntries() {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.put(plugin, CONFIG);
+        index.write();
+
+        final PluginIndex newIndex = new PluginIndex(indexFile);
+        newIndex.read();
+        final Optional<byte[]> config = newIndex.get(plugin);
+        assertTrue(config.isPresent());
+        assertArrayEquals(CONFIG, config.get());
+    }
+
+    @Test
+    public void testWriteRemovesTemporaryFile() {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.put(plugin, CONFIG);
+        index.write();
+
+        assertTrue(Files.exists(indexFile));
+        assertFalse(Files.exists(indexFile.resolveSibling(
+                PluginIndex.FILENAME + PluginIndex.TEMP_FILE_SUFFIX)));
+    }
+
+    @Test
+    public void testRetainRemovesDeletedPlugins() {
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.put(plugin, CONFIG);
+        index.retain(Collections.emptyList());
+        assertFalse(index.get(plugin).isPresent());
+    }
+
+    @Test
+    public void testIgnoresCorruptIndex() throws IOException {
+        Files.write(indexFile, "\\u00zz".getBytes(StandardCharsets.ISO_8859_1));
+        final PluginIndex index = new PluginIndex(indexFile);
+        index.read();
+        assertFalse(index.get(plugin).isPresent());
+    }
+
+}
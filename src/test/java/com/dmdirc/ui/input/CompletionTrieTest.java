@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.input;
+
+import com.dmdirc.parser.common.DefaultStringConverter;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompletionTrieTest {
+
+    private CompletionTrie trie;
+
+    @Before
+    public void setUp() {
+        trie = new CompletionTrie(new DefaultStringConverter());
+        trie.add("Bob");
+        trie.add("alice");
+        trie.add("Albert");
+        trie.add("al");
+    }
+
+    @Test
+    public void testFindsEntriesWithPrefix() {
+        assertEquals(Arrays.asList("al", "Albert", "alice"), trie.getCompletions("al"));
+    }
+
+    @Test
+    public void testPrefixIsCaseInsensitive() {
+        assertEquals(Collections.singletonList("Albert"), trie.getCompletions("ALB"));
+        assertEquals(Arrays.asList("al", "Albert", "alice"), trie.getCompletions("aL"));
+    }
+
+    @Test
+    public void testNoMatches() {
+        assertEquals(Collections.emptyList(), trie.getCompletions("carol"));
+        assertEquals(Collections.emptyList(), trie.getCompletions("alicee"));
+    }
+
+    @Test
+    public void testEmptyPrefixMatchesEverything() {
+        assertEquals(Arrays.asList("al", "Albert", "alice", "Bob"), trie.getCompletions(""));
+    }
+
+    @Test
+    public void testRemove() {
+        assertTrue(trie.remove("alice"));
+        assertEquals(Arrays.asList("al", "Albert"), trie.getCompletions("al"));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    public void testRemoveUnknownEntry() {
+        assertFalse(trie.remove("ALICE"));
+        assertFalse(trie.remove("carol"));
+        assertEquals(4, trie.size());
+    }
+
+    @Test
+    public void testRemovePrunesEmptyBranches() {
+        trie.remove("Albert");
+        trie.remove("alice");
+        assertEquals(Collections.singletonList("al"), trie.getCompletions("al"));
+        assertEquals(Collections.emptyList(), trie.getCompletions("alb"));
+    }
+
+    @Test
+    public void testDuplicatesReturnedOnce() {
+        trie.add("Bob");
+        assertEquals(Collections.singletonList("Bob"), trie.getCompletions("b"));
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    public void testDuplicatesMustAllBeRemoved() {
+        trie.add("Bob");
+        trie.remove("Bob");
+        assertEquals(Collections.singletonList("Bob"), trie.getCompletions("b"));
+        trie.remove("Bob");
+        assertEquals(Collections.emptyList(), trie.getCompletions("b"));
+    }
+
+    @Test
+    public void testEntriesDifferingOnlyInCase() {
+        trie.add("bob");
+        assertEquals(Arrays.asList("Bob", "bob"), trie.getCompletions("BO"));
+    }
+
+    @Test
+    public void testClear() {
+        trie.clear();
+        assertEquals(0, trie.size());
+        assertEquals(Collections.emptyList(), trie.getCompletions(""));
+    }
+
+}
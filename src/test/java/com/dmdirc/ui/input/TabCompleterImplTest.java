@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.input;
+
+import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.parser.common.DefaultStringConverter;
+import com.dmdirc.parser.interfaces.StringConverter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TabCompleterImplTest {
+
+    @Mock private AggregateConfigProvider config;
+    @Mock private TabCompleter parent;
+    @Mock private CompletionDictionary dictionary;
+    private TabCompleterImpl completer;
+
+    @Before
+    public void setUp() {
+        when(config.getOptionBool("tabcompletion", "casesensitive")).thenReturn(false);
+        when(config.getOptionBool("tabcompletion", "allowempty")).thenReturn(false);
+        completer = new TabCompleterImpl(config);
+        completer.addEntries(TabCompletionType.CHANNEL_NICK, Arrays.asList("Bob", "bobby", "al"));
+        completer.addEntry(TabCompletionType.CHANNEL, "#bobs");
+    }
+
+    @Test
+    public void testCompletesAllTypes() {
+        assertEquals(Arrays.asList("#bobs"), completer.complete("#", null));
+        assertEquals(Arrays.asList("Bob", "bobby"), completer.complete("BOB", null));
+    }
+
+    @Test
+    public void testCaseSensitive() {
+        when(config.getOptionBool("tabcompletion", "casesensitive")).thenReturn(true);
+        assertEquals(Collections.singletonList("bobby"), completer.complete("bob", null));
+    }
+
+    @Test
+    public void testEmptyPartial() {
+        assertEquals(Collections.emptyList(), completer.complete("", null));
+        when(config.getOptionBool("tabcompletion", "allowempty")).thenReturn(true);
+        assertEquals(Arrays.asList("#bobs", "al", "Bob", "bobby"), completer.complete("", null));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        completer.removeEntry(TabCompletionType.CHANNEL_NICK, "Bob");
+        assertEquals(Collections.singletonList("bobby"), completer.complete("b", null));
+        completer.clear(TabCompletionType.CHANNEL_NICK);
+        assertEquals(Collections.emptyList(), completer.complete("b", null));
+        completer.clear();
+        assertEquals(Collections.emptyList(), completer.complete("#", null));
+    }
+
+    @Test
+    public void testAdditionalTargets() {
+        final AdditionalTabTargets targets = new AdditionalTabTargets();
+        targets.exclude(TabCompletionType.CHANNEL_NICK);
+        targets.add("Bobcat");
+        targets.add("cat");
+        assertEquals(Collections.singletonList("Bobcat"), completer.complete("bob", targets));
+    }
+
+    @Test
+    public void testMergesParentResults() {
+        completer = new TabCompleterImpl(config, parent);
+        completer.addEntry(TabCompletionType.CHANNEL_NICK, "Bob");
+        when(parent.complete("bo", null)).thenReturn(Arrays.asList("Bob", "boris"));
+        assertEquals(Arrays.asList("Bob", "boris"), completer.complete("bo", null));
+    }
+
+    @Test
+    public void testConsultsSharedDictionaries() {
+        completer.addDictionary(TabCompletionType.COMMAND, () -> dictionary);
+        when(dictionary.getCompletions("/b")).thenReturn(Collections.singletonList("/ban"));
+        assertEquals(Collections.singletonList("/ban"), completer.complete("/b", null));
+    }
+
+    @Test
+    public void testReindexesWhenConverterChanges() {
+        final AtomicReference<StringConverter> converter =
+                new AtomicReference<>(new DefaultStringConverter());
+        completer = new TabCompleterImpl(config, null, converter::get);
+        completer.addEntry(TabCompletionType.CHANNEL_NICK, "{Bob}");
+        assertEquals(Collections.emptyList(), completer.complete("[b", null));
+
+        converter.set(new DefaultStringConverter() {
+            @Override
+            public String toLowerCase(final String input) {
+                return super.toLowerCase(input).replace('[', '{').replace(']', '}');
+            }
+        });
+        assertEquals(Collections.singletonList("{Bob}"), completer.complete("[b", null));
+    }
+
+}
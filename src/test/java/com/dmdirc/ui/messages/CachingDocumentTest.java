@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CachingDocumentTest {
+
+    @Mock private Document document;
+    @Mock private StyledMessageMaker<Object> maker;
+    private final Line[] lines = new Line[3];
+    private CachingDocument<Object> cachingDocument;
+    private DocumentListener listener;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = mock(Line.class);
+            when(lines[i].getStyled(maker)).thenAnswer(invocation -> new Object());
+            when(document.getLine(i)).thenReturn(lines[i]);
+        }
+        cachingDocument = new CachingDocument<>(document, maker, 2);
+
+        final ArgumentCaptor<DocumentListener> captor =
+                ArgumentCaptor.forClass(DocumentListener.class);
+        verify(document).addIRCDocumentListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    @Test
+    public void testDocumentEventsInvalidateCache() {
+        cachingDocument.getStyledLine(0);
+        listener.repaintNeeded();
+        cachingDocument.getStyledLine(0);
+        verify(lines[0], times(2)).getStyled(maker);
+    }
+
+    @Test
+    public void testCachesStyledLines() {
+        final Object styled = cachingDocument.getStyledLine(0);
+        assertSame(styled, cachingDocument.getStyledLine(0));
+        verify(lines[0]).getStyled(maker);
+        assertEquals(1, cachingDocument.getCacheStats().hitCount());
+        assertEquals(1, cachingDocument.getCacheStats().missCount());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        cachingDocument.getStyledLine(0);
+        cachingDocument.getStyledLine(1);
+        cachingDocument.getStyledLine(0);
+        cachingDocument.getStyledLine(2);
+        cachingDocument.getStyledLine(0);
+        cachingDocument.getStyledLine(1);
+        verify(lines[0]).getStyled(maker);
+        verify(lines[1], times(2)).getStyled(maker);
+    }
+
+    @Test
+    public void testRepaintInvalidatesCache() {
+        cachingDocument.getStyledLine(0);
+        cachingDocument.repaintNeeded();
+        cachingDocument.getStyledLine(0);
+        verify(lines[0], times(2)).getStyled(maker);
+    }
+
+    @Test
+    public void testClearInvalidatesCache() {
+        cachingDocument.getStyledLine(0);
+        cachingDocument.cleared();
+        cachingDocument.getStyledLine(0);
+        verify(lines[0], times(2)).getStyled(maker);
+    }
+
+    @Test
+    public void testTrimKeepsRemainingLines() {
+        cachingDocument.getStyledLine(1);
+        cachingDocument.trimmed(2, 1);
+        cachingDocument.getStyledLine(1);
+        verify(lines[1]).getStyled(maker);
+    }
+
+    @Test
+    public void testDisposeRemovesListener() {
+        cachingDocument.dispose();
+        verify(document).removeIRCDocumentListener(listener);
+    }
+
+    @Test
+    public void testListenerRemovedOnceCacheCollected() throws InterruptedException {
+        final WeakReference<CachingDocument<Object>> reference =
+                new WeakReference<>(cachingDocument);
+        cachingDocument = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+
+        listener.cleared();
+        verify(document).removeIRCDocumentListener(listener);
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.dmdirc.events.DisplayLocation;
+import com.dmdirc.events.DisplayProperty;
+import com.dmdirc.events.DisplayPropertyMap;
+import com.dmdirc.events.DisplayableEvent;
+import com.dmdirc.interfaces.Connection;
+import com.dmdirc.interfaces.WindowModel;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DisplayableEventRouterTest {
+
+    @Mock private EventFormatter formatter;
+    @Mock private EventFormatProvider formatProvider;
+    @Mock private Connection connection1;
+    @Mock private Connection connection2;
+    @Mock private WindowModel window1;
+    @Mock private WindowModel window2;
+    @Mock private WindowModel window3;
+    @Mock private BackBufferImpl buffer1;
+    @Mock private BackBufferImpl buffer2;
+    @Mock private BackBufferImpl buffer3;
+    @Mock private DisplayableEvent event;
+
+    private DisplayableEventRouter router;
+
+    @Before
+    public void setup() {
+        when(window1.getConnection()).thenReturn(Optional.of(connection1));
+        when(window2.getConnection()).thenReturn(Optional.of(connection1));
+        when(window3.getConnection()).thenReturn(Optional.of(connection2));
+        when(buffer1.getOwner()).thenReturn(window1);
+        when(buffer2.getOwner()).thenReturn(window2);
+        when(buffer3.getOwner()).thenReturn(window3);
+
+        router = new DisplayableEventRouter(formatter);
+        router.register(buffer1);
+        router.register(buffer2);
+        router.register(buffer3);
+    }
+
+    @Test
+    public void testSourceEventOnlyDeliveredToSource() {
+        when(event.getSource()).thenReturn(window1);
+        setDisplayLocation(DisplayLocation.SOURCE);
+
+        router.handleDisplayableEvent(event);
+
+        verify(buffer1).addEvent(event);
+        verify(buffer2, never()).addEvent(any());
+        verify(buffer3, never()).addEvent(any());
+    }
+
+    @Test
+    public void testSameConnectionEventDeliveredToConnectionWindows() {
+        when(event.getSource()).thenReturn(window1);
+        setDisplayLocation(DisplayLocation.SAME_CONNECTION);
+
+        router.handleDisplayableEvent(event);
+
+        verify(buffer1).addEvent(event);
+        verify(buffer2).addEvent(event);
+        verify(buffer3, never()).addEvent(any());
+    }
+
+    @Test
+    public void testCustomLocationTestedAgainstAllWindows() {
+        setDisplayLocation((model, e) -> model != window1);
+
+        router.handleDisplayableEvent(event);
+
+        verify(buffer1, never()).addEvent(any());
+        verify(buffer2).addEvent(event);
+        verify(buffer3).addEvent(event);
+    }
+
+    @Test
+    public void testEventWithoutFormatDeliveredToSource() {
+        when(event.getSource()).thenReturn(window2);
+        when(formatter.getEventFormatProvider()).thenReturn(formatProvider);
+        when(formatProvider.getFormat(any())).thenReturn(Optional.empty());
+
+        router.handleDisplayableEvent(event);
+
+        verify(buffer1, never()).addEvent(any());
+        verify(buffer2).addEvent(event);
+    }
+
+    @Test
+    public void testDoNotDisplayEventNotDelivered() {
+        when(event.hasDisplayProperty(DisplayProperty.DO_NOT_DISPLAY)).thenReturn(true);
+
+        router.handleDisplayableEvent(event);
+
+        verify(buffer1, never()).addEvent(any());
+    }
+
+    @Test
+    public void testUnregisteredBufferNotDelivered() {
+        when(event.getSource()).thenReturn(window1);
+        setDisplayLocation(DisplayLocation.SAME_CONNECTION);
+        router.unregister(buffer1);
+
+        router.handleDisplayableEvent(event);
+
+        verify(buffer1, never()).addEvent(any());
+        verify(buffer2).addEvent(event);
+    }
+
+    private void setDisplayLocation(final DisplayLocation location) {
+        final DisplayPropertyMap properties = new DisplayPropertyMap();
+        properties.put(DisplayProperty.DISPLAY_LOCATION, location);
+        when(formatter.getEventFormatProvider()).thenReturn(formatProvider);
+        when(formatProvider.getFormat(any())).thenReturn(Optional.of(
+                EventFormat.create("", Optional.empty(), Optional.empty(), Optional.empty(),
+                        properties)));
+    }
+
+}
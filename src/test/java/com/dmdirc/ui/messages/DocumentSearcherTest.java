@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DocumentSearcherTest {
+
+    @Mock private Document document;
+    private final List<Line> lines = new ArrayList<>();
+    private DocumentSearcher searcher;
+    private DocumentListener listener;
+
+    @Before
+    public void setUp() {
+        when(document.getNumLines()).thenAnswer(invocation -> lines.size());
+        when(document.getLine(anyInt())).thenAnswer(
+                invocation -> lines.get(invocation.getArgument(0)));
+        addLine("hello world");
+        addLine("Hello again");
+        searcher = new DocumentSearcher(document);
+
+        final ArgumentCaptor<DocumentListener> captor =
+                ArgumentCaptor.forClass(DocumentListener.class);
+        verify(document).addIRCDocumentListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    @Test
+    public void testReadsExistingLines() {
+        assertEquals(2, searcher.getNumLines());
+        assertEquals("hello world", searcher.getText(0));
+    }
+
+    @Test
+    public void testReadsAddedLines() {
+        addLine("goodbye");
+        assertEquals(3, searcher.getNumLines());
+        assertEquals("goodbye", searcher.getText(2));
+    }
+
+    @Test
+    public void testDoesNotReadLinesUntilSearched() {
+        verify(lines.get(0), never()).getText();
+        verify(lines.get(1), never()).getText();
+    }
+
+    @Test
+    public void testSearchStopsAtFirstMatch() {
+        searcher.search(Pattern.compile("o")).findFirst();
+        verify(lines.get(1), never()).getText();
+    }
+
+    @Test
+    public void testDoesNotRestripLines() {
+        searcher.search(Pattern.compile("hello")).count();
+        searcher.search(Pattern.compile("world")).count();
+        verify(lines.get(0), times(1)).getText();
+    }
+
+    @Test
+    public void testRepaintRestripsLines() {
+        searcher.search(Pattern.compile("hello")).count();
+        listener.repaintNeeded();
+        searcher.search(Pattern.compile("hello")).count();
+        verify(lines.get(0), times(2)).getText();
+    }
+
+    @Test
+    public void testFollowsTrim() {
+        lines.remove(0);
+        listener.trimmed(1, 1);
+        assertEquals(1, searcher.getNumLines());
+        assertEquals("Hello again", searcher.getText(0));
+    }
+
+    @Test
+    public void testFollowsClear() {
+        lines.clear();
+        listener.cleared();
+        assertEquals(0, searcher.getNumLines());
+    }
+
+    @Test
+    public void testSearchStreamsMatchesInOrder() {
+        final List<LinePosition> matches = searcher.search(
+                Pattern.compile("l+", Pattern.CASE_INSENSITIVE)).collect(Collectors.toList());
+        assertEquals(3, matches.size());
+        assertPosition(matches.get(0), 0, 2, 0, 4);
+        assertPosition(matches.get(1), 0, 9, 0, 10);
+        assertPosition(matches.get(2), 1, 2, 1, 4);
+    }
+
+    @Test
+    public void testIRCDocumentSearcherUsesSearcher() {
+        final IRCDocumentSearcher ircSearcher =
+                new IRCDocumentSearcher("h.llo", searcher, true, true);
+        assertPosition(ircSearcher.searchUp(), 0, 0, 0, 5);
+        assertNull(new IRCDocumentSearcher("h.llo", searcher, true, false).searchUp());
+    }
+
+    @Test
+    public void testSearchContinuesAfterTrim() {
+        addLine("hello there");
+        final Iterator<LinePosition> matches =
+                searcher.search(Pattern.compile("hello", Pattern.CASE_INSENSITIVE)).iterator();
+        assertPosition(matches.next(), 0, 0, 0, 5);
+        lines.remove(0);
+        assertPosition(matches.next(), 0, 0, 0, 5);
+        assertPosition(matches.next(), 1, 0, 1, 5);
+        assertFalse(matches.hasNext());
+    }
+
+    @Test
+    public void testSearchContinuesAfterSearchedLinesTrimmed() {
+        addLine("hello there");
+        final Iterator<LinePosition> matches =
+                searcher.search(Pattern.compile("hello", Pattern.CASE_INSENSITIVE)).iterator();
+        assertPosition(matches.next(), 0, 0, 0, 5);
+        assertPosition(matches.next(), 1, 0, 1, 5);
+        lines.remove(0);
+        lines.remove(0);
+        assertPosition(matches.next(), 0, 0, 0, 5);
+        assertFalse(matches.hasNext());
+    }
+
+    @Test
+    public void testSearchEndsWhenTrimRacesWithRead() {
+        final Iterator<LinePosition> matches =
+                searcher.search(Pattern.compile("hello", Pattern.CASE_INSENSITIVE)).iterator();
+        assertPosition(matches.next(), 0, 0, 0, 5);
+        when(document.getNumLines()).thenReturn(2, 2, 0);
+        when(document.getLine(anyInt())).thenAnswer(invocation -> {
+            if (invocation.<Integer>getArgument(0) == 1) {
+                lines.clear();
+            }
+            return lines.get(invocation.getArgument(0));
+        });
+        assertFalse(matches.hasNext());
+    }
+
+    @Test
+    public void testDisposeRemovesListener() {
+        searcher.dispose();
+        verify(document).removeIRCDocumentListener(listener);
+    }
+
+    private static void assertPosition(final LinePosition position, final int startLine,
+            final int startPos, final int endLine, final int endPos) {
+        assertEquals(startLine, position.getStartLine());
+        assertEquals(startPos, position.getStartPos());
+        assertEquals(endLine, position.getEndLine());
+        assertEquals(endPos, position.getEndPos());
+    }
+
+    private void addLine(final String text) {
+        final Line line = mock(Line.class);
+        when(line.getText()).thenReturn(text);
+        when(line.getLength()).thenReturn(text.length());
+        lines.add(line);
+    }
+
+}
@@ -71,4 +71,37 @@ public class EventPropertyManagerTest {
         assertFalse(manager.getProperty(new Object(), Object.class, "foobar").isPresent());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testRepeatedLookups() {
+        final ChannelMessageEvent event1 = new ChannelMessageEvent(channel, client, "one");
+        final ChannelMessageEvent event2 = new ChannelMessageEvent(channel, client, "two");
+
+        assertEquals("one", manager.getProperty(event1, ChannelMessageEvent.class, "message").get());
+        assertEquals("two", manager.getProperty(event2, ChannelMessageEvent.class, "message").get());
+        assertFalse(manager.getProperty(event1, ChannelMessageEvent.class, "foobar").isPresent());
+        assertFalse(manager.getProperty(event2, ChannelMessageEvent.class, "foobar").isPresent());
+    }
+
+    @Test
+    public void testRuntimeExceptionsAreTreatedAsMissing() {
+        assertFalse(manager.getProperty(new Throwing(), Throwing.class, "broken").isPresent());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testErrorsArePropagated() {
+        manager.getProperty(new Throwing(), Throwing.class, "fatal");
+    }
+
+    public static class Throwing {
+
+        public String getBroken() {
+            throw new IllegalStateException("broken");
+        }
+
+        public String getFatal() {
+            throw new AssertionError("fatal");
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class EventTemplateTest {
+
+    @Test
+    public void testTemplateWithoutTags() {
+        final EventTemplate template = EventTemplate.compile("Hello world");
+        assertEquals(Collections.singletonList("Hello world"), template.getLiterals());
+        assertEquals(0, template.getTags().size());
+    }
+
+    @Test
+    public void testLiteralsSurroundTags() {
+        final EventTemplate template = EventTemplate.compile("{{a}} and {{b}}!");
+        assertEquals(Arrays.asList("", " and ", "!"), template.getLiterals());
+        assertEquals(2, template.getTags().size());
+    }
+
+    @Test
+    public void testPropertyChainAndFunctions() {
+        final EventTemplate.Tag tag =
+                EventTemplate.compile("{{user.hostname|uppercase|bold}}").getTags().get(0);
+        assertArrayEquals(new String[]{"user", "hostname"}, tag.getProperties());
+        assertArrayEquals(new String[]{"uppercase", "bold"}, tag.getFunctions());
+    }
+
+    @Test
+    public void testUnterminatedTagIsLiteral() {
+        final EventTemplate template = EventTemplate.compile("{{a}} {{b");
+        assertEquals(Arrays.asList("", " {{b"), template.getLiterals());
+        assertEquals(1, template.getTags().size());
+    }
+
+    @Test
+    public void testRetainsSourceTemplate() {
+        assertEquals("{{a}} {{b}}", EventTemplate.compile("{{a}} {{b}}").getTemplate());
+    }
+
+}
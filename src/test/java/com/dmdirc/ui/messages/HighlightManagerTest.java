@@ -38,6 +38,7 @@ import com.google.common.collect.Lists;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -47,6 +48,8 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.only;
@@ -176,4 +179,28 @@ public class HighlightManagerTest {
         assertEquals("DMDirc is great.", captor.getValue().getMessage());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testPartialWordNotHighlighted() {
+        when(user.getNickname()).thenReturn("nickName");
+        when(profile.getHighlights()).thenReturn(Lists.newArrayList("dmdirc"));
+
+        final ChannelMessageEvent event = new ChannelMessageEvent(channel, channelUser,
+                "nickNames and dmdirc2 are not highlights");
+
+        manager.handleConnected(new ServerConnectedEvent(connection));
+        manager.handleChannelMessage(event);
+
+        verify(eventBus, never()).publish(any());
+    }
+
+    @Test
+    public void testCompiledPatternMatchesAnyWord() {
+        final Pattern pattern = HighlightManager.compile(Lists.newArrayList("foo", "b.r", "baz"));
+        assertTrue(pattern.matcher("FOO").find());
+        assertTrue(pattern.matcher("hello b.r!").find());
+        assertTrue(pattern.matcher("(baz)").find());
+        assertFalse(pattern.matcher("bar").find());
+        assertFalse(pattern.matcher("foobaz").find());
+    }
+
+}
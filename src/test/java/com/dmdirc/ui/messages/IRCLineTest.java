@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import com.dmdirc.config.provider.AggregateConfigProvider;
+import com.dmdirc.events.DisplayProperty;
+import com.dmdirc.events.DisplayPropertyMap;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IRCLineTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2017, 1, 2, 12, 34, 56);
+
+    @Mock private AggregateConfigProvider configProvider;
+    @Mock private Styliser styliser;
+    @Mock private StyledMessageMaker<Object> maker;
+    private IRCLineContext context;
+
+    @Before
+    public void setUp() {
+        context = new IRCLineContext(configProvider, styliser);
+        context.setFontName("Font");
+    }
+
+    @Test
+    public void testTimestampFormattedWhenRequested() {
+        when(configProvider.hasOptionString("formatter", "timestamp")).thenReturn(true);
+        when(configProvider.getOption("formatter", "timestamp"))
+                .thenReturn("[%1$tH:%1$tM:%1$tS] ");
+        final IRCLine line = createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello");
+        assertEquals("[12:34:56] Hello", line.getStyledText());
+        assertEquals(16, line.getLength());
+    }
+
+    @Test
+    public void testStyledWithTimestamp() {
+        when(configProvider.hasOptionString("formatter", "timestamp")).thenReturn(true);
+        when(configProvider.getOption("formatter", "timestamp")).thenReturn("%1$tS ");
+        createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello").getStyled(maker);
+        verify(maker).setDefaultFont("Font", 12);
+        verify(styliser).addStyledString(maker, "56 ", "Hello");
+    }
+
+    @Test
+    public void testStyledWithoutTimestamp() {
+        final DisplayPropertyMap properties = new DisplayPropertyMap();
+        properties.put(DisplayProperty.NO_TIMESTAMPS, true);
+        createLine(TIMESTAMP, properties, "Hello").getStyled(maker);
+        verify(styliser).addStyledString(maker, "Hello");
+    }
+
+    @Test
+    public void testFontNameOverridesContext() {
+        final IRCLine line = createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello");
+        line.setFontName("Other");
+        line.getStyled(maker);
+        verify(maker).setDefaultFont("Other", 12);
+    }
+
+    @Test
+    public void testEquality() {
+        final IRCLine line = createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello");
+        assertEquals(line, createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello"));
+        assertEquals(line.hashCode(),
+                createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello").hashCode());
+        assertNotEquals(line, createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Bye"));
+        assertNotEquals(line,
+                createLine(TIMESTAMP.plusSeconds(1), DisplayPropertyMap.EMPTY, "Hello"));
+    }
+
+    @Test
+    public void testDisplayPropertiesInterned() {
+        final DisplayPropertyMap first = new DisplayPropertyMap();
+        first.put(DisplayProperty.NO_TIMESTAMPS, true);
+        final DisplayPropertyMap second = new DisplayPropertyMap();
+        second.put(DisplayProperty.NO_TIMESTAMPS, true);
+
+        final DisplayPropertyMap interned = context.internDisplayProperties(first);
+        assertNotSame(first, interned);
+        assertEquals(Optional.of(true), interned.get(DisplayProperty.NO_TIMESTAMPS));
+        assertSame(interned, context.internDisplayProperties(second));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInternedPropertiesAreReadOnly() {
+        context.internDisplayProperties(new DisplayPropertyMap())
+                .put(DisplayProperty.NO_TIMESTAMPS, true);
+    }
+
+    @Test
+    public void testInternedPropertiesUnaffectedByLaterChanges() {
+        final DisplayPropertyMap properties = new DisplayPropertyMap();
+        final DisplayPropertyMap interned = context.internDisplayProperties(properties);
+        properties.put(DisplayProperty.NO_TIMESTAMPS, true);
+        assertEquals(false, interned.get(DisplayProperty.NO_TIMESTAMPS).orElse(false));
+    }
+
+    @Test
+    public void testTimestampFormatReused() {
+        when(configProvider.hasOptionString("formatter", "timestamp")).thenReturn(true);
+        when(configProvider.getOption("formatter", "timestamp")).thenReturn("%1$tS ");
+        final IRCLine line = createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello");
+        line.getStyledText();
+        line.getText();
+        line.getLength();
+        createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Bye").getStyledText();
+        verify(configProvider, times(1)).getOption("formatter", "timestamp");
+    }
+
+    @Test
+    public void testTimestampReformattedWhenFormatChanges() {
+        when(configProvider.hasOptionString("formatter", "timestamp")).thenReturn(true);
+        when(configProvider.getOption("formatter", "timestamp")).thenReturn("%1$tS ");
+        final IRCLine line = createLine(TIMESTAMP, DisplayPropertyMap.EMPTY, "Hello");
+        assertEquals("56 Hello", line.getStyledText());
+
+        when(configProvider.getOption("formatter", "timestamp")).thenReturn("%1$tM ");
+        assertEquals("56 Hello", line.getStyledText());
+        context.timestampFormatChanged();
+        assertEquals("34 Hello", line.getStyledText());
+    }
+
+    private IRCLine createLine(final LocalDateTime timestamp,
+            final DisplayPropertyMap properties, final String text) {
+        return new IRCLine(context, IRCLineContext.toMillis(timestamp), text, properties, 12);
+    }
+
+}
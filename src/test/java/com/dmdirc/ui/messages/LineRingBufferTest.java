@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.ui.messages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LineRingBufferTest {
+
+    private LineRingBuffer<String> buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new LineRingBuffer<>();
+    }
+
+    @Test
+    public void testAddReturnsIndex() {
+        assertEquals(0, buffer.add("a"));
+        assertEquals(1, buffer.add("b"));
+        assertEquals(2, buffer.size());
+        assertEquals("a", buffer.get(0));
+        assertEquals("b", buffer.get(1));
+    }
+
+    @Test
+    public void testTrimRemovesFromStart() {
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("c");
+        assertEquals(2, buffer.trimTo(1));
+        assertEquals(1, buffer.size());
+        assertEquals("c", buffer.get(0));
+    }
+
+    @Test
+    public void testTrimBelowLimitDoesNothing() {
+        buffer.add("a");
+        assertEquals(0, buffer.trimTo(5));
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void testClear() {
+        buffer.add("a");
+        buffer.add("b");
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        buffer.add("c");
+        assertEquals("c", buffer.get(0));
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        for (int i = 0; i < 100; i++) {
+            buffer.add(String.valueOf(i));
+        }
+        assertEquals(100, buffer.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), buffer.get(i));
+        }
+    }
+
+    @Test
+    public void testWrapsAroundWhenTrimmed() {
+        for (int i = 0; i < 1000; i++) {
+            buffer.add(String.valueOf(i));
+            buffer.trimTo(10);
+        }
+        assertEquals(10, buffer.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.valueOf(990 + i), buffer.get(i));
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        buffer.add("a");
+        buffer.add("b");
+        buffer.add("c");
+        buffer.trimTo(2);
+        final List<String> lines = new ArrayList<>();
+        buffer.forEach(lines::add);
+        assertEquals(Arrays.asList("b", "c"), lines);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetTrimmedLine() {
+        buffer.add("a");
+        buffer.add("b");
+        buffer.trimTo(1);
+        buffer.get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetNegativeIndex() {
+        buffer.add("a");
+        buffer.get(-1);
+    }
+
+}
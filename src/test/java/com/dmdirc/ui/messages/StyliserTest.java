@@ -23,11 +23,16 @@
 package com.dmdirc.ui.messages;
 
 import com.dmdirc.config.provider.AggregateConfigProvider;
+import java.util.Collections;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class StyliserTest {
 
@@ -55,6 +60,36 @@ public class StyliserTest {
         assertEquals(expResult, result);
     }
 
+    @Test
+    public void testFindControlFromOffset() {
+        final String input = "ab" + (char) 2 + "cd" + (char) 3 + "ef";
+        assertEquals(2, Styliser.findControl(input, 0));
+        assertEquals(2, Styliser.findControl(input, 2));
+        assertEquals(5, Styliser.findControl(input, 3));
+        assertEquals(8, Styliser.findControl(input, 6));
+    }
+
+    @Test
+    public void testSmiliesRebuiltWhenIconsChange() {
+        final AggregateConfigProvider manager = mock(AggregateConfigProvider.class);
+        final StyledMessageMaker<?> maker = mock(StyledMessageMaker.class);
+        when(manager.getOptions("icon"))
+                .thenReturn(Collections.singletonMap("smilie-:)", "smile.png"));
+        final Styliser styliser = new Styliser(null, manager, new ColourManagerImpl(manager));
+
+        styliser.addStyledString(maker, "hello :(");
+        verify(maker, never()).startSmilie(anyString());
+
+        when(manager.getOptions("icon"))
+                .thenReturn(Collections.singletonMap("smilie-:(", "frown.png"));
+        styliser.addStyledString(maker, "hello :(");
+        verify(maker, never()).startSmilie(anyString());
+
+        styliser.configChanged("icon", "smilie-:(");
+        styliser.addStyledString(maker, "hello :(");
+        verify(maker).startSmilie("smilie-:(");
+    }
+
     @Test
     @Ignore("Doesn't work in a headless environment (initialises an IRCDocument)")
     public void testNegation() {
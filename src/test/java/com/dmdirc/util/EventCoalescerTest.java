@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.util;
+
+import com.dmdirc.events.eventbus.BaseEvent;
+import com.dmdirc.events.eventbus.EventBus;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventCoalescerTest {
+
+    @Mock private EventBus eventBus;
+    @Mock private BaseEvent event1;
+    @Mock private BaseEvent event2;
+    @Mock private BaseEvent event3;
+    @Mock private BaseEvent summary;
+    private EventCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        coalescer = new EventCoalescer(eventBus, new TimerService(1).createGroup(), 20);
+    }
+
+    @Test
+    public void testPublishesFirstEventImmediately() {
+        coalescer.publish("kind", event1, () -> summary);
+        verify(eventBus).publishAsync(event1);
+    }
+
+    @Test
+    public void testPublishesSummaryInsteadOfHeldBackEvents() {
+        coalescer.publish("kind", event1, () -> summary);
+        coalescer.publish("kind", event2, () -> summary);
+        coalescer.publish("kind", event3, () -> summary);
+
+        final InOrder inOrder = inOrder(eventBus);
+        inOrder.verify(eventBus).publishAsync(event1);
+        inOrder.verify(eventBus, timeout(1000)).publishAsync(summary);
+        verify(eventBus, never()).publishAsync(event2);
+        verify(eventBus, never()).publishAsync(event3);
+    }
+
+    @Test
+    public void testDoesNotPublishSummaryIfNothingHeldBack() {
+        coalescer.publish("kind", event1, () -> summary);
+        verify(eventBus, after(100).never()).publishAsync(summary);
+    }
+
+    @Test
+    public void testCoalescesKindsSeparately() {
+        coalescer.publish("kind1", event1, () -> summary);
+        coalescer.publish("kind2", event2, () -> summary);
+        verify(eventBus).publishAsync(event1);
+        verify(eventBus).publishAsync(event2);
+    }
+
+    @Test
+    public void testDiscardDropsHeldBackEvents() {
+        coalescer.publish("kind", event1, () -> summary);
+        coalescer.publish("kind", event2, () -> summary);
+        coalescer.discard("kind");
+        verify(eventBus, after(100).never()).publishAsync(summary);
+
+        coalescer.publish("kind", event3, () -> summary);
+        verify(eventBus).publishAsync(event3);
+    }
+
+    @Test
+    public void testZeroDelayDisablesCoalescing() {
+        coalescer.setDelay(0);
+        coalescer.publish("kind", event1, () -> summary);
+        coalescer.publish("kind", event2, () -> summary);
+        verify(eventBus).publishAsync(event1);
+        verify(eventBus).publishAsync(event2);
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2006-2017 DMDirc Developers
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated
+ * documentation files (the "Software"), to deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the
+ * Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE
+ * WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR
+ * OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.dmdirc.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimerServiceTest {
+
+    private TimerService timerService;
+
+    @Before
+    public void setup() {
+        timerService = new TimerService(1);
+    }
+
+    @Test
+    public void testRunsTimers() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        timerService.createGroup().schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCountsActiveTimers() {
+        final ScheduledExecutorService group = timerService.createGroup();
+        final ScheduledFuture<?> timer = group.schedule(() -> {}, 1, TimeUnit.HOURS);
+        group.schedule(() -> {}, 1, TimeUnit.HOURS);
+        assertEquals(2, timerService.getActiveTimers());
+        assertEquals(2, ((TimerGroup) group).getActiveTimers());
+
+        timer.cancel(false);
+        assertEquals(1, timerService.getActiveTimers());
+        assertEquals(1, ((TimerGroup) group).getActiveTimers());
+    }
+
+    @Test
+    public void testShutdownCancelsOnlyGroupTimers() {
+        final ScheduledExecutorService group1 = timerService.createGroup();
+        final ScheduledExecutorService group2 = timerService.createGroup();
+        final ScheduledFuture<?> timer1 = group1.schedule(() -> {}, 1, TimeUnit.HOURS);
+        final ScheduledFuture<?> timer2 = group2.schedule(() -> {}, 1, TimeUnit.HOURS);
+
+        group1.shutdown();
+
+        assertTrue(group1.isShutdown());
+        assertTrue(timer1.isCancelled());
+        assertFalse(group2.isShutdown());
+        assertFalse(timer2.isCancelled());
+        assertEquals(1, timerService.getActiveTimers());
+    }
+
+    @Test
+    public void testShutdownDoesNotInterruptRunningTimers() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final ScheduledExecutorService group = timerService.createGroup();
+        group.schedule(() -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException ex) {
+                interrupted.set(true);
+            }
+            finished.countDown();
+        }, 0, TimeUnit.MILLISECONDS);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        group.shutdownNow();
+        finish.countDown();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectsTimersAfterShutdown() {
+        final ScheduledExecutorService group = timerService.createGroup();
+        group.shutdown();
+        group.schedule(() -> {}, 1, TimeUnit.MILLISECONDS);
+    }
+
+}